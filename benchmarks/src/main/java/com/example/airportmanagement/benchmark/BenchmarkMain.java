@@ -0,0 +1,25 @@
+package com.example.airportmanagement.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: runs JMH with JSON results written to
+ * jmh-result.json unless the caller chose another result format or file
+ */
+public class BenchmarkMain {
+    
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
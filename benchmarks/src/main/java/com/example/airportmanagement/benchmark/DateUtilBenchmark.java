@@ -0,0 +1,47 @@
+package com.example.airportmanagement.benchmark;
+
+import com.example.airportmanagement.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtil parsing. ISO input is only accepted after the default pattern
+ * has failed with an exception, which the iso/default pair makes visible.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+    private String defaultFormat = "2025-03-14 09:30:00";
+    private String isoFormat = "2025-03-14T09:30:00";
+    private String dateOnly = "2025-03-14";
+    
+    @Benchmark
+    public LocalDateTime parseDefaultFormat() {
+        return DateUtil.parse(defaultFormat);
+    }
+    
+    @Benchmark
+    public LocalDateTime parseIsoFormat() {
+        return DateUtil.parse(isoFormat);
+    }
+    
+    @Benchmark
+    public LocalDate parseDate() {
+        return DateUtil.parseDate(dateOnly);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.airportmanagement.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-row {@link ResultSet} backed by a map of column label to value,
+ * implementing just the getters the DAO mappers call. The dispatch cost is
+ * the same for every benchmark that uses it, so comparisons stay fair.
+ */
+public class InMemoryResultSet {
+    
+    /**
+     * Build a result set positioned on the given row
+     */
+    public static ResultSet of(Map<String, Object> row) {
+        Map<String, Object> columns = new HashMap<>(row);
+        boolean[] wasNull = new boolean[1];
+        
+        return (ResultSet) Proxy.newProxyInstance(InMemoryResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                String name = method.getName();
+                if ("wasNull".equals(name)) {
+                    return wasNull[0];
+                }
+                if ("close".equals(name)) {
+                    return null;
+                }
+                if (!name.startsWith("get") || args == null || args.length != 1 || !(args[0] instanceof String)) {
+                    throw new SQLException("Not supported by InMemoryResultSet: " + method);
+                }
+                
+                Object value = columns.get((String) args[0]);
+                wasNull[0] = value == null;
+                switch (name) {
+                    case "getString":
+                        return value != null ? value.toString() : null;
+                    case "getLong":
+                        return value != null ? ((Number) value).longValue() : 0L;
+                    case "getInt":
+                        return value != null ? ((Number) value).intValue() : 0;
+                    case "getDouble":
+                        return value != null ? ((Number) value).doubleValue() : 0.0;
+                    case "getTimestamp":
+                        return (Timestamp) value;
+                    default:
+                        throw new SQLException("Not supported by InMemoryResultSet: " + method);
+                }
+            });
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.airportmanagement.benchmark;
+
+import com.example.airportmanagement.model.Airport;
+import com.example.airportmanagement.model.Booking;
+import com.example.airportmanagement.model.Flight;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic rows and model objects shaped like production data
+ */
+public class SampleData {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 6, 0);
+    private static final String[][] AIRPORTS = {
+        {"JFK", "John F. Kennedy International Airport", "New York", "USA"},
+        {"LHR", "London Heathrow Airport", "London", "UK"},
+        {"CDG", "Charles de Gaulle Airport", "Paris", "France"},
+        {"DXB", "Dubai International Airport", "Dubai", "UAE"},
+        {"SIN", "Singapore Changi Airport", "Singapore", "Singapore"},
+        {"HND", "Tokyo Haneda Airport", "Tokyo", "Japan"}
+    };
+    
+    public static List<Airport> airports() {
+        List<Airport> airports = new ArrayList<>();
+        for (int i = 0; i < AIRPORTS.length; i++) {
+            String[] a = AIRPORTS[i];
+            Airport airport = new Airport((long) i + 1, a[1], a[0], a[2], a[3]);
+            airport.setCreatedAt(BASE);
+            airport.setUpdatedAt(BASE);
+            airports.add(airport);
+        }
+        return airports;
+    }
+    
+    /**
+     * Columns of a {@code SELECT f.* FROM flights f} row
+     */
+    public static Map<String, Object> flightRow(long id) {
+        LocalDateTime departure = BASE.plusHours(id);
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("flight_number", "AA" + (100 + id % 9000));
+        row.put("source_airport_id", sourceOf(id));
+        row.put("destination_airport_id", destinationOf(id));
+        row.put("departure_time", Timestamp.valueOf(departure));
+        row.put("arrival_time", Timestamp.valueOf(departure.plusHours(7)));
+        row.put("seats_available", 180);
+        row.put("price", 420.5);
+        row.put("status", "SCHEDULED");
+        row.put("created_at", Timestamp.valueOf(BASE));
+        row.put("updated_at", Timestamp.valueOf(BASE));
+        return row;
+    }
+    
+    /**
+     * Columns of a booking row joined with its user and flight
+     */
+    public static Map<String, Object> bookingRow(long id) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("user_id", id % 500 + 1);
+        row.put("flight_id", id % 2000 + 1);
+        row.put("seats_booked", 2);
+        row.put("total_price", 841.0);
+        row.put("status", "CONFIRMED");
+        row.put("booking_date", Timestamp.valueOf(BASE.minusDays(3)));
+        row.put("username", "user" + (id % 500 + 1));
+        row.put("flight_number", "AA" + (100 + id % 9000));
+        row.put("source_airport_id", sourceOf(id));
+        row.put("destination_airport_id", destinationOf(id));
+        row.put("departure_time", Timestamp.valueOf(BASE.plusHours(id % 2000)));
+        row.put("created_at", Timestamp.valueOf(BASE.minusDays(3)));
+        row.put("updated_at", Timestamp.valueOf(BASE.minusDays(3)));
+        return row;
+    }
+    
+    public static List<Flight> flights(int count) {
+        List<Flight> flights = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            LocalDateTime departure = BASE.plusHours(id);
+            Flight flight = new Flight(id, "AA" + (100 + id % 9000), sourceOf(id), destinationOf(id),
+                departure, departure.plusHours(7), 180, 420.5);
+            flight.setStatus(Flight.FlightStatus.SCHEDULED);
+            flight.setSourceAirportCode(AIRPORTS[(int) (sourceOf(id) - 1)][0]);
+            flight.setSourceAirportName(AIRPORTS[(int) (sourceOf(id) - 1)][1]);
+            flight.setDestinationAirportCode(AIRPORTS[(int) (destinationOf(id) - 1)][0]);
+            flight.setDestinationAirportName(AIRPORTS[(int) (destinationOf(id) - 1)][1]);
+            flight.setCreatedAt(BASE);
+            flight.setUpdatedAt(BASE);
+            flights.add(flight);
+        }
+        return flights;
+    }
+    
+    public static List<Booking> bookings(int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Booking booking = new Booking();
+            booking.setId(id);
+            booking.setUserId(id % 500 + 1);
+            booking.setFlightId(id % 2000 + 1);
+            booking.setSeatsBooked(2);
+            booking.setTotalPrice(841.0);
+            booking.setStatus(Booking.BookingStatus.CONFIRMED);
+            booking.setBookingDate(BASE.minusDays(3));
+            booking.setUsername("user" + (id % 500 + 1));
+            booking.setFlightNumber("AA" + (100 + id % 9000));
+            booking.setSourceAirportCode(AIRPORTS[(int) (sourceOf(id) - 1)][0]);
+            booking.setDestinationAirportCode(AIRPORTS[(int) (destinationOf(id) - 1)][0]);
+            booking.setDepartureTime(BASE.plusHours(id % 2000));
+            booking.setCreatedAt(BASE.minusDays(3));
+            booking.setUpdatedAt(BASE.minusDays(3));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+    
+    private static long sourceOf(long id) {
+        return id % AIRPORTS.length + 1;
+    }
+    
+    private static long destinationOf(long id) {
+        return (id + 1) % AIRPORTS.length + 1;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.benchmark.SampleData;
+import com.example.airportmanagement.model.Booking;
+import com.example.airportmanagement.model.Flight;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing listings through the real BaseServlet paths: the buffered
+ * {@code sendSuccess} envelope and the row-by-row {@code sendStream}.
+ * Output is UTF-8 encoded and then discarded, so no network or buffer
+ * growth is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    @Param({"100", "10000", "100000"})
+    private int size;
+    
+    private List<Flight> flights;
+    private List<Booking> bookings;
+    private HttpServletResponse response;
+    private final Harness servlet = new Harness();
+    
+    /**
+     * Exposes the protected BaseServlet helpers
+     */
+    private static final class Harness extends BaseServlet {
+    }
+    
+    @Setup
+    public void setUp() {
+        flights = SampleData.flights(size);
+        bookings = SampleData.bookings(size);
+        
+        // Jackson closes what it writes to, so hand out a fresh writer or stream per call
+        response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getWriter":
+                        return new PrintWriter(new OutputStreamWriter(
+                            OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+                    case "getOutputStream":
+                        return new DiscardingOutputStream();
+                    case "isCommitted":
+                        return false;
+                    default:
+                        return null;
+                }
+            });
+    }
+    
+    @Benchmark
+    public void flightsEnvelope() throws IOException {
+        servlet.sendSuccess(response, flights, "Flights retrieved successfully");
+    }
+    
+    @Benchmark
+    public void flightsStream() throws IOException {
+        servlet.sendStream(response, "Flights retrieved successfully", handler -> {
+            for (Flight flight : flights) {
+                handler.handle(flight);
+            }
+        });
+    }
+    
+    @Benchmark
+    public void bookingsEnvelope() throws IOException {
+        servlet.sendSuccess(response, bookings, "Bookings retrieved successfully");
+    }
+    
+    @Benchmark
+    public void bookingsStream() throws IOException {
+        servlet.sendStream(response, "Bookings retrieved successfully", handler -> {
+            for (Booking booking : bookings) {
+                handler.handle(booking);
+            }
+        });
+    }
+    
+    private static final class DiscardingOutputStream extends ServletOutputStream {
+        @Override
+        public void write(int b) {
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+        
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener listener) {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.airportmanagement.dao;
+
+import com.example.airportmanagement.benchmark.InMemoryResultSet;
+import com.example.airportmanagement.benchmark.SampleData;
+import com.example.airportmanagement.model.Airport;
+import com.example.airportmanagement.model.Booking;
+import com.example.airportmanagement.model.Flight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one row into a model object, including the airport cache lookups.
+ * Lives in the dao package to reach the package-private mappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+    private FlightDAO flightDAO;
+    private BookingDAO bookingDAO;
+    private ResultSet flightRow;
+    private ResultSet bookingRow;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        AirportCache airportCache = new AirportCache(new AirportDAO() {
+            @Override
+            public List<Airport> findAll() {
+                return SampleData.airports();
+            }
+        });
+        airportCache.preload();
+        
+        flightDAO = new FlightDAO(airportCache);
+        bookingDAO = new BookingDAO(airportCache);
+        flightRow = InMemoryResultSet.of(SampleData.flightRow(42));
+        bookingRow = InMemoryResultSet.of(SampleData.bookingRow(42));
+    }
+    
+    @Benchmark
+    public Flight mapFlight() throws SQLException {
+        return flightDAO.mapResultSetToFlight(flightRow);
+    }
+    
+    @Benchmark
+    public Booking mapBooking() throws SQLException {
+        return bookingDAO.mapResultSetToBooking(bookingRow);
+    }
+}
@@ -0,0 +1,28 @@
+#!/bin/sh
+# Run the same load twice, on container threads and on virtual threads, and
+# keep both reports. Extra arguments are passed to both runs; -D options go
+# to the JVM and the rest to the load test, e.g.
+#   loadtest/compare-threads.sh --users=800 --serverThreads=50 -Ddb.pool.maxActive=100
+# Results go to loadtest-platform.* and loadtest-virtual.* in the current directory.
+set -e
+
+JAR="$(dirname "$0")/target/loadtest.jar"
+JAVA="${JAVA:-java}"
+
+JVM_OPTS=""
+for arg in "$@"; do
+    shift
+    case "$arg" in
+        -D*) JVM_OPTS="$JVM_OPTS $arg" ;;
+        *) set -- "$@" "$arg" ;;
+    esac
+done
+
+for mode in platform virtual; do
+    if [ "$mode" = virtual ]; then enabled=true; else enabled=false; fi
+    echo "=== $mode threads ==="
+    # shellcheck disable=SC2086
+    "$JAVA" $JVM_OPTS -DvirtualThreads.enabled=$enabled -jar "$JAR" \
+        --output=loadtest-$mode.hlog --metricsOutput=loadtest-$mode-metrics.txt "$@" \
+        | tee loadtest-$mode.txt
+done
@@ -0,0 +1,78 @@
+package com.example.airportmanagement.loadtest;
+
+import com.example.airportmanagement.config.AppContextListener;
+import com.example.airportmanagement.controller.AirportServlet;
+import com.example.airportmanagement.controller.AuthServlet;
+import com.example.airportmanagement.controller.BookingServlet;
+import com.example.airportmanagement.controller.FlightServlet;
+import com.example.airportmanagement.controller.MetricsServlet;
+import com.example.airportmanagement.filter.VirtualThreadFilter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServlet;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.net.URI;
+import java.util.EnumSet;
+
+/**
+ * The application's servlets, filter and listener in an embedded Jetty,
+ * mapped as in the WAR (context path, URL patterns and session settings from
+ * web.xml). The container thread pool is capped at {@code maxThreads}, which
+ * bounds concurrency unless virtual-thread mode is on.
+ */
+public class EmbeddedServer {
+    public static final String CONTEXT_PATH = "/AirportManagementSystem";
+    
+    private final Server server;
+    private final ServerConnector connector;
+    
+    public EmbeddedServer(int port, int maxThreads) {
+        server = new Server(new QueuedThreadPool(maxThreads));
+        connector = new ServerConnector(server);
+        connector.setPort(port);
+        server.addConnector(connector);
+        
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath(CONTEXT_PATH);
+        context.getSessionHandler().setMaxInactiveInterval(60 * 60);
+        context.getSessionHandler().setHttpOnly(true);
+        context.addEventListener(new AppContextListener());
+        
+        FilterHolder virtualThreads = new FilterHolder(new VirtualThreadFilter());
+        virtualThreads.setAsyncSupported(true);
+        addApiServlet(context, virtualThreads, new AuthServlet(), "/auth/*");
+        addApiServlet(context, virtualThreads, new AirportServlet(), "/airport/*");
+        addApiServlet(context, virtualThreads, new FlightServlet(), "/flight/*");
+        addApiServlet(context, virtualThreads, new BookingServlet(), "/booking/*");
+        context.addServlet(new ServletHolder(new MetricsServlet()), "/metrics");
+        server.setHandler(context);
+    }
+    
+    public void start() throws Exception {
+        server.start();
+    }
+    
+    public void stop() throws Exception {
+        server.stop();
+    }
+    
+    private static void addApiServlet(ServletContextHandler context, FilterHolder filter,
+            HttpServlet servlet, String pathSpec) {
+        ServletHolder holder = new ServletHolder(servlet);
+        holder.setAsyncSupported(true);
+        context.addServlet(holder, pathSpec);
+        context.addFilter(filter, pathSpec, EnumSet.of(DispatcherType.REQUEST));
+    }
+    
+    /**
+     * Base URI of the application, e.g. http://localhost:8080/AirportManagementSystem
+     */
+    public URI getBaseUri() {
+        return URI.create("http://localhost:" + connector.getLocalPort() + CONTEXT_PATH);
+    }
+}
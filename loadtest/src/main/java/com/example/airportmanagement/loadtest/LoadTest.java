@@ -0,0 +1,168 @@
+package com.example.airportmanagement.loadtest;
+
+import com.example.airportmanagement.config.AppConfig;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * End-to-end load driver: boots the application in an embedded Jetty on an
+ * in-memory H2 database (MySQL mode), seeds it, replays a weighted mix of
+ * search, list, booking, cancellation and login traffic from many virtual
+ * users, and reports throughput, latency percentiles and error rates per
+ * endpoint. Full histograms are written as an HdrHistogram log.
+ *
+ * Options are given as {@code --name=value}; see {@link Options} for the
+ * names and defaults. Any application or pool setting can be overridden with
+ * {@code -Dkey=value}, e.g. {@code -Dinventory.enabled=true}.
+ */
+public class LoadTest {
+    
+    /**
+     * Command-line options and their defaults
+     */
+    public static final class Options {
+        int users = 32;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        Mix mix = new Mix("search:50,list:5,book:25,cancel:10,login:10");
+        int airports = 20;
+        int flights = 2000;
+        int hotFlights = 10;
+        double hotShare = 0.8;
+        long thinkMillis = 0;
+        long seed = 42;
+        int port = 0;
+        int serverThreads = 200;
+        String output = "loadtest-results.hlog";
+        String metricsOutput = "loadtest-metrics.txt";
+        
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+            
+            Options options = new Options();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue();
+                switch (entry.getKey()) {
+                    case "users": options.users = Integer.parseInt(value); break;
+                    case "durationSeconds": options.durationSeconds = Integer.parseInt(value); break;
+                    case "warmupSeconds": options.warmupSeconds = Integer.parseInt(value); break;
+                    case "mix": options.mix = new Mix(value); break;
+                    case "airports": options.airports = Integer.parseInt(value); break;
+                    case "flights": options.flights = Integer.parseInt(value); break;
+                    case "hotFlights": options.hotFlights = Integer.parseInt(value); break;
+                    case "hotShare": options.hotShare = Double.parseDouble(value); break;
+                    case "thinkMillis": options.thinkMillis = Long.parseLong(value); break;
+                    case "seed": options.seed = Long.parseLong(value); break;
+                    case "port": options.port = Integer.parseInt(value); break;
+                    case "serverThreads": options.serverThreads = Integer.parseInt(value); break;
+                    case "output": options.output = value; break;
+                    case "metricsOutput": options.metricsOutput = value; break;
+                    default: throw new IllegalArgumentException("Unknown option: --" + entry.getKey());
+                }
+            }
+            if (options.users < 1 || options.durationSeconds < 1 || options.flights < 1) {
+                throw new IllegalArgumentException("users, durationSeconds and flights must be positive");
+            }
+            return options;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        
+        // Must be set before any application class reads AppConfig
+        setDefault("db.url", "jdbc:h2:mem:airport_loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        setDefault("db.driver", "org.h2.Driver");
+        setDefault("db.username", "sa");
+        setDefault("db.password", "");
+        setDefault("db.pool.maxActive", String.valueOf(Math.max(20, options.users)));
+        
+        TestDatabase data = new TestDatabase(System.getProperty("db.url"),
+            System.getProperty("db.username"), System.getProperty("db.password"));
+        data.create(options.airports, options.flights, options.seed);
+        
+        EmbeddedServer server = new EmbeddedServer(options.port, options.serverThreads);
+        server.start();
+        URI baseUri = server.getBaseUri();
+        System.out.printf("Serving %s with %d airports and %d flights on %s threads%n", baseUri,
+            options.airports, options.flights,
+            AppConfig.getAppBooleanProperty("virtualThreads.enabled", false) ? "virtual" : options.serverThreads + " container");
+        
+        Stats stats = new Stats();
+        AtomicBoolean stopped = new AtomicBoolean();
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        // One virtual thread per user keeps the driver cheap at high user counts
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("virtual-user-", 0).factory());
+        
+        try {
+            List<VirtualUser> users = new ArrayList<>();
+            for (int i = 0; i < options.users; i++) {
+                VirtualUser user = new VirtualUser(i, client, baseUri, options, data, stats, stopped);
+                user.setUp();
+                users.add(user);
+            }
+            
+            System.out.printf("Running %d users, mix %s: %d s warm-up, %d s measured%n",
+                options.users, options.mix, options.warmupSeconds, options.durationSeconds);
+            List<Future<?>> running = new ArrayList<>();
+            for (VirtualUser user : users) {
+                running.add(executor.submit(user));
+            }
+            
+            TimeUnit.SECONDS.sleep(options.warmupSeconds);
+            stats.start();
+            TimeUnit.SECONDS.sleep(options.durationSeconds);
+            stats.stop();
+            
+            stopped.set(true);
+            for (Future<?> future : running) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            
+            // Server-side view of the same run: request, DAO and pool metrics
+            HttpResponse<Path> metrics = client.send(
+                HttpRequest.newBuilder(URI.create(baseUri + "/metrics")).build(),
+                HttpResponse.BodyHandlers.ofFile(Path.of(options.metricsOutput)));
+            if (metrics.statusCode() == 200) {
+                System.out.println("Server metrics written to " + options.metricsOutput);
+            }
+        } finally {
+            executor.shutdownNow();
+            server.stop();
+        }
+        
+        stats.printReport(System.out);
+        stats.writeLog(options.output);
+        System.out.println("Histograms written to " + options.output);
+    }
+    
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
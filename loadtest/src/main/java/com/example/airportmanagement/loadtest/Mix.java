@@ -0,0 +1,68 @@
+package com.example.airportmanagement.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice of operations, parsed from e.g. {@code search:50,book:25,cancel:10}
+ */
+public class Mix {
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    
+    public Mix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in mix, got: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + part);
+            }
+            weights.put(Operation.fromKey(pair[0]), weight);
+        }
+        
+        operations = new Operation[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            total += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Mix has no weight: " + spec);
+        }
+        totalWeight = total;
+    }
+    
+    public Operation next(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(operations[i].getKey()).append(':').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return sb.toString();
+    }
+}
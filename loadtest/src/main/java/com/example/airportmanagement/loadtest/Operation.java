@@ -0,0 +1,40 @@
+package com.example.airportmanagement.loadtest;
+
+/**
+ * Kinds of request a virtual user sends, named as in the {@code --mix} option
+ */
+public enum Operation {
+    SEARCH("search", "GET /flight/search"),
+    LIST("list", "GET /flight/list"),
+    BOOK("book", "POST /booking/create"),
+    CANCEL("cancel", "PUT /booking/cancel"),
+    LOGIN("login", "POST /auth/login");
+    
+    private final String key;
+    private final String endpoint;
+    
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    /**
+     * Label used in the report and as the histogram tag
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + key);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.airportmanagement.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and error counts per endpoint. Latencies are recorded in
+ * nanoseconds, the unit HdrHistogram's log tools assume by default, and only
+ * while recording is on, so warm-up traffic is left out.
+ */
+public class Stats {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> results = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+    private long startMillis;
+    private long endMillis;
+    
+    public Stats() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+    
+    /**
+     * Discard everything seen so far and start recording
+     */
+    public void start() {
+        for (Operation operation : Operation.values()) {
+            recorders.get(operation).reset();
+            errors.get(operation).reset();
+        }
+        startMillis = System.currentTimeMillis();
+        recording = true;
+    }
+    
+    /**
+     * Stop recording and take the histograms for the measured interval
+     */
+    public void stop() {
+        recording = false;
+        endMillis = System.currentTimeMillis();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            histogram.setTag(operation.getKey());
+            histogram.setStartTimeStamp(startMillis);
+            histogram.setEndTimeStamp(endMillis);
+            results.put(operation, histogram);
+        }
+    }
+    
+    public void record(Operation operation, long latencyNanos, boolean failed) {
+        if (!recording) {
+            return;
+        }
+        recorders.get(operation).recordValue(latencyNanos);
+        if (failed) {
+            errors.get(operation).increment();
+        }
+    }
+    
+    /**
+     * Write one tagged interval histogram per endpoint, readable with
+     * HistogramLogProcessor ({@code -tag}) or HdrHistogram's log analyzers
+     */
+    public void writeLog(String fileName) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(fileName)) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("Airport Management System load test, latencies in nanoseconds");
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = results.get(operation);
+                if (histogram.getTotalCount() > 0) {
+                    writer.outputIntervalHistogram(histogram);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Throughput, latency percentiles in milliseconds and error rate per endpoint
+     */
+    public void printReport(PrintStream out) {
+        double seconds = Math.max(1, endMillis - startMillis) / 1000.0;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        
+        out.printf("%-22s %9s %9s %9s %9s %9s %9s %8s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = results.get(operation);
+            long errorCount = errors.get(operation).sum();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            printLine(out, operation.getEndpoint(), histogram, errorCount, seconds);
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+        printLine(out, "total", total, totalErrors, seconds);
+        out.printf("Measured %.1f s%n", seconds);
+    }
+    
+    private static void printLine(PrintStream out, String label, Histogram histogram, long errorCount,
+            double seconds) {
+        long count = histogram.getTotalCount();
+        out.printf("%-22s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n",
+            label, count, count / seconds,
+            histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+            histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+            histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+            histogram.getMaxValue() / NANOS_PER_MILLI,
+            count == 0 ? 0.0 : 100.0 * errorCount / count);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.airportmanagement.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-memory H2 database in MySQL mode, created from h2-schema.sql and seeded
+ * with airports and future flights for the virtual users to search and book
+ */
+public class TestDatabase {
+    private static final String INSERT_AIRPORT =
+        "INSERT INTO airports (name, code, city, country) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_FLIGHT =
+        "INSERT INTO flights (flight_number, source_airport_id, destination_airport_id, " +
+        "departure_time, arrival_time, seats_available, price, status) VALUES (?, ?, ?, ?, ?, ?, ?, 'SCHEDULED')";
+    
+    // Large enough that the hot flights never sell out during a run
+    private static final int SEATS_PER_FLIGHT = 1_000_000;
+    private static final int SCHEDULE_DAYS = 30;
+    
+    private final String url;
+    private final String username;
+    private final String password;
+    private final List<Route> routes = new ArrayList<>();
+    private final List<Long> flightIds = new ArrayList<>();
+    
+    /**
+     * A route and day that has at least one flight, used for searches
+     */
+    public static final class Route {
+        final String from;
+        final String to;
+        final LocalDate date;
+        
+        Route(String from, String to, LocalDate date) {
+            this.from = from;
+            this.to = to;
+            this.date = date;
+        }
+    }
+    
+    public TestDatabase(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+    
+    /**
+     * Create the schema and insert the given number of airports and flights
+     */
+    public void create(int airportCount, int flightCount, long seed) throws SQLException, IOException {
+        if (airportCount < 2) {
+            throw new IllegalArgumentException("At least two airports are needed");
+        }
+        try (Connection conn = DriverManager.getConnection(url, username, password)) {
+            runScript(conn, readResource("/h2-schema.sql"));
+            
+            conn.setAutoCommit(false);
+            List<Long> airportIds = new ArrayList<>();
+            List<String> codes = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_AIRPORT, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < airportCount; i++) {
+                    String code = airportCode(i);
+                    stmt.setString(1, "Load Test Airport " + code);
+                    stmt.setString(2, code);
+                    stmt.setString(3, "City " + code);
+                    stmt.setString(4, "Country " + (i % 10));
+                    stmt.executeUpdate();
+                    airportIds.add(generatedKey(stmt));
+                    codes.add(code);
+                }
+            }
+            
+            Random random = new Random(seed);
+            LocalDate firstDay = LocalDate.now().plusDays(1);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_FLIGHT, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < flightCount; i++) {
+                    int source = random.nextInt(airportCount);
+                    int destination = (source + 1 + random.nextInt(airportCount - 1)) % airportCount;
+                    LocalDateTime departure = firstDay.plusDays(random.nextInt(SCHEDULE_DAYS))
+                        .atTime(random.nextInt(24), random.nextInt(12) * 5);
+                    
+                    stmt.setString(1, "LT" + (1000 + i % 9000));
+                    stmt.setLong(2, airportIds.get(source));
+                    stmt.setLong(3, airportIds.get(destination));
+                    stmt.setTimestamp(4, Timestamp.valueOf(departure));
+                    stmt.setTimestamp(5, Timestamp.valueOf(departure.plusMinutes(60 + random.nextInt(600))));
+                    stmt.setInt(6, SEATS_PER_FLIGHT);
+                    stmt.setDouble(7, 50 + random.nextInt(950));
+                    stmt.executeUpdate();
+                    
+                    flightIds.add(generatedKey(stmt));
+                    routes.add(new Route(codes.get(source), codes.get(destination), departure.toLocalDate()));
+                }
+            }
+            conn.commit();
+        }
+    }
+    
+    public List<Route> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
+    
+    public List<Long> getFlightIds() {
+        return Collections.unmodifiableList(flightIds);
+    }
+    
+    /**
+     * Three-letter code for the n-th airport: AAA, AAB, ...
+     */
+    static String airportCode(int n) {
+        char[] code = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            code[i] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(code);
+    }
+    
+    private static long generatedKey(PreparedStatement stmt) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("No generated key returned");
+            }
+            return keys.getLong(1);
+        }
+    }
+    
+    private static void runScript(Connection conn, String script) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            sql.append(line).append('\n');
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : sql.toString().split(";")) {
+                if (!statement.isBlank()) {
+                    stmt.execute(statement);
+                }
+            }
+        }
+    }
+    
+    private static String readResource(String name) throws IOException {
+        try (InputStream in = TestDatabase.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.airportmanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One simulated passenger with its own account and session. It registers and
+ * logs in once, then sends operations picked from the mix back to back (a
+ * closed loop, with optional think time) until told to stop. Cancellations
+ * are of its own earlier bookings; with none left, it books instead.
+ */
+public class VirtualUser implements Runnable {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String PASSWORD = "LoadUser123";
+    private static final String FORM = "application/x-www-form-urlencoded";
+    
+    private final HttpClient client;
+    private final String baseUri;
+    private final Mix mix;
+    private final Stats stats;
+    private final List<TestDatabase.Route> routes;
+    private final List<Long> flightIds;
+    private final int hotFlights;
+    private final double hotShare;
+    private final long thinkMillis;
+    private final AtomicBoolean stopped;
+    private final String username;
+    private final Random random;
+    private final Deque<Long> bookingIds = new ArrayDeque<>();
+    private String sessionCookie;
+    
+    public VirtualUser(int index, HttpClient client, URI baseUri, LoadTest.Options options, TestDatabase data,
+            Stats stats, AtomicBoolean stopped) {
+        this.client = client;
+        this.baseUri = baseUri.toString();
+        this.mix = options.mix;
+        this.stats = stats;
+        this.routes = data.getRoutes();
+        this.flightIds = data.getFlightIds();
+        this.hotFlights = Math.max(1, Math.min(options.hotFlights, flightIds.size()));
+        this.hotShare = options.hotShare;
+        this.thinkMillis = options.thinkMillis;
+        this.stopped = stopped;
+        this.username = "load_user_" + index;
+        this.random = new Random(options.seed + index);
+    }
+    
+    /**
+     * Create the account and log in; failures here abort the run
+     */
+    public void setUp() throws IOException, InterruptedException {
+        HttpResponse<String> registered = send(post("/auth/register", form(
+            "username", username,
+            "password", PASSWORD,
+            "email", username + "@loadtest.example")));
+        if (registered.statusCode() != 200) {
+            throw new IOException("Registration of " + username + " failed: " + registered.body());
+        }
+        HttpResponse<String> loggedIn = send(loginRequest());
+        if (loggedIn.statusCode() != 200 || sessionCookie == null) {
+            throw new IOException("Login of " + username + " failed: " + loggedIn.body());
+        }
+    }
+    
+    @Override
+    public void run() {
+        while (!stopped.get() && !Thread.currentThread().isInterrupted()) {
+            Operation operation = mix.next(random);
+            if (operation == Operation.CANCEL && bookingIds.isEmpty()) {
+                operation = Operation.BOOK;
+            }
+            execute(operation);
+            
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    private void execute(Operation operation) {
+        HttpRequest request = requestFor(operation);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request);
+            boolean failed = response.statusCode() >= 400;
+            stats.record(operation, System.nanoTime() - start, failed);
+            if (!failed && operation == Operation.BOOK) {
+                JsonNode id = objectMapper.readTree(response.body()).path("data").path("id");
+                if (id.canConvertToLong()) {
+                    bookingIds.addLast(id.asLong());
+                }
+            }
+        } catch (IOException e) {
+            stats.record(operation, System.nanoTime() - start, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private HttpRequest requestFor(Operation operation) {
+        switch (operation) {
+            case SEARCH:
+                TestDatabase.Route route = routes.get(random.nextInt(routes.size()));
+                return get("/flight/search?from=" + route.from + "&to=" + route.to + "&date=" + route.date);
+            case LIST:
+                return get("/flight/list");
+            case BOOK:
+                return post("/booking/create", form(
+                    "flightId", String.valueOf(pickFlight()),
+                    "seatsBooked", "1"));
+            case CANCEL:
+                return builder("/booking/cancel/" + bookingIds.pollFirst())
+                    .PUT(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case LOGIN:
+                return loginRequest();
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+    
+    /**
+     * A hot flight with probability {@code hotShare}, otherwise any flight
+     */
+    private long pickFlight() {
+        if (random.nextDouble() < hotShare) {
+            return flightIds.get(random.nextInt(hotFlights));
+        }
+        return flightIds.get(random.nextInt(flightIds.size()));
+    }
+    
+    private HttpRequest loginRequest() {
+        return post("/auth/login", form("username", username, "password", PASSWORD));
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        for (String cookie : response.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                int end = cookie.indexOf(';');
+                sessionCookie = end < 0 ? cookie : cookie.substring(0, end);
+            }
+        }
+        return response;
+    }
+    
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+    
+    private HttpRequest post(String path, String form) {
+        return builder(path)
+            .header("Content-Type", FORM)
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+    }
+    
+    private HttpRequest.Builder builder(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path))
+            .timeout(REQUEST_TIMEOUT);
+        if (sessionCookie != null) {
+            builder.header("Cookie", sessionCookie);
+        }
+        return builder;
+    }
+    
+    private static String form(String... pairs) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(pairs[i], StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+}
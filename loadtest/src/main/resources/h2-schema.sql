@@ -0,0 +1,65 @@
+-- sql/schema.sql adapted for H2 in MySQL mode: index names are unique per
+-- schema in H2, and table options (ENGINE, CHARSET, COLLATE) are dropped.
+-- Keep in step with sql/schema.sql and sql/migrations.
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    role ENUM('ADMIN', 'STAFF', 'PASSENGER') NOT NULL DEFAULT 'PASSENGER',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_users_role ON users (role);
+
+CREATE TABLE airports (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    code CHAR(3) NOT NULL UNIQUE,
+    city VARCHAR(100) NOT NULL,
+    country VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_airports_city ON airports (city);
+CREATE INDEX idx_airports_country ON airports (country);
+
+CREATE TABLE flights (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    flight_number VARCHAR(10) NOT NULL,
+    source_airport_id BIGINT NOT NULL,
+    destination_airport_id BIGINT NOT NULL,
+    departure_time DATETIME NOT NULL,
+    arrival_time DATETIME NOT NULL,
+    seats_available INT NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    status ENUM('SCHEDULED', 'BOARDING', 'DEPARTED', 'ARRIVED', 'CANCELLED', 'DELAYED')
+        NOT NULL DEFAULT 'SCHEDULED',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (source_airport_id) REFERENCES airports(id) ON DELETE CASCADE,
+    FOREIGN KEY (destination_airport_id) REFERENCES airports(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_flights_number ON flights (flight_number);
+CREATE INDEX idx_flights_departure_time ON flights (departure_time);
+CREATE INDEX idx_flights_status ON flights (status);
+CREATE INDEX idx_flights_route_departure ON flights (source_airport_id, destination_airport_id, departure_time);
+
+CREATE TABLE bookings (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    flight_id BIGINT NOT NULL,
+    seats_booked INT NOT NULL,
+    total_price DECIMAL(10, 2) NOT NULL,
+    status ENUM('CONFIRMED', 'CANCELLED', 'COMPLETED') NOT NULL DEFAULT 'CONFIRMED',
+    booking_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    seats_reflected BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (flight_id) REFERENCES flights(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_bookings_status ON bookings (status);
+CREATE INDEX idx_bookings_booking_date ON bookings (booking_date);
+CREATE INDEX idx_bookings_seat_sync ON bookings (seats_reflected, status);
@@ -0,0 +1,13 @@
+-- Seat inventory write-behind support
+--
+-- seats_reflected records whether flights.seats_available currently includes
+-- a booking's seats. Bookings taken through the in-memory seat inventory are
+-- inserted with seats_reflected = FALSE and the flight row is brought up to
+-- date later by the flush job.
+
+ALTER TABLE bookings
+    ADD COLUMN seats_reflected BOOLEAN NOT NULL DEFAULT TRUE AFTER booking_date,
+    ADD INDEX idx_seat_sync (seats_reflected, status);
+
+-- Seats of bookings cancelled before this migration were already returned to the flight
+UPDATE bookings SET seats_reflected = FALSE WHERE status = 'CANCELLED';
@@ -0,0 +1,10 @@
+-- Flight search index
+--
+-- Flight searches filter on source, destination and a half-open departure
+-- range. Extending idx_source_dest with departure_time lets MySQL seek the
+-- route and range-scan the day in one index. The old index is a prefix of
+-- the new one, so it is dropped in the same statement.
+
+ALTER TABLE flights
+    ADD INDEX idx_route_departure (source_airport_id, destination_airport_id, departure_time),
+    DROP INDEX idx_source_dest;
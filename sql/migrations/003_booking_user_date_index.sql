@@ -0,0 +1,11 @@
+-- Booking user/date index
+--
+-- The dashboard reads a user's newest bookings with ORDER BY booking_date
+-- DESC LIMIT n. Extending idx_user_id with booking_date lets MySQL read
+-- just those n index entries instead of sorting all of the user's rows.
+-- The old index is a prefix of the new one, so it is dropped in the same
+-- statement.
+
+ALTER TABLE bookings
+    ADD INDEX idx_user_booking_date (user_id, booking_date),
+    DROP INDEX idx_user_id;
@@ -53,7 +53,7 @@ CREATE TABLE flights (
     INDEX idx_flight_number (flight_number),
     INDEX idx_departure_time (departure_time),
     INDEX idx_status (status),
-    INDEX idx_source_dest (source_airport_id, destination_airport_id)
+    INDEX idx_route_departure (source_airport_id, destination_airport_id, departure_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Create bookings table
@@ -65,12 +65,15 @@ CREATE TABLE bookings (
     total_price DECIMAL(10, 2) NOT NULL,
     status ENUM('CONFIRMED', 'CANCELLED', 'COMPLETED') NOT NULL DEFAULT 'CONFIRMED',
     booking_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- TRUE when flights.seats_available currently includes this booking's seats
+    seats_reflected BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (flight_id) REFERENCES flights(id) ON DELETE CASCADE,
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_booking_date (user_id, booking_date),
     INDEX idx_flight_id (flight_id),
     INDEX idx_status (status),
-    INDEX idx_booking_date (booking_date)
+    INDEX idx_booking_date (booking_date),
+    INDEX idx_seat_sync (seats_reflected, status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -10,6 +10,7 @@ import java.util.Properties;
 public class AppConfig {
     private static final Properties dbProperties = new Properties();
     private static final Properties messageProperties = new Properties();
+    private static final Properties appProperties = new Properties();
     
     static {
         loadProperties();
@@ -19,7 +20,9 @@ public class AppConfig {
         try (InputStream dbStream = AppConfig.class.getClassLoader()
                 .getResourceAsStream("db.properties");
              InputStream msgStream = AppConfig.class.getClassLoader()
-                .getResourceAsStream("messages.properties")) {
+                .getResourceAsStream("messages.properties");
+             InputStream appStream = AppConfig.class.getClassLoader()
+                .getResourceAsStream("app.properties")) {
             
             if (dbStream != null) {
                 dbProperties.load(dbStream);
@@ -27,19 +30,50 @@ public class AppConfig {
             if (msgStream != null) {
                 messageProperties.load(msgStream);
             }
+            if (appStream != null) {
+                appProperties.load(appStream);
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to load configuration files", e);
         }
     }
     
+    /**
+     * Get a database property; a JVM system property of the same name takes precedence
+     */
     public static String getDbProperty(String key) {
-        return dbProperties.getProperty(key);
+        return System.getProperty(key, dbProperties.getProperty(key));
     }
     
     public static String getMessage(String key) {
         return messageProperties.getProperty(key);
     }
     
+    /**
+     * Get an application property; a JVM system property of the same name takes precedence
+     */
+    public static String getAppProperty(String key) {
+        return System.getProperty(key, appProperties.getProperty(key));
+    }
+    
+    /**
+     * Get an integer application property, falling back to a default when missing or malformed
+     */
+    public static int getAppIntProperty(String key, int defaultValue) {
+        return parseInt(getAppProperty(key), defaultValue);
+    }
+    
+    /**
+     * Get a boolean application property, falling back to a default when missing
+     */
+    public static boolean getAppBooleanProperty(String key, boolean defaultValue) {
+        String value = getAppProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+    
     public static String getDbUrl() {
         return getDbProperty("db.url");
     }
@@ -55,4 +89,22 @@ public class AppConfig {
     public static String getDbDriver() {
         return getDbProperty("db.driver");
     }
+    
+    /**
+     * Get an integer database property, falling back to a default when missing or malformed
+     */
+    public static int getDbIntProperty(String key, int defaultValue) {
+        return parseInt(getDbProperty(key), defaultValue);
+    }
+    
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
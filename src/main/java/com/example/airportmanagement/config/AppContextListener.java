@@ -0,0 +1,48 @@
+package com.example.airportmanagement.config;
+
+import com.example.airportmanagement.dao.AirportCache;
+import com.example.airportmanagement.db.DatabaseConnection;
+import com.example.airportmanagement.metrics.Metrics;
+import com.example.airportmanagement.service.BookingWriter;
+import com.example.airportmanagement.service.FlightChangeBus;
+import com.example.airportmanagement.service.SeatInventory;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+
+/**
+ * Warms shared caches and registers metric gauges when the application
+ * starts, and releases background threads and connections when it stops
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+    private static final Logger logger = LoggerFactory.getLogger(AppContextListener.class);
+    
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        try {
+            AirportCache.getInstance().preload();
+        } catch (SQLException e) {
+            // Not fatal: the cache loads itself on first use
+            logger.error("Failed to preload airport cache", e);
+        }
+        
+        if (SeatInventory.isEnabled()) {
+            SeatInventory.getInstance();
+        }
+        
+        Metrics.registerGauges();
+    }
+    
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        BookingWriter.shutdownInstance();
+        SeatInventory.shutdownInstance();
+        FlightChangeBus.shutdownInstance();
+        DatabaseConnection.shutdown();
+    }
+}
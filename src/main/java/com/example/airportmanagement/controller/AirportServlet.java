@@ -1,9 +1,11 @@
 package com.example.airportmanagement.controller;
 
+import com.example.airportmanagement.config.AppConfig;
 import com.example.airportmanagement.model.Airport;
 import com.example.airportmanagement.model.User;
 import com.example.airportmanagement.service.AirportService;
 import com.example.airportmanagement.service.ServiceException;
+import com.example.airportmanagement.service.TableVersion;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,21 +14,30 @@ import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Airport Management Servlet
  */
-@WebServlet(name = "AirportServlet", urlPatterns = {"/airport/*"})
+@WebServlet(name = "AirportServlet", urlPatterns = {"/airport/*"}, asyncSupported = true)
 public class AirportServlet extends BaseServlet {
     private static final Logger logger = LoggerFactory.getLogger(AirportServlet.class);
+    private static final Set<String> ROUTES = Set.of("/", "/list", "/search", "/import", "/{id}");
+    private static final int MAX_AGE_SECONDS = AppConfig.getAppIntProperty("httpCache.airports.maxAgeSeconds", 60);
     private final AirportService airportService;
     
     public AirportServlet() {
         this.airportService = new AirportService();
     }
     
+    @Override
+    protected Set<String> routes() {
+        return ROUTES;
+    }
+    
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
@@ -60,7 +71,11 @@ public class AirportServlet extends BaseServlet {
             return;
         }
         
-        handleCreate(request, response);
+        if ("/import".equals(request.getPathInfo())) {
+            handleImport(request, response);
+        } else {
+            handleCreate(request, response);
+        }
     }
     
     @Override
@@ -108,6 +123,15 @@ public class AirportServlet extends BaseServlet {
      */
     private void handleGetAll(HttpServletRequest request, HttpServletResponse response) 
             throws IOException {
+        if (checkNotModified(request, response, MAX_AGE_SECONDS, TableVersion.airports())) {
+            return;
+        }
+        
+        if (isStreamRequest(request)) {
+            sendStream(response, "Airports retrieved successfully", airportService::streamAllAirports);
+            return;
+        }
+        
         try {
             List<Airport> airports = airportService.getAllAirports();
             sendSuccess(response, airports, "Airports retrieved successfully");
@@ -124,6 +148,9 @@ public class AirportServlet extends BaseServlet {
         try {
             String pathInfo = request.getPathInfo();
             Long id = Long.parseLong(pathInfo.substring(1));
+            if (checkNotModified(request, response, MAX_AGE_SECONDS, TableVersion.airports())) {
+                return;
+            }
             
             Airport airport = airportService.getAirportById(id);
             sendSuccess(response, airport, "Airport retrieved successfully");
@@ -169,6 +196,18 @@ public class AirportServlet extends BaseServlet {
         }
     }
     
+    /**
+     * Import airports sent as the request body, one per line (CSV or JSON)
+     */
+    private void handleImport(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        BufferedReader reader = request.getReader();
+        sendImport(response, "Airport import", listener -> airportService.importAirports(reader, listener));
+    }
+    
     /**
      * Update airport
      */
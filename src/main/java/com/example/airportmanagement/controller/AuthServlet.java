@@ -14,19 +14,26 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Authentication Servlet - handles login, register, logout
  */
-@WebServlet(name = "AuthServlet", urlPatterns = {"/auth/*"})
+@WebServlet(name = "AuthServlet", urlPatterns = {"/auth/*"}, asyncSupported = true)
 public class AuthServlet extends BaseServlet {
     private static final Logger logger = LoggerFactory.getLogger(AuthServlet.class);
+    private static final Set<String> ROUTES = Set.of("/register", "/login", "/logout", "/current");
     private final UserService userService;
     
     public AuthServlet() {
         this.userService = new UserService();
     }
     
+    @Override
+    protected Set<String> routes() {
+        return ROUTES;
+    }
+    
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
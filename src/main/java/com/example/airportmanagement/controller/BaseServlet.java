@@ -1,26 +1,176 @@
 package com.example.airportmanagement.controller;
 
+import com.example.airportmanagement.dao.RowHandler;
+import com.example.airportmanagement.metrics.Metrics;
+import com.example.airportmanagement.model.ImportProgress;
+import com.example.airportmanagement.model.Page;
 import com.example.airportmanagement.model.User;
+import com.example.airportmanagement.service.ImportListener;
+import com.example.airportmanagement.service.ServiceException;
+import com.example.airportmanagement.service.TableVersion;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Base servlet with common JSON utilities
  */
 public abstract class BaseServlet extends HttpServlet {
+    /**
+     * Request attribute set when a handler was handed to another thread, which
+     * then owns completing the request
+     */
+    public static final String ASYNC_HANDOFF_ATTRIBUTE = "airportmanagement.asyncHandoff";
+    
+    private static final Logger logger = LoggerFactory.getLogger(BaseServlet.class);
+    private static final Set<String> ROOT_ROUTE = Set.of("/");
     protected static final ObjectMapper objectMapper = new ObjectMapper();
+    // Streamed rows are flushed by the generator's buffer, not once per row
+    private static final ObjectWriter rowWriter;
     
     static {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Source of rows for {@link #sendStream}
+     */
+    @FunctionalInterface
+    protected interface RowSource<T> {
+        void forEach(RowHandler<T> handler) throws ServiceException, IOException;
+    }
+    
+    /**
+     * Bulk import run by {@link #sendImport}
+     */
+    @FunctionalInterface
+    protected interface ImportSource {
+        ImportProgress run(ImportListener listener) throws ServiceException, IOException;
+    }
+    
+    /**
+     * Handler run by {@link #handleAsync}
+     */
+    @FunctionalInterface
+    protected interface AsyncHandler {
+        void handle() throws IOException;
+    }
+    
+    /**
+     * Dispatch as usual, timing every request by servlet, method, route and status.
+     * Requests handed off by {@link #handleAsync} are timed when they complete.
+     */
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        try {
+            super.service(request, response);
+        } finally {
+            if (request.getAttribute(ASYNC_HANDOFF_ATTRIBUTE) == null) {
+                recordRequest(request, response, startNanos);
+            }
+        }
+    }
+    
+    /**
+     * Run the handler on the executor and return the calling thread at once.
+     * When the executor's queue is full the request is refused with 503 and a
+     * Retry-After header instead. Works whether or not the request is already
+     * in async mode (see {@link com.example.airportmanagement.filter.VirtualThreadFilter}).
+     */
+    protected void handleAsync(HttpServletRequest request, HttpServletResponse response,
+            BoundedExecutor executor, int retryAfterSeconds, long timeoutMillis, AsyncHandler handler)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        boolean startedHere = !request.isAsyncStarted();
+        AsyncContext async = startedHere ? request.startAsync() : request.getAsyncContext();
+        if (startedHere) {
+            async.setTimeout(timeoutMillis);
+        }
+        request.setAttribute(ASYNC_HANDOFF_ATTRIBUTE, Boolean.TRUE);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                recordRequest(request, response, startNanos);
+            }
+            
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                logger.warn("{} {} timed out after {} ms", request.getMethod(), request.getRequestURI(),
+                    async.getTimeout());
+            }
+            
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+            
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        
+        boolean accepted = executor.trySubmit(() -> {
+            try {
+                handler.handle();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error handling {} {}", request.getMethod(), request.getRequestURI(), e);
+                if (!response.isCommitted()) {
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            } finally {
+                complete(async);
+            }
+        });
+        
+        if (!accepted) {
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Server is busy, please retry shortly");
+            complete(async);
+        }
+    }
+    
+    private static void complete(AsyncContext async) {
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container after the async timeout
+            logger.debug("Async request already completed", e);
+        }
+    }
+    
+    private void recordRequest(HttpServletRequest request, HttpServletResponse response, long startNanos) {
+        Metrics.recordRequest(getClass().getSimpleName(), request.getMethod(),
+            request.getPathInfo(), routes(), response.getStatus(), startNanos);
+    }
+    
+    /**
+     * Route templates this servlet serves, with numeric segments as {id} and
+     * "/" for no path; requests to any other path are timed as "other"
+     */
+    protected Set<String> routes() {
+        return ROOT_ROUTE;
     }
     
     /**
@@ -43,11 +193,188 @@ public abstract class BaseServlet extends HttpServlet {
         sendJsonResponse(response, result);
     }
     
+    /**
+     * Send one page of a paginated listing; {@code nextCursor} is null on the last page
+     */
+    protected void sendPage(HttpServletResponse response, Page<?> page, String message) throws IOException {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", message);
+        result.put("data", page.getItems());
+        result.put("nextCursor", page.getNextCursor());
+        sendJsonResponse(response, result);
+    }
+    
+    /**
+     * Tag a response built only from the given tables with a strong ETag and
+     * Last-Modified taken from their versions, and set Cache-Control. Returns
+     * true, having sent 304, when the client's copy is current; call it before
+     * any query, so a write racing with the query can only make the tag older
+     * than the body, never newer. If-None-Match, when sent, wins over
+     * If-Modified-Since.
+     */
+    protected boolean checkNotModified(HttpServletRequest request, HttpServletResponse response,
+            int maxAgeSeconds, TableVersion... versions) {
+        StringBuilder tag = new StringBuilder("\"");
+        long lastModified = 0;
+        for (TableVersion version : versions) {
+            if (tag.length() > 1) {
+                tag.append('-');
+            }
+            tag.append(Long.toString(version.get(), 36));
+            lastModified = Math.max(lastModified, version.getLastModifiedMillis());
+        }
+        String etag = tag.append('"').toString();
+        
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", maxAgeSeconds > 0 ? "max-age=" + maxAgeSeconds : "no-cache");
+        
+        boolean notModified;
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            notModified = matchesETag(ifNoneMatch, etag);
+        } else {
+            long ifModifiedSince;
+            try {
+                ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            } catch (IllegalArgumentException e) {
+                ifModifiedSince = -1;
+            }
+            // HTTP dates have whole seconds
+            notModified = ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        }
+        
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        return notModified;
+    }
+    
+    /**
+     * If-None-Match uses weak comparison: W/ prefixes are ignored
+     */
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Check if the client asked for a page rather than the full listing
+     */
+    protected boolean isPageRequest(HttpServletRequest request) {
+        return request.getParameter("limit") != null || request.getParameter("after") != null;
+    }
+    
+    /**
+     * Read the optional {@code limit} parameter
+     */
+    protected Integer getLimitParameter(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        return limit != null ? Integer.valueOf(limit.trim()) : null;
+    }
+    
+    /**
+     * Read an optional integer parameter; null when absent
+     */
+    protected Integer getIntParameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value != null && !value.isBlank() ? Integer.valueOf(value.trim()) : null;
+    }
+    
+    /**
+     * Stream a listing row by row straight into the response, so memory use does not
+     * grow with the result size. The envelope matches {@link #sendSuccess}, except that
+     * {@code success} comes last: a failure after rows were sent is reported there,
+     * with status 500 when the response is not yet committed.
+     */
+    protected <T> void sendStream(HttpServletResponse response, String message, RowSource<T> source)
+            throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("data");
+            try {
+                source.forEach(row -> rowWriter.writeValue(generator, row));
+                generator.writeEndArray();
+                generator.writeBooleanField("success", true);
+            } catch (ServiceException e) {
+                if (!response.isCommitted()) {
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+                generator.writeEndArray();
+                generator.writeBooleanField("success", false);
+                generator.writeStringField("error", e.getMessage());
+            }
+            generator.writeEndObject();
+        }
+    }
+    
+    /**
+     * Run a bulk import and stream its progress: each chunk's totals and rejected
+     * rows are appended to {@code progress} and flushed as soon as the chunk is
+     * written, and the final totals are sent as {@code data}. As with
+     * {@link #sendStream}, {@code success} comes last and reports a failure
+     * that happens after progress was sent.
+     */
+    protected void sendImport(HttpServletResponse response, String message, ImportSource source)
+            throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("progress");
+            try {
+                ImportProgress totals = source.run(progress -> {
+                    rowWriter.writeValue(generator, progress);
+                    generator.flush();
+                    response.flushBuffer();
+                });
+                generator.writeEndArray();
+                generator.writeFieldName("data");
+                rowWriter.writeValue(generator, totals);
+                generator.writeBooleanField("success", true);
+            } catch (ServiceException e) {
+                if (!response.isCommitted()) {
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+                generator.writeEndArray();
+                generator.writeBooleanField("success", false);
+                generator.writeStringField("error", e.getMessage());
+            }
+            generator.writeEndObject();
+        }
+    }
+    
+    /**
+     * Check if the client asked for a streamed listing (?stream=true)
+     */
+    protected boolean isStreamRequest(HttpServletRequest request) {
+        return "true".equalsIgnoreCase(request.getParameter("stream"));
+    }
+    
     /**
      * Send error response
      */
     protected void sendError(HttpServletResponse response, int status, String message) throws IOException {
         response.setStatus(status);
+        // Overrides the Cache-Control of a response tagged by checkNotModified
+        response.setHeader("Cache-Control", "no-store");
         Map<String, Object> error = new HashMap<>();
         error.put("success", false);
         error.put("error", message);
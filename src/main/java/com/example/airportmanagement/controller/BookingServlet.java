@@ -1,6 +1,8 @@
 package com.example.airportmanagement.controller;
 
+import com.example.airportmanagement.config.AppConfig;
 import com.example.airportmanagement.model.Booking;
+import com.example.airportmanagement.model.Page;
 import com.example.airportmanagement.model.User;
 import com.example.airportmanagement.service.BookingService;
 import com.example.airportmanagement.service.ServiceException;
@@ -14,17 +16,42 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Booking Management Servlet
+ * Booking Management Servlet.
+ *
+ * Reads run on the calling thread. Writes (create, cancel, delete) are handed
+ * to a dedicated bounded executor so that a slow database ties up at most its
+ * workers, never the container's threads; once its queue is full, further
+ * writes get 503 with Retry-After.
  */
-@WebServlet(name = "BookingServlet", urlPatterns = {"/booking/*"})
+@WebServlet(name = "BookingServlet", urlPatterns = {"/booking/*"}, asyncSupported = true)
 public class BookingServlet extends BaseServlet {
     private static final Logger logger = LoggerFactory.getLogger(BookingServlet.class);
+    private static final Set<String> ROUTES = Set.of("/", "/list", "/my-bookings", "/{id}", "/cancel/{id}");
+    private static final int RETRY_AFTER_SECONDS = AppConfig.getAppIntProperty("booking.writes.retryAfterSeconds", 1);
+    private static final long TIMEOUT_MILLIS = AppConfig.getAppIntProperty("booking.writes.timeoutMillis", 30000);
+    
     private final BookingService bookingService;
+    private final BoundedExecutor writeExecutor;
     
     public BookingServlet() {
         this.bookingService = new BookingService();
+        this.writeExecutor = new BoundedExecutor("booking-writes",
+            AppConfig.getAppIntProperty("booking.writes.threads", 16),
+            AppConfig.getAppIntProperty("booking.writes.queueCapacity", 200));
+    }
+    
+    @Override
+    protected Set<String> routes() {
+        return ROUTES;
+    }
+    
+    @Override
+    public void destroy() {
+        writeExecutor.shutdown();
+        super.destroy();
     }
     
     @Override
@@ -62,7 +89,7 @@ public class BookingServlet extends BaseServlet {
             return;
         }
         
-        handleCreate(request, response);
+        handleWrite(request, response, () -> handleCreate(request, response));
     }
     
     @Override
@@ -79,7 +106,7 @@ public class BookingServlet extends BaseServlet {
         String pathInfo = request.getPathInfo();
         
         if (pathInfo != null && pathInfo.startsWith("/cancel/")) {
-            handleCancel(request, response);
+            handleWrite(request, response, () -> handleCancel(request, response));
         } else {
             sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid request");
         }
@@ -102,7 +129,12 @@ public class BookingServlet extends BaseServlet {
             return;
         }
         
-        handleDelete(request, response);
+        handleWrite(request, response, () -> handleDelete(request, response));
+    }
+    
+    private void handleWrite(HttpServletRequest request, HttpServletResponse response, AsyncHandler handler)
+            throws IOException {
+        handleAsync(request, response, writeExecutor, RETRY_AFTER_SECONDS, TIMEOUT_MILLIS, handler);
     }
     
     /**
@@ -120,6 +152,16 @@ public class BookingServlet extends BaseServlet {
                 return;
             }
             
+            if (isStreamRequest(request)) {
+                sendStream(response, "Bookings retrieved successfully", bookingService::streamAllBookings);
+                return;
+            }
+            
+            if (isPageRequest(request)) {
+                handleGetPage(request, response);
+                return;
+            }
+            
             List<Booking> bookings = bookingService.getAllBookings();
             sendSuccess(response, bookings, "Bookings retrieved successfully");
             
@@ -128,6 +170,22 @@ public class BookingServlet extends BaseServlet {
         }
     }
     
+    /**
+     * Get one page of all bookings (?limit=&after=); caller has already checked the role
+     */
+    private void handleGetPage(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        try {
+            Page<Booking> page = bookingService.getBookingsPage(
+                request.getParameter("after"), getLimitParameter(request));
+            sendPage(response, page, "Bookings retrieved successfully");
+        } catch (NumberFormatException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid limit");
+        } catch (ServiceException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     /**
      * Get current user's bookings
      */
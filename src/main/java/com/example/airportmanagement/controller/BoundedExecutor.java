@@ -0,0 +1,56 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.metrics.Counter;
+import com.example.airportmanagement.metrics.MetricsRegistry;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of worker threads with a bounded queue, for handlers taken off
+ * container threads. When every worker is busy and the queue is full, new
+ * work is refused rather than queued, so a slow database sheds load instead
+ * of tying up the container.
+ */
+public class BoundedExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    
+    public BoundedExecutor(String name, int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                Thread thread = new Thread(r, name + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("executor_queued_tasks", "Tasks waiting for a worker",
+            () -> executor.getQueue().size(), "executor", name);
+        registry.gauge("executor_active_threads", "Workers running a task",
+            executor::getActiveCount, "executor", name);
+        this.rejected = registry.counter("executor_rejected_total", "Tasks refused because the queue was full",
+            "executor", name);
+    }
+    
+    /**
+     * Queue the task, or return false without running it when the queue is full
+     */
+    public boolean trySubmit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+    
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
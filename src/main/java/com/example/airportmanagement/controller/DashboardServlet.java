@@ -0,0 +1,68 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.model.DashboardSummary;
+import com.example.airportmanagement.model.User;
+import com.example.airportmanagement.service.DashboardService;
+import com.example.airportmanagement.service.ServiceException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Dashboard Servlet: the counts and recent bookings shown on dashboard.html
+ * in one small response, instead of three full lists.
+ */
+@WebServlet(name = "DashboardServlet", urlPatterns = {"/dashboard/*"}, asyncSupported = true)
+public class DashboardServlet extends BaseServlet {
+    private static final Set<String> ROUTES = Set.of("/summary");
+    private final DashboardService dashboardService;
+    
+    public DashboardServlet() {
+        this.dashboardService = new DashboardService();
+    }
+    
+    @Override
+    protected Set<String> routes() {
+        return ROUTES;
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        
+        // Check authentication
+        if (!isAuthenticated(session)) {
+            sendError(response, HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+            return;
+        }
+        
+        if ("/summary".equals(request.getPathInfo())) {
+            handleSummary(request, response);
+        } else {
+            sendError(response, HttpServletResponse.SC_NOT_FOUND, "Endpoint not found");
+        }
+    }
+    
+    /**
+     * Get the current user's dashboard summary
+     */
+    private void handleSummary(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        try {
+            User currentUser = getCurrentUser(request.getSession(false));
+            DashboardSummary summary = dashboardService.getSummary(currentUser.getId());
+            // Per user, and cached here already
+            response.setHeader("Cache-Control", "private, no-cache");
+            sendSuccess(response, summary, "Dashboard summary retrieved successfully");
+            
+        } catch (ServiceException e) {
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.metrics.Counter;
+import com.example.airportmanagement.metrics.MetricsRegistry;
+import com.example.airportmanagement.service.FlightChangeBus;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-sent event stream of flight timetable changes at {@code /flight/events}.
+ *
+ * Each connection is an async request written with non-blocking I/O (see
+ * {@link FlightEventStream}), so open streams hold no threads. A client
+ * resumes after a reconnect by sending the last event id it saw in the
+ * {@code Last-Event-ID} header, which browsers do on their own, or the
+ * {@code lastEventId} parameter.
+ */
+@WebServlet(name = "FlightEventServlet", urlPatterns = {"/flight/events"}, asyncSupported = true)
+public class FlightEventServlet extends BaseServlet {
+    private static final int MAX_CONNECTIONS = AppConfig.getAppIntProperty("flightEvents.maxConnections", 10000);
+    private static final int MAX_QUEUED = AppConfig.getAppIntProperty("flightEvents.maxQueuedEvents", 1000);
+    private static final int HEARTBEAT_SECONDS = AppConfig.getAppIntProperty("flightEvents.heartbeatSeconds", 15);
+    private static final long TIMEOUT_MILLIS =
+        AppConfig.getAppIntProperty("flightEvents.connectionTimeoutSeconds", 600) * 1000L;
+    
+    private final Set<FlightEventStream> streams = ConcurrentHashMap.newKeySet();
+    private FlightChangeBus bus;
+    private Counter slowDisconnects;
+    private ScheduledExecutorService heartbeat;
+    
+    @Override
+    public void init() {
+        bus = FlightChangeBus.getInstance();
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("flight_event_streams", "Open flight event streams", streams::size);
+        slowDisconnects = registry.counter("flight_event_slow_disconnects_total",
+            "Event streams closed because the client fell too far behind");
+        
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(() -> streams.forEach(FlightEventStream::heartbeat),
+            HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        streams.forEach(FlightEventStream::close);
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (streams.size() >= MAX_CONNECTIONS) {
+            response.setHeader("Retry-After", "5");
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Too many event streams, please retry shortly");
+            return;
+        }
+        
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        // Stop nginx from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        
+        AsyncContext async = request.isAsyncStarted() ? request.getAsyncContext() : request.startAsync();
+        async.setTimeout(TIMEOUT_MILLIS);
+        FlightEventStream stream = new FlightEventStream(async, MAX_QUEUED, slowDisconnects, closed -> {
+            streams.remove(closed);
+            bus.unsubscribe(closed);
+        });
+        streams.add(stream);
+        async.addListener(stream);
+        response.getOutputStream().setWriteListener(stream);
+        
+        bus.subscribe(getLastEventId(request), stream);
+        if (stream.isClosed()) {
+            // Closed before it was subscribed, so its own unsubscribe came too early
+            bus.unsubscribe(stream);
+            return;
+        }
+        stream.start();
+    }
+    
+    /**
+     * Last event id the client saw, or -1 for a new stream
+     */
+    private long getLastEventId(HttpServletRequest request) {
+        String value = request.getHeader("Last-Event-ID");
+        if (value == null || value.isBlank()) {
+            value = request.getParameter("lastEventId");
+        }
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            // Older than any buffered change: the client is told to reload
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.metrics.Counter;
+import com.example.airportmanagement.model.FlightChange;
+import com.example.airportmanagement.service.FlightChangeBus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One open {@code text/event-stream} response fed from the change bus.
+ *
+ * Frames are queued and written with non-blocking I/O: whichever thread
+ * queues a frame, or the container when the socket can take more, drains
+ * the queue while {@link ServletOutputStream#isReady()} allows and leaves
+ * the rest for the next {@link #onWritePossible()}. No thread waits on a
+ * slow client; one that falls {@code maxQueued} frames behind is
+ * disconnected and resumes from its last event id when it reconnects.
+ */
+final class FlightEventStream implements FlightChangeBus.Subscriber, WriteListener, AsyncListener {
+    private static final Logger logger = LoggerFactory.getLogger(FlightEventStream.class);
+    private static final ObjectWriter changeWriter = BaseServlet.objectMapper.copy()
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL).writer();
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final int RETRY_MILLIS = 3000;
+    
+    // The dispatcher hands the same change to every stream in turn; encode it once
+    private static volatile Frame lastFrame;
+    
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final int maxQueued;
+    private final Counter slowDisconnects;
+    private final Consumer<FlightEventStream> onClose;
+    private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger drainers = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean started;
+    // Highest change id queued; guarded by this
+    private long lastQueuedId;
+    
+    private static final class Frame {
+        final FlightChange change;
+        final byte[] bytes;
+        
+        Frame(FlightChange change, byte[] bytes) {
+            this.change = change;
+            this.bytes = bytes;
+        }
+    }
+    
+    FlightEventStream(AsyncContext async, int maxQueued, Counter slowDisconnects,
+            Consumer<FlightEventStream> onClose) throws IOException {
+        this.async = async;
+        this.out = async.getResponse().getOutputStream();
+        this.maxQueued = maxQueued;
+        this.slowDisconnects = slowDisconnects;
+        this.onClose = onClose;
+    }
+    
+    @Override
+    public synchronized void onSubscribe(long fromId, boolean resumed) {
+        lastQueuedId = fromId;
+        // "reload" tells a client that asked to resume that it missed changes
+        send(("retry: " + RETRY_MILLIS + "\nid: " + fromId + "\nevent: " + (resumed ? "ready" : "reload")
+            + "\ndata: {}\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public synchronized void onChange(FlightChange change) {
+        if (change.getId() <= lastQueuedId) {
+            return;
+        }
+        lastQueuedId = change.getId();
+        send(encode(change));
+    }
+    
+    /**
+     * Begin writing. Frames queued before this, the replay, are not held to
+     * {@code maxQueued} and are written outside the bus lock.
+     */
+    void start() {
+        started = true;
+        drain();
+    }
+    
+    /**
+     * Comment line that keeps proxies from timing out an idle stream and finds dead clients
+     */
+    void heartbeat() {
+        send(HEARTBEAT);
+    }
+    
+    @Override
+    public void onWritePossible() {
+        if (started) {
+            drain();
+        }
+    }
+    
+    @Override
+    public void onError(Throwable t) {
+        logger.debug("Event stream write failed", t);
+        close();
+    }
+    
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+    
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        // The client reconnects with Last-Event-ID and picks up where it stopped
+        close();
+    }
+    
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+    
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+    
+    boolean isClosed() {
+        return closed.get();
+    }
+    
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        onClose.accept(this);
+        queue.clear();
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+            logger.debug("Event stream already completed", e);
+        }
+    }
+    
+    private void send(byte[] frame) {
+        if (closed.get()) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued && started) {
+            slowDisconnects.increment();
+            close();
+            return;
+        }
+        queue.offer(frame);
+        if (started) {
+            drain();
+        }
+    }
+    
+    /**
+     * Write queued frames while the socket takes them. Only one thread drains
+     * at a time; a call that arrives meanwhile makes that thread go round again.
+     */
+    private void drain() {
+        if (drainers.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                while (!closed.get() && out.isReady()) {
+                    byte[] frame = queue.poll();
+                    if (frame == null) {
+                        out.flush();
+                        break;
+                    }
+                    queued.decrementAndGet();
+                    out.write(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Event stream closed by the client", e);
+                close();
+                return;
+            }
+            missed = drainers.addAndGet(-missed);
+        } while (missed != 0);
+    }
+    
+    private static byte[] encode(FlightChange change) {
+        Frame frame = lastFrame;
+        if (frame != null && frame.change == change) {
+            return frame.bytes;
+        }
+        try {
+            String data = changeWriter.writeValueAsString(change);
+            byte[] bytes = ("id: " + change.getId() + "\nevent: " + change.getType().name().toLowerCase(Locale.ROOT)
+                + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+            lastFrame = new Frame(change, bytes);
+            return bytes;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.airportmanagement.controller;
 
+import com.example.airportmanagement.config.AppConfig;
 import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.Itinerary;
+import com.example.airportmanagement.model.Page;
+import com.example.airportmanagement.model.RouteStats;
 import com.example.airportmanagement.model.User;
 import com.example.airportmanagement.service.FlightService;
 import com.example.airportmanagement.service.ServiceException;
+import com.example.airportmanagement.service.TableVersion;
 import com.example.airportmanagement.util.DateUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -13,22 +18,32 @@ import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Flight Management Servlet
  */
-@WebServlet(name = "FlightServlet", urlPatterns = {"/flight/*"})
+@WebServlet(name = "FlightServlet", urlPatterns = {"/flight/*"}, asyncSupported = true)
 public class FlightServlet extends BaseServlet {
     private static final Logger logger = LoggerFactory.getLogger(FlightServlet.class);
+    private static final Set<String> ROUTES = Set.of("/", "/list", "/search", "/connections", "/stats",
+        "/import", "/{id}", "/cancel/{id}");
+    private static final int MAX_AGE_SECONDS = AppConfig.getAppIntProperty("httpCache.flights.maxAgeSeconds", 0);
     private final FlightService flightService;
     
     public FlightServlet() {
         this.flightService = new FlightService();
     }
     
+    @Override
+    protected Set<String> routes() {
+        return ROUTES;
+    }
+    
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
@@ -38,6 +53,10 @@ public class FlightServlet extends BaseServlet {
             handleGetAll(request, response);
         } else if ("/search".equals(pathInfo)) {
             handleSearch(request, response);
+        } else if ("/connections".equals(pathInfo)) {
+            handleConnections(request, response);
+        } else if ("/stats".equals(pathInfo)) {
+            handleRouteStats(request, response);
         } else if (pathInfo.matches("/\\d+")) {
             handleGetById(request, response);
         } else {
@@ -62,7 +81,11 @@ public class FlightServlet extends BaseServlet {
             return;
         }
         
-        handleCreate(request, response);
+        if ("/import".equals(request.getPathInfo())) {
+            handleImport(request, response);
+        } else {
+            handleCreate(request, response);
+        }
     }
     
     @Override
@@ -116,6 +139,20 @@ public class FlightServlet extends BaseServlet {
      */
     private void handleGetAll(HttpServletRequest request, HttpServletResponse response) 
             throws IOException {
+        if (checkNotModified(request, response, MAX_AGE_SECONDS, TableVersion.flights(), TableVersion.airports())) {
+            return;
+        }
+        
+        if (isStreamRequest(request)) {
+            sendStream(response, "Flights retrieved successfully", flightService::streamAllFlights);
+            return;
+        }
+        
+        if (isPageRequest(request)) {
+            handleGetPage(request, response);
+            return;
+        }
+        
         try {
             List<Flight> flights = flightService.getAllFlights();
             sendSuccess(response, flights, "Flights retrieved successfully");
@@ -124,6 +161,22 @@ public class FlightServlet extends BaseServlet {
         }
     }
     
+    /**
+     * Get one page of flights (?limit=&after=)
+     */
+    private void handleGetPage(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        try {
+            Page<Flight> page = flightService.getFlightsPage(
+                request.getParameter("after"), getLimitParameter(request));
+            sendPage(response, page, "Flights retrieved successfully");
+        } catch (NumberFormatException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid limit");
+        } catch (ServiceException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     /**
      * Get flight by ID
      */
@@ -132,6 +185,9 @@ public class FlightServlet extends BaseServlet {
         try {
             String pathInfo = request.getPathInfo();
             Long id = Long.parseLong(pathInfo.substring(1));
+            if (checkNotModified(request, response, MAX_AGE_SECONDS, TableVersion.flights(), TableVersion.airports())) {
+                return;
+            }
             
             Flight flight = flightService.getFlightById(id);
             sendSuccess(response, flight, "Flight retrieved successfully");
@@ -157,7 +213,48 @@ public class FlightServlet extends BaseServlet {
             sendSuccess(response, flights, "Search completed successfully");
             
         } catch (ServiceException e) {
-            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * Search itineraries with connections
+     * (?from=&to=&date=, optional maxLegs=, limit=, seats= and sort=arrival|price)
+     */
+    private void handleConnections(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        try {
+            List<Itinerary> itineraries = flightService.findConnections(
+                request.getParameter("from"),
+                request.getParameter("to"),
+                request.getParameter("date"),
+                getIntParameter(request, "maxLegs"),
+                getIntParameter(request, "limit"),
+                getIntParameter(request, "seats"),
+                request.getParameter("sort"));
+            sendSuccess(response, itineraries, "Search completed successfully");
+            
+        } catch (NumberFormatException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid number format");
+        } catch (ServiceException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * Flight count, seats and fares on a route for one day
+     */
+    private void handleRouteStats(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        try {
+            RouteStats stats = flightService.getRouteStats(
+                request.getParameter("from"),
+                request.getParameter("to"),
+                request.getParameter("date"));
+            sendSuccess(response, stats, "Route stats retrieved successfully");
+            
+        } catch (ServiceException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         }
     }
     
@@ -191,6 +288,18 @@ public class FlightServlet extends BaseServlet {
         }
     }
     
+    /**
+     * Import a timetable sent as the request body, one flight per line (CSV or JSON)
+     */
+    private void handleImport(HttpServletRequest request, HttpServletResponse response) 
+            throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        BufferedReader reader = request.getReader();
+        sendImport(response, "Flight import", listener -> flightService.importFlights(reader, listener));
+    }
+    
     /**
      * Update flight
      */
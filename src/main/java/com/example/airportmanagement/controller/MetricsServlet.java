@@ -0,0 +1,33 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.metrics.MetricsRegistry;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Servlet exposing every metric in the Prometheus text format for scraping.
+ * It does not require a session; restrict access to it at the proxy, or turn
+ * it off with {@code metrics.enabled=false}.
+ */
+@WebServlet(name = "MetricsServlet", urlPatterns = {"/metrics"})
+public class MetricsServlet extends HttpServlet {
+    private static final boolean ENABLED = AppConfig.getAppBooleanProperty("metrics.enabled", true);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4";
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!ENABLED) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        MetricsRegistry.getInstance().writePrometheus(response.getWriter());
+    }
+}
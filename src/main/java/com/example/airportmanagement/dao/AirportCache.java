@@ -0,0 +1,295 @@
+package com.example.airportmanagement.dao;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.model.Airport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache of the airports table, keyed by id and by IATA code.
+ *
+ * Readers see an immutable snapshot through a volatile reference and never
+ * lock; writers build a new snapshot and swap it in (copy-on-write), which
+ * suits a table that is read on every flight and booking query but almost
+ * never written. Cached airports are never handed out: every lookup returns
+ * a copy, so callers may modify what they get.
+ *
+ * Writers serialize on a ReentrantLock rather than a monitor, so a reload
+ * blocked on JDBC does not pin a virtual thread to its carrier.
+ *
+ * The whole table is reloaded when the snapshot is older than
+ * {@code airport.cache.refreshSeconds}, to pick up writes made by other
+ * instances. Writes made through {@link com.example.airportmanagement.service.AirportService}
+ * are applied immediately.
+ */
+public class AirportCache {
+    private static final Logger logger = LoggerFactory.getLogger(AirportCache.class);
+    
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(
+        AppConfig.getAppIntProperty("airport.cache.refreshSeconds", 300));
+    private static final Comparator<Airport> BY_NAME =
+        Comparator.comparing(Airport::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+    
+    private static final AirportCache instance = new AirportCache(new AirportDAO());
+    
+    private final AirportDAO airportDAO;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    // Kept in step with the snapshot by every writer
+    private final AirportSearchIndex searchIndex = new AirportSearchIndex();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    private static final class Snapshot {
+        final Map<Long, Airport> byId;
+        final Map<String, Airport> byCode;
+        final List<Airport> byName;
+        final long loadedNanos;
+        
+        Snapshot(List<Airport> airports, long loadedNanos) {
+            Map<Long, Airport> ids = new HashMap<>();
+            Map<String, Airport> codes = new HashMap<>();
+            for (Airport airport : airports) {
+                ids.put(airport.getId(), airport);
+                if (airport.getCode() != null) {
+                    codes.put(normalizeCode(airport.getCode()), airport);
+                }
+            }
+            List<Airport> sorted = new ArrayList<>(airports);
+            sorted.sort(BY_NAME);
+            
+            this.byId = Map.copyOf(ids);
+            this.byCode = Map.copyOf(codes);
+            this.byName = List.copyOf(sorted);
+            this.loadedNanos = loadedNanos;
+        }
+        
+        List<Airport> without(Long id) {
+            List<Airport> airports = new ArrayList<>(byName);
+            airports.removeIf(airport -> airport.getId().equals(id));
+            return airports;
+        }
+    }
+    
+    AirportCache(AirportDAO airportDAO) {
+        this.airportDAO = airportDAO;
+    }
+    
+    public static AirportCache getInstance() {
+        return instance;
+    }
+    
+    /**
+     * Load every airport now, e.g. at startup
+     */
+    public void preload() throws SQLException {
+        reloadAll(true);
+        logger.info("Airport cache loaded with {} airports", snapshot.byId.size());
+    }
+    
+    /**
+     * Find airport by id, loading it from the database if it is not cached
+     */
+    public Optional<Airport> findById(Long id) throws SQLException {
+        Airport airport = current().byId.get(id);
+        if (airport == null) {
+            misses.increment();
+            Optional<Airport> loaded = airportDAO.findById(id);
+            loaded.ifPresent(this::put);
+            return loaded;
+        }
+        hits.increment();
+        return Optional.of(copy(airport));
+    }
+    
+    /**
+     * Find airport by IATA code (case-insensitive), loading it from the database if it is not cached
+     */
+    public Optional<Airport> findByCode(String code) throws SQLException {
+        if (code == null) {
+            return Optional.empty();
+        }
+        Airport airport = current().byCode.get(normalizeCode(code));
+        if (airport == null) {
+            misses.increment();
+            Optional<Airport> loaded = airportDAO.findByCode(code.trim());
+            loaded.ifPresent(this::put);
+            return loaded;
+        }
+        hits.increment();
+        return Optional.of(copy(airport));
+    }
+    
+    /**
+     * All airports ordered by name
+     */
+    public List<Airport> findAll() throws SQLException {
+        List<Airport> airports = new ArrayList<>();
+        for (Airport airport : current().byName) {
+            airports.add(copy(airport));
+        }
+        return airports;
+    }
+    
+    /**
+     * Airports matching the query by name, code, city or country, best match first
+     * (see {@link AirportSearchIndex}); at most {@code limit}
+     */
+    public List<Airport> search(String query, int limit) throws SQLException {
+        Snapshot current = current();
+        List<Airport> airports = new ArrayList<>();
+        for (Long id : searchIndex.search(query, limit)) {
+            // Absent only if a writer swapped the snapshot in between
+            Airport airport = current.byId.get(id);
+            if (airport != null) {
+                airports.add(copy(airport));
+            }
+        }
+        return airports;
+    }
+    
+    /**
+     * Distinct words in the search index
+     */
+    public int getSearchWordCount() {
+        return searchIndex.wordCount();
+    }
+    
+    /**
+     * Number of airports, without copying them
+     */
+    public int count() throws SQLException {
+        return current().byId.size();
+    }
+    
+    /**
+     * Add or replace an airport after it was written
+     */
+    public void put(Airport airport) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            List<Airport> airports = current.without(airport.getId());
+            airports.add(copy(airport));
+            snapshot = new Snapshot(airports, current.loadedNanos);
+            searchIndex.put(airport);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Reload one airport after it was updated
+     */
+    public void refresh(Long id) throws SQLException {
+        Optional<Airport> airport = airportDAO.findById(id);
+        if (airport.isPresent()) {
+            put(airport.get());
+        } else {
+            remove(id);
+        }
+    }
+    
+    /**
+     * Forget an airport after it was deleted
+     */
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null && current.byId.containsKey(id)) {
+                snapshot = new Snapshot(current.without(id), current.loadedNanos);
+                searchIndex.remove(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Drop everything; the next lookup reloads the table
+     */
+    public void invalidate() {
+        writeLock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Lookups by id or code answered from the snapshot
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    /**
+     * Lookups by id or code that went to the database
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public int size() {
+        Snapshot current = snapshot;
+        return current != null ? current.byId.size() : 0;
+    }
+    
+    private Snapshot current() throws SQLException {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.loadedNanos > REFRESH_NANOS) {
+            return reloadAll(false);
+        }
+        return current;
+    }
+    
+    private Snapshot reloadAll(boolean force) throws SQLException {
+        writeLock.lock();
+        try {
+            // Another thread may have reloaded while this one waited for the lock
+            Snapshot current = snapshot;
+            long now = System.nanoTime();
+            if (!force && current != null && now - current.loadedNanos <= REFRESH_NANOS) {
+                return current;
+            }
+            List<Airport> airports = new ArrayList<>();
+            for (Airport airport : airportDAO.findAll()) {
+                airports.add(copy(airport));
+            }
+            snapshot = new Snapshot(airports, now);
+            searchIndex.rebuild(airports);
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private static String normalizeCode(String code) {
+        return code.trim().toUpperCase();
+    }
+    
+    private static Airport copy(Airport airport) {
+        Airport copy = new Airport(airport.getId(), airport.getName(), airport.getCode(),
+            airport.getCity(), airport.getCountry());
+        copy.setCreatedAt(airport.getCreatedAt());
+        copy.setUpdatedAt(airport.getUpdatedAt());
+        return copy;
+    }
+}
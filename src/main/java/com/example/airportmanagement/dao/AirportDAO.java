@@ -1,10 +1,12 @@
 package com.example.airportmanagement.dao;
 
 import com.example.airportmanagement.db.DatabaseConnection;
+import com.example.airportmanagement.metrics.Metrics;
 import com.example.airportmanagement.model.Airport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +22,13 @@ public class AirportDAO {
         "INSERT INTO airports (name, code, city, country, created_at, updated_at) " +
         "VALUES (?, ?, ?, ?, NOW(), NOW())";
     
+    // Keyed on the unique code: an existing airport keeps its id and gets the new details
+    private static final String UPSERT_AIRPORT = 
+        "INSERT INTO airports (name, code, city, country, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, NOW(), NOW()) " +
+        "ON DUPLICATE KEY UPDATE name = VALUES(name), city = VALUES(city), " +
+        "country = VALUES(country), updated_at = NOW()";
+    
     private static final String SELECT_AIRPORT_BY_ID = 
         "SELECT * FROM airports WHERE id = ?";
     
@@ -35,20 +44,18 @@ public class AirportDAO {
     private static final String DELETE_AIRPORT = 
         "DELETE FROM airports WHERE id = ?";
     
-    private static final String SEARCH_AIRPORTS = 
-        "SELECT * FROM airports WHERE name LIKE ? OR code LIKE ? OR city LIKE ? OR country LIKE ?";
-    
     /**
      * Create a new airport
      */
     public Airport create(Airport airport) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(INSERT_AIRPORT, Statement.RETURN_GENERATED_KEYS);
+            stmt = DatabaseConnection.prepareStatement(conn, INSERT_AIRPORT, Statement.RETURN_GENERATED_KEYS);
             
             stmt.setString(1, airport.getName());
             stmt.setString(2, airport.getCode());
@@ -71,6 +78,44 @@ public class AirportDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("AirportDAO", "create", startNanos);
+        }
+    }
+    
+    /**
+     * Insert airports, or update the ones whose code already exists, as one
+     * JDBC batch in one transaction. Ids are not set: reload the airports
+     * afterwards if they are needed.
+     */
+    public void upsertBatch(List<Airport> airports) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            stmt = DatabaseConnection.prepareStatement(conn, UPSERT_AIRPORT);
+            
+            for (Airport airport : airports) {
+                stmt.setString(1, airport.getName());
+                stmt.setString(2, airport.getCode());
+                stmt.setString(3, airport.getCity());
+                stmt.setString(4, airport.getCountry());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            conn.commit();
+            logger.info("Airport batch upserted: {} airports", airports.size());
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            endTransaction(conn);
+            closeResources(conn, stmt, null);
+            Metrics.recordDao("AirportDAO", "upsertBatch", startNanos);
         }
     }
     
@@ -78,13 +123,14 @@ public class AirportDAO {
      * Find airport by ID
      */
     public Optional<Airport> findById(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_AIRPORT_BY_ID);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_AIRPORT_BY_ID);
             stmt.setLong(1, id);
             
             rs = stmt.executeQuery();
@@ -97,6 +143,7 @@ public class AirportDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("AirportDAO", "findById", startNanos);
         }
     }
     
@@ -104,13 +151,14 @@ public class AirportDAO {
      * Find airport by code
      */
     public Optional<Airport> findByCode(String code) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_AIRPORT_BY_CODE);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_AIRPORT_BY_CODE);
             stmt.setString(1, code);
             
             rs = stmt.executeQuery();
@@ -123,6 +171,7 @@ public class AirportDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("AirportDAO", "findByCode", startNanos);
         }
     }
     
@@ -130,6 +179,7 @@ public class AirportDAO {
      * Get all airports
      */
     public List<Airport> findAll() throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -137,7 +187,7 @@ public class AirportDAO {
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL_AIRPORTS);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_ALL_AIRPORTS);
             rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -148,38 +198,31 @@ public class AirportDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("AirportDAO", "findAll", startNanos);
         }
     }
     
     /**
-     * Search airports by keyword
+     * Stream all airports to the handler without holding them in memory
      */
-    public List<Airport> search(String keyword) throws SQLException {
+    public void streamAll(RowHandler<Airport> handler) throws SQLException, IOException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
-        List<Airport> airports = new ArrayList<>();
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SEARCH_AIRPORTS);
-            
-            String searchPattern = "%" + keyword + "%";
-            stmt.setString(1, searchPattern);
-            stmt.setString(2, searchPattern);
-            stmt.setString(3, searchPattern);
-            stmt.setString(4, searchPattern);
-            
+            stmt = DatabaseConnection.prepareStreamingStatement(conn, SELECT_ALL_AIRPORTS);
             rs = stmt.executeQuery();
             
             while (rs.next()) {
-                airports.add(mapResultSetToAirport(rs));
+                handler.handle(mapResultSetToAirport(rs));
             }
             
-            return airports;
-            
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("AirportDAO", "streamAll", startNanos);
         }
     }
     
@@ -187,12 +230,13 @@ public class AirportDAO {
      * Update airport
      */
     public boolean update(Airport airport) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(UPDATE_AIRPORT);
+            stmt = DatabaseConnection.prepareStatement(conn, UPDATE_AIRPORT);
             
             stmt.setString(1, airport.getName());
             stmt.setString(2, airport.getCode());
@@ -207,6 +251,7 @@ public class AirportDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("AirportDAO", "update", startNanos);
         }
     }
     
@@ -214,12 +259,13 @@ public class AirportDAO {
      * Delete airport
      */
     public boolean delete(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(DELETE_AIRPORT);
+            stmt = DatabaseConnection.prepareStatement(conn, DELETE_AIRPORT);
             stmt.setLong(1, id);
             
             int affectedRows = stmt.executeUpdate();
@@ -229,6 +275,7 @@ public class AirportDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("AirportDAO", "delete", startNanos);
         }
     }
     
@@ -256,13 +303,32 @@ public class AirportDAO {
         return airport;
     }
     
+    private void rollback(Connection conn) {
+        try {
+            if (conn != null) conn.rollback();
+        } catch (SQLException e) {
+            logger.error("Error rolling back transaction", e);
+        }
+    }
+    
+    /**
+     * Put the connection back into auto-commit mode before it returns to the pool
+     */
+    private void endTransaction(Connection conn) {
+        try {
+            if (conn != null) conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.error("Error restoring auto-commit", e);
+        }
+    }
+    
     /**
      * Close database resources
      */
     private void closeResources(Connection conn, PreparedStatement stmt, ResultSet rs) {
         try {
             if (rs != null) rs.close();
-            if (stmt != null) stmt.close();
+            if (stmt != null) DatabaseConnection.releaseStatement(conn, stmt);
             if (conn != null) DatabaseConnection.releaseConnection(conn);
         } catch (SQLException e) {
             logger.error("Error closing resources", e);
@@ -0,0 +1,290 @@
+package com.example.airportmanagement.dao;
+
+import com.example.airportmanagement.model.Airport;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over airport names, codes, cities and countries.
+ *
+ * Text is folded to lower case without accents and split into words. Each
+ * word of the query must match a word of the airport: exactly, as a prefix
+ * (so a query can be typed out one key at a time), or, for words of three
+ * letters or more, approximately by shared trigrams, which tolerates a
+ * typo or two. Exact matches rank above prefixes, prefixes above
+ * approximate matches, and a query word equal to the airport's code above
+ * everything.
+ *
+ * Maintained by {@link AirportCache} alongside its snapshot: single
+ * airports are added and removed in place, and the whole index is rebuilt
+ * only when the cache reloads the table.
+ */
+final class AirportSearchIndex {
+    private static final double CODE_SCORE = 100.0;
+    private static final double EXACT_SCORE = 10.0;
+    private static final double PREFIX_SCORE = 6.0;
+    private static final double FUZZY_SCORE = 4.0;
+    // Share of trigrams two words must have in common to count as a match
+    private static final double MIN_SIMILARITY = 0.45;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Indexed words of each airport, to take them out again
+    private final Map<Long, Set<String>> wordsById = new HashMap<>();
+    private final Map<Long, String> codeById = new HashMap<>();
+    private final Map<String, Set<Long>> idsByCode = new HashMap<>();
+    // Sorted, so the words starting with a prefix are one contiguous range
+    private final TreeMap<String, Set<Long>> idsByWord = new TreeMap<>();
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    
+    /**
+     * Replace the contents with the given airports
+     */
+    void rebuild(Collection<Airport> airports) {
+        lock.writeLock().lock();
+        try {
+            wordsById.clear();
+            codeById.clear();
+            idsByCode.clear();
+            idsByWord.clear();
+            wordsByTrigram.clear();
+            for (Airport airport : airports) {
+                add(airport);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Add an airport, or re-index one that changed
+     */
+    void put(Airport airport) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(airport.getId());
+            add(airport);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Ids of the airports matching every word of the query, best match first and
+     * lowest id first among equals. An empty query matches nothing.
+     */
+    List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(words(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = score(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Distinct words in the index
+     */
+    int wordCount() {
+        lock.readLock().lock();
+        try {
+            return idsByWord.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Best score of each airport for one query word
+     */
+    private Map<Long, Double> score(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        
+        Map<String, Set<Long>> withPrefix = idsByWord.subMap(term, true, term + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Set<Long>> entry : withPrefix.entrySet()) {
+            double score = entry.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            for (Long id : entry.getValue()) {
+                scores.merge(id, score, Math::max);
+            }
+        }
+        
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (Map.Entry<String, Double> similar : similarWords(term).entrySet()) {
+                double score = FUZZY_SCORE * similar.getValue();
+                for (Long id : idsByWord.get(similar.getKey())) {
+                    scores.merge(id, score, Math::max);
+                }
+            }
+        }
+        
+        Set<Long> codeMatches = idsByCode.get(term);
+        if (codeMatches != null) {
+            for (Long id : codeMatches) {
+                scores.merge(id, CODE_SCORE, Double::sum);
+            }
+        }
+        return scores;
+    }
+    
+    /**
+     * Indexed words sharing enough trigrams with the term, with their similarity
+     */
+    private Map<String, Double> similarWords(String term) {
+        Set<String> termTrigrams = new HashSet<>(trigrams(term));
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : termTrigrams) {
+            Set<String> words = wordsByTrigram.get(trigram);
+            if (words != null) {
+                for (String word : words) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+        
+        Map<String, Double> similar = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            // A padded word has as many trigrams as letters, fewer distinct ones only if some repeat
+            int wordTrigrams = entry.getKey().length();
+            double similarity = entry.getValue() / (double) Math.max(termTrigrams.size(), wordTrigrams);
+            if (similarity >= MIN_SIMILARITY) {
+                similar.put(entry.getKey(), similarity);
+            }
+        }
+        return similar;
+    }
+    
+    private void add(Airport airport) {
+        Long id = airport.getId();
+        Set<String> words = new HashSet<>();
+        words.addAll(words(airport.getName()));
+        words.addAll(words(airport.getCode()));
+        words.addAll(words(airport.getCity()));
+        words.addAll(words(airport.getCountry()));
+        
+        wordsById.put(id, words);
+        for (String word : words) {
+            Set<Long> ids = idsByWord.computeIfAbsent(word, key -> new HashSet<>());
+            if (ids.isEmpty()) {
+                for (String trigram : trigrams(word)) {
+                    wordsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(word);
+                }
+            }
+            ids.add(id);
+        }
+        
+        List<String> code = words(airport.getCode());
+        if (code.size() == 1) {
+            codeById.put(id, code.get(0));
+            idsByCode.computeIfAbsent(code.get(0), key -> new HashSet<>()).add(id);
+        }
+    }
+    
+    private void removeEntry(Long id) {
+        Set<String> words = wordsById.remove(id);
+        if (words != null) {
+            for (String word : words) {
+                Set<Long> ids = idsByWord.get(word);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByWord.remove(word);
+                    for (String trigram : trigrams(word)) {
+                        Set<String> trigramWords = wordsByTrigram.get(trigram);
+                        trigramWords.remove(word);
+                        if (trigramWords.isEmpty()) {
+                            wordsByTrigram.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+        
+        String code = codeById.remove(id);
+        if (code != null) {
+            Set<Long> ids = idsByCode.get(code);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByCode.remove(code);
+            }
+        }
+    }
+    
+    /**
+     * Lower-case, accent-free words of the text
+     */
+    static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * Trigrams of the word padded with one leading and one trailing marker, so that
+     * the start and end of a word weigh as much as its middle
+     */
+    private static List<String> trigrams(String word) {
+        String padded = "^" + word + "$";
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -1,73 +1,167 @@
 package com.example.airportmanagement.dao;
 
 import com.example.airportmanagement.db.DatabaseConnection;
+import com.example.airportmanagement.metrics.Metrics;
+import com.example.airportmanagement.model.Airport;
 import com.example.airportmanagement.model.Booking;
+import com.example.airportmanagement.model.Page;
+import com.example.airportmanagement.util.CursorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Data Access Object for Booking entity
  */
 public class BookingDAO {
     private static final Logger logger = LoggerFactory.getLogger(BookingDAO.class);
+    private final AirportCache airportCache;
     
     private static final String INSERT_BOOKING = 
         "INSERT INTO bookings (user_id, flight_id, seats_booked, total_price, status, " +
         "booking_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, NOW(), NOW(), NOW())";
     
+    private static final String INSERT_BOOKING_DEFERRED_SEATS = 
+        "INSERT INTO bookings (user_id, flight_id, seats_booked, total_price, status, " +
+        "booking_date, seats_reflected, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, NOW(), FALSE, NOW(), NOW())";
+    
     private static final String SELECT_BOOKING_BY_ID = 
         "SELECT b.*, u.username, f.flight_number, " +
-        "sa.code as source_code, da.code as dest_code, f.departure_time " +
+        "f.source_airport_id, f.destination_airport_id, f.departure_time " +
         "FROM bookings b " +
         "JOIN users u ON b.user_id = u.id " +
         "JOIN flights f ON b.flight_id = f.id " +
-        "JOIN airports sa ON f.source_airport_id = sa.id " +
-        "JOIN airports da ON f.destination_airport_id = da.id " +
         "WHERE b.id = ?";
     
     private static final String SELECT_ALL_BOOKINGS = 
         "SELECT b.*, u.username, f.flight_number, " +
-        "sa.code as source_code, da.code as dest_code, f.departure_time " +
+        "f.source_airport_id, f.destination_airport_id, f.departure_time " +
         "FROM bookings b " +
         "JOIN users u ON b.user_id = u.id " +
         "JOIN flights f ON b.flight_id = f.id " +
-        "JOIN airports sa ON f.source_airport_id = sa.id " +
-        "JOIN airports da ON f.destination_airport_id = da.id " +
         "ORDER BY b.booking_date DESC";
     
+    private static final String SELECT_BOOKINGS_FIRST_PAGE = 
+        "SELECT b.*, u.username, f.flight_number, " +
+        "f.source_airport_id, f.destination_airport_id, f.departure_time " +
+        "FROM bookings b " +
+        "JOIN users u ON b.user_id = u.id " +
+        "JOIN flights f ON b.flight_id = f.id " +
+        "ORDER BY b.booking_date DESC, b.id DESC LIMIT ?";
+    
+    // Expanded row comparison (booking_date, id) < (?, ?) so MySQL can range-scan idx_booking_date
+    private static final String SELECT_BOOKINGS_PAGE_AFTER = 
+        "SELECT b.*, u.username, f.flight_number, " +
+        "f.source_airport_id, f.destination_airport_id, f.departure_time " +
+        "FROM bookings b " +
+        "JOIN users u ON b.user_id = u.id " +
+        "JOIN flights f ON b.flight_id = f.id " +
+        "WHERE b.booking_date <= ? AND (b.booking_date < ? OR b.id < ?) " +
+        "ORDER BY b.booking_date DESC, b.id DESC LIMIT ?";
+    
     private static final String SELECT_BOOKINGS_BY_USER = 
         "SELECT b.*, u.username, f.flight_number, " +
-        "sa.code as source_code, da.code as dest_code, f.departure_time " +
+        "f.source_airport_id, f.destination_airport_id, f.departure_time " +
         "FROM bookings b " +
         "JOIN users u ON b.user_id = u.id " +
         "JOIN flights f ON b.flight_id = f.id " +
-        "JOIN airports sa ON f.source_airport_id = sa.id " +
-        "JOIN airports da ON f.destination_airport_id = da.id " +
         "WHERE b.user_id = ? " +
         "ORDER BY b.booking_date DESC";
     
+    private static final String SELECT_RECENT_BOOKINGS_BY_USER = 
+        "SELECT b.*, u.username, f.flight_number, " +
+        "f.source_airport_id, f.destination_airport_id, f.departure_time " +
+        "FROM bookings b " +
+        "JOIN users u ON b.user_id = u.id " +
+        "JOIN flights f ON b.flight_id = f.id " +
+        "WHERE b.user_id = ? " +
+        "ORDER BY b.booking_date DESC LIMIT ?";
+    
+    private static final String COUNT_BOOKINGS_BY_USER = 
+        "SELECT COUNT(*) FROM bookings WHERE user_id = ?";
+    
     private static final String UPDATE_BOOKING = 
         "UPDATE bookings SET status = ?, updated_at = NOW() WHERE id = ?";
     
     private static final String DELETE_BOOKING = 
         "DELETE FROM bookings WHERE id = ?";
     
+    private static final String RESERVE_SEATS = 
+        "UPDATE flights SET seats_available = seats_available - ?, updated_at = NOW() " +
+        "WHERE id = ? AND seats_available >= ? AND status != 'CANCELLED'";
+    
+    private static final String SELECT_FLIGHT_PRICE = 
+        "SELECT price FROM flights WHERE id = ?";
+    
+    private static final String CANCEL_REFLECTED_BOOKING = 
+        "UPDATE bookings SET status = 'CANCELLED', seats_reflected = FALSE, updated_at = NOW() " +
+        "WHERE id = ? AND status != 'CANCELLED' AND seats_reflected = TRUE";
+    
+    private static final String CANCEL_BOOKING = 
+        "UPDATE bookings SET status = 'CANCELLED', updated_at = NOW() " +
+        "WHERE id = ? AND status != 'CANCELLED'";
+    
+    private static final String RELEASE_SEATS = 
+        "UPDATE flights SET seats_available = seats_available + ?, updated_at = NOW() WHERE id = ?";
+    
+    /**
+     * Bookings whose seats are not yet reflected in flights.seats_available:
+     * active bookings taken through the seat inventory, and cancelled bookings
+     * whose seats have not been handed back yet
+     */
+    static final String PENDING_SEAT_CHANGE = 
+        "((b.seats_reflected = FALSE AND b.status IN ('CONFIRMED', 'COMPLETED')) " +
+        "OR (b.seats_reflected = TRUE AND b.status = 'CANCELLED'))";
+    
+    private static final String SELECT_PENDING_SEAT_CHANGES = 
+        "SELECT b.id, b.flight_id, b.seats_booked, b.status FROM bookings b " +
+        "WHERE " + PENDING_SEAT_CHANGE + " LIMIT ? FOR UPDATE";
+    
+    private static final String MARK_SEATS_REFLECTED = 
+        "UPDATE bookings SET seats_reflected = ? WHERE id = ?";
+    
+    public BookingDAO() {
+        this(AirportCache.getInstance());
+    }
+    
+    BookingDAO(AirportCache airportCache) {
+        this.airportCache = airportCache;
+    }
+    
     /**
      * Create a new booking
      */
     public Booking create(Booking booking) throws SQLException {
+        return insert(booking, INSERT_BOOKING, "create");
+    }
+    
+    /**
+     * Create a booking whose seats are held by the seat inventory; the flight
+     * row is updated later by {@link #flushPendingSeatChanges(int)}
+     */
+    public Booking createWithDeferredSeats(Booking booking) throws SQLException {
+        return insert(booking, INSERT_BOOKING_DEFERRED_SEATS, "createWithDeferredSeats");
+    }
+    
+    private Booking insert(Booking booking, String sql, String method) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS);
+            stmt = DatabaseConnection.prepareStatement(conn, sql, Statement.RETURN_GENERATED_KEYS);
             
             stmt.setLong(1, booking.getUserId());
             stmt.setLong(2, booking.getFlightId());
@@ -91,20 +185,239 @@ public class BookingDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", method, startNanos);
+        }
+    }
+    
+    /**
+     * Reserve seats and create the booking in a single transaction.
+     * Returns empty without writing anything when the flight is missing,
+     * cancelled or does not have enough seats left.
+     */
+    public Optional<Booking> createWithSeatReservation(Booking booking) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement reserveStmt = null;
+        PreparedStatement priceStmt = null;
+        PreparedStatement insertStmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            
+            // Conditional decrement: the row lock it takes serializes concurrent reservations
+            reserveStmt = DatabaseConnection.prepareStatement(conn, RESERVE_SEATS);
+            reserveStmt.setInt(1, booking.getSeatsBooked());
+            reserveStmt.setLong(2, booking.getFlightId());
+            reserveStmt.setInt(3, booking.getSeatsBooked());
+            
+            if (reserveStmt.executeUpdate() == 0) {
+                conn.rollback();
+                return Optional.empty();
+            }
+            
+            priceStmt = DatabaseConnection.prepareStatement(conn, SELECT_FLIGHT_PRICE);
+            priceStmt.setLong(1, booking.getFlightId());
+            rs = priceStmt.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("Flight disappeared during reservation: " + booking.getFlightId());
+            }
+            booking.setTotalPrice(rs.getDouble("price") * booking.getSeatsBooked());
+            rs.close();
+            
+            insertStmt = DatabaseConnection.prepareStatement(conn, INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS);
+            insertStmt.setLong(1, booking.getUserId());
+            insertStmt.setLong(2, booking.getFlightId());
+            insertStmt.setInt(3, booking.getSeatsBooked());
+            insertStmt.setDouble(4, booking.getTotalPrice());
+            insertStmt.setString(5, booking.getStatus().name());
+            insertStmt.executeUpdate();
+            
+            rs = insertStmt.getGeneratedKeys();
+            if (rs.next()) {
+                booking.setId(rs.getLong(1));
+            }
+            
+            conn.commit();
+            logger.info("Booking created with seat reservation: userId={}, flightId={}, seats={}", 
+                booking.getUserId(), booking.getFlightId(), booking.getSeatsBooked());
+            return Optional.of(booking);
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            endTransaction(conn);
+            releaseStatement(conn, reserveStmt);
+            releaseStatement(conn, priceStmt);
+            closeResources(conn, insertStmt, rs);
+            Metrics.recordDao("BookingDAO", "createWithSeatReservation", startNanos);
+        }
+    }
+    
+    /**
+     * Batch form of {@link #createWithSeatReservation}: reserve seats for and
+     * insert several bookings in one transaction, each step as one JDBC batch.
+     * Entry i of the result is false when booking i was refused (flight
+     * missing, cancelled or short of seats); refused bookings are not written
+     * and do not affect the others. Accepted bookings get their id and price.
+     * Any SQLException rolls back the whole batch.
+     */
+    public boolean[] createBatchWithSeatReservation(List<Booking> bookings) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement reserveStmt = null;
+        PreparedStatement priceStmt = null;
+        PreparedStatement insertStmt = null;
+        ResultSet rs = null;
+        
+        // Lock flight rows in id order, so concurrent batches cannot deadlock each other
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(i -> bookings.get(i).getFlightId()));
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            
+            reserveStmt = DatabaseConnection.prepareStatement(conn, RESERVE_SEATS);
+            for (int i : order) {
+                Booking booking = bookings.get(i);
+                reserveStmt.setInt(1, booking.getSeatsBooked());
+                reserveStmt.setLong(2, booking.getFlightId());
+                reserveStmt.setInt(3, booking.getSeatsBooked());
+                reserveStmt.addBatch();
+            }
+            int[] counts = reserveStmt.executeBatch();
+            
+            boolean[] accepted = new boolean[bookings.size()];
+            List<Booking> toInsert = new ArrayList<>();
+            Map<Long, Double> prices = new HashMap<>();
+            priceStmt = DatabaseConnection.prepareStatement(conn, SELECT_FLIGHT_PRICE);
+            for (int k = 0; k < order.size(); k++) {
+                if (counts[k] == Statement.SUCCESS_NO_INFO) {
+                    throw new SQLException("Driver did not report update counts for the seat reservation batch");
+                }
+                if (counts[k] == 0) {
+                    continue;
+                }
+                int i = order.get(k);
+                Booking booking = bookings.get(i);
+                Double price = prices.get(booking.getFlightId());
+                if (price == null) {
+                    priceStmt.setLong(1, booking.getFlightId());
+                    rs = priceStmt.executeQuery();
+                    if (!rs.next()) {
+                        throw new SQLException("Flight disappeared during reservation: " + booking.getFlightId());
+                    }
+                    price = rs.getDouble("price");
+                    rs.close();
+                    rs = null;
+                    prices.put(booking.getFlightId(), price);
+                }
+                booking.setTotalPrice(price * booking.getSeatsBooked());
+                accepted[i] = true;
+                toInsert.add(booking);
+            }
+            
+            if (!toInsert.isEmpty()) {
+                insertStmt = DatabaseConnection.prepareStatement(conn, INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS);
+                rs = insertBatch(insertStmt, toInsert);
+            }
+            
+            conn.commit();
+            logger.info("Booking batch written: {} bookings, {} refused", toInsert.size(),
+                bookings.size() - toInsert.size());
+            return accepted;
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            for (Booking booking : bookings) {
+                booking.setId(null);
+            }
+            throw e;
+        } finally {
+            endTransaction(conn);
+            releaseStatement(conn, reserveStmt);
+            releaseStatement(conn, priceStmt);
+            closeResources(conn, insertStmt, rs);
+            Metrics.recordDao("BookingDAO", "createBatchWithSeatReservation", startNanos);
+        }
+    }
+    
+    /**
+     * Batch form of {@link #createWithDeferredSeats}: insert bookings whose
+     * seats are held by the seat inventory, as one JDBC batch in one transaction
+     */
+    public void createBatchWithDeferredSeats(List<Booking> bookings) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            stmt = DatabaseConnection.prepareStatement(conn, INSERT_BOOKING_DEFERRED_SEATS,
+                Statement.RETURN_GENERATED_KEYS);
+            rs = insertBatch(stmt, bookings);
+            conn.commit();
+            logger.info("Booking batch written: {} bookings with deferred seats", bookings.size());
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            for (Booking booking : bookings) {
+                booking.setId(null);
+            }
+            throw e;
+        } finally {
+            endTransaction(conn);
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "createBatchWithDeferredSeats", startNanos);
         }
     }
     
+    /**
+     * Insert the bookings as one batch and set their generated ids, in order.
+     * Returns the generated-keys result set for the caller to close.
+     */
+    private ResultSet insertBatch(PreparedStatement stmt, List<Booking> bookings) throws SQLException {
+        for (Booking booking : bookings) {
+            stmt.setLong(1, booking.getUserId());
+            stmt.setLong(2, booking.getFlightId());
+            stmt.setInt(3, booking.getSeatsBooked());
+            stmt.setDouble(4, booking.getTotalPrice());
+            stmt.setString(5, booking.getStatus().name());
+            stmt.addBatch();
+        }
+        stmt.executeBatch();
+        
+        ResultSet keys = stmt.getGeneratedKeys();
+        int i = 0;
+        while (keys.next() && i < bookings.size()) {
+            bookings.get(i++).setId(keys.getLong(1));
+        }
+        if (i < bookings.size()) {
+            throw new SQLException("Expected " + bookings.size() + " generated booking ids, got " + i);
+        }
+        return keys;
+    }
+    
     /**
      * Find booking by ID
      */
     public Optional<Booking> findById(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_BOOKING_BY_ID);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_BOOKING_BY_ID);
             stmt.setLong(1, id);
             
             rs = stmt.executeQuery();
@@ -117,6 +430,7 @@ public class BookingDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "findById", startNanos);
         }
     }
     
@@ -124,6 +438,7 @@ public class BookingDAO {
      * Get all bookings
      */
     public List<Booking> findAll() throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -131,7 +446,7 @@ public class BookingDAO {
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL_BOOKINGS);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_ALL_BOOKINGS);
             rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -142,6 +457,77 @@ public class BookingDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "findAll", startNanos);
+        }
+    }
+    
+    /**
+     * Stream all bookings to the handler without holding them in memory
+     */
+    public void streamAll(RowHandler<Booking> handler) throws SQLException, IOException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStreamingStatement(conn, SELECT_ALL_BOOKINGS);
+            rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                handler.handle(mapResultSetToBooking(rs));
+            }
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "streamAll", startNanos);
+        }
+    }
+    
+    /**
+     * Get one page of bookings, newest first, starting after the given cursor.
+     * One extra row is read to tell whether another page follows.
+     */
+    public Page<Booking> findPage(CursorUtil.Cursor after, int limit) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<Booking> bookings = new ArrayList<>();
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            if (after == null) {
+                stmt = DatabaseConnection.prepareStatement(conn, SELECT_BOOKINGS_FIRST_PAGE);
+                stmt.setInt(1, limit + 1);
+            } else {
+                Timestamp bookingDate = Timestamp.valueOf(after.getTimestamp());
+                stmt = DatabaseConnection.prepareStatement(conn, SELECT_BOOKINGS_PAGE_AFTER);
+                stmt.setTimestamp(1, bookingDate);
+                stmt.setTimestamp(2, bookingDate);
+                stmt.setLong(3, after.getId());
+                stmt.setInt(4, limit + 1);
+            }
+            
+            rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                bookings.add(mapResultSetToBooking(rs));
+            }
+            
+            String nextCursor = null;
+            if (bookings.size() > limit) {
+                bookings.remove(limit);
+                Booking last = bookings.get(limit - 1);
+                nextCursor = CursorUtil.encode(last.getBookingDate(), last.getId());
+            }
+            
+            return new Page<>(bookings, nextCursor);
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "findPage", startNanos);
         }
     }
     
@@ -149,6 +535,36 @@ public class BookingDAO {
      * Get bookings by user ID
      */
     public List<Booking> findByUserId(Long userId) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<Booking> bookings = new ArrayList<>();
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_BOOKINGS_BY_USER);
+            stmt.setLong(1, userId);
+            
+            rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                bookings.add(mapResultSetToBooking(rs));
+            }
+            
+            return bookings;
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "findByUserId", startNanos);
+        }
+    }
+    
+    /**
+     * Get a user's newest bookings, at most {@code limit}
+     */
+    public List<Booking> findRecentByUserId(Long userId, int limit) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -156,8 +572,9 @@ public class BookingDAO {
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_BOOKINGS_BY_USER);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_RECENT_BOOKINGS_BY_USER);
             stmt.setLong(1, userId);
+            stmt.setInt(2, limit);
             
             rs = stmt.executeQuery();
             
@@ -169,6 +586,30 @@ public class BookingDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "findRecentByUserId", startNanos);
+        }
+    }
+    
+    /**
+     * Count a user's bookings, cancelled ones included
+     */
+    public int countByUserId(Long userId) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStatement(conn, COUNT_BOOKINGS_BY_USER);
+            stmt.setLong(1, userId);
+            
+            rs = stmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "countByUserId", startNanos);
         }
     }
     
@@ -176,12 +617,13 @@ public class BookingDAO {
      * Update booking status
      */
     public boolean update(Booking booking) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(UPDATE_BOOKING);
+            stmt = DatabaseConnection.prepareStatement(conn, UPDATE_BOOKING);
             
             stmt.setString(1, booking.getStatus().name());
             stmt.setLong(2, booking.getId());
@@ -193,6 +635,124 @@ public class BookingDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("BookingDAO", "update", startNanos);
+        }
+    }
+    
+    /**
+     * Cancel a booking. With releaseSeats the seats go back to the flight in the
+     * same transaction; otherwise the flush job hands them back later.
+     */
+    public boolean cancel(Booking booking, boolean releaseSeats) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement cancelStmt = null;
+        PreparedStatement stmt = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            int affectedRows = 0;
+            
+            if (releaseSeats) {
+                cancelStmt = DatabaseConnection.prepareStatement(conn, CANCEL_REFLECTED_BOOKING);
+                cancelStmt.setLong(1, booking.getId());
+                
+                if (cancelStmt.executeUpdate() > 0) {
+                    stmt = DatabaseConnection.prepareStatement(conn, RELEASE_SEATS);
+                    stmt.setInt(1, booking.getSeatsBooked());
+                    stmt.setLong(2, booking.getFlightId());
+                    stmt.executeUpdate();
+                    affectedRows = 1;
+                }
+            }
+            
+            if (affectedRows == 0) {
+                // Seats were never taken from the flight row, or the flush job will return them
+                stmt = DatabaseConnection.prepareStatement(conn, CANCEL_BOOKING);
+                stmt.setLong(1, booking.getId());
+                affectedRows = stmt.executeUpdate();
+            }
+            
+            conn.commit();
+            logger.info("Booking cancelled: id={}, seatsReleased={}", booking.getId(), releaseSeats);
+            return affectedRows > 0;
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            endTransaction(conn);
+            releaseStatement(conn, cancelStmt);
+            closeResources(conn, stmt, null);
+            Metrics.recordDao("BookingDAO", "cancel", startNanos);
+        }
+    }
+    
+    /**
+     * Apply seat changes of up to {@code limit} pending bookings to their flights
+     * and mark them reflected, all in one transaction. Returns the net seat delta
+     * applied per flight; an empty map means nothing was pending.
+     */
+    public Map<Long, Integer> flushPendingSeatChanges(int limit) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement selectStmt = null;
+        PreparedStatement flightStmt = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        Map<Long, Integer> deltas = new TreeMap<>();
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            
+            selectStmt = DatabaseConnection.prepareStatement(conn, SELECT_PENDING_SEAT_CHANGES);
+            selectStmt.setInt(1, limit);
+            rs = selectStmt.executeQuery();
+            
+            stmt = DatabaseConnection.prepareStatement(conn, MARK_SEATS_REFLECTED);
+            while (rs.next()) {
+                boolean cancelled = "CANCELLED".equals(rs.getString("status"));
+                int seats = rs.getInt("seats_booked");
+                deltas.merge(rs.getLong("flight_id"), cancelled ? seats : -seats, Integer::sum);
+                
+                stmt.setBoolean(1, !cancelled);
+                stmt.setLong(2, rs.getLong("id"));
+                stmt.addBatch();
+            }
+            rs.close();
+            
+            if (deltas.isEmpty()) {
+                conn.commit();
+                return deltas;
+            }
+            
+            // TreeMap keeps flight rows locked in id order across concurrent flushes
+            flightStmt = DatabaseConnection.prepareStatement(conn, RELEASE_SEATS);
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    flightStmt.setInt(1, delta.getValue());
+                    flightStmt.setLong(2, delta.getKey());
+                    flightStmt.addBatch();
+                }
+            }
+            flightStmt.executeBatch();
+            stmt.executeBatch();
+            
+            conn.commit();
+            logger.debug("Flushed pending seat changes for {} flights", deltas.size());
+            return deltas;
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            endTransaction(conn);
+            releaseStatement(conn, selectStmt);
+            releaseStatement(conn, flightStmt);
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("BookingDAO", "flushPendingSeatChanges", startNanos);
         }
     }
     
@@ -200,12 +760,13 @@ public class BookingDAO {
      * Delete booking
      */
     public boolean delete(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(DELETE_BOOKING);
+            stmt = DatabaseConnection.prepareStatement(conn, DELETE_BOOKING);
             stmt.setLong(1, id);
             
             int affectedRows = stmt.executeUpdate();
@@ -215,13 +776,14 @@ public class BookingDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("BookingDAO", "delete", startNanos);
         }
     }
     
     /**
      * Map ResultSet to Booking object
      */
-    private Booking mapResultSetToBooking(ResultSet rs) throws SQLException {
+    Booking mapResultSetToBooking(ResultSet rs) throws SQLException {
         Booking booking = new Booking();
         booking.setId(rs.getLong("id"));
         booking.setUserId(rs.getLong("user_id"));
@@ -238,8 +800,10 @@ public class BookingDAO {
         // Set joined fields
         booking.setUsername(rs.getString("username"));
         booking.setFlightNumber(rs.getString("flight_number"));
-        booking.setSourceAirportCode(rs.getString("source_code"));
-        booking.setDestinationAirportCode(rs.getString("dest_code"));
+        booking.setSourceAirportCode(airportCache.findById(rs.getLong("source_airport_id"))
+            .map(Airport::getCode).orElse(null));
+        booking.setDestinationAirportCode(airportCache.findById(rs.getLong("destination_airport_id"))
+            .map(Airport::getCode).orElse(null));
         
         Timestamp departureTime = rs.getTimestamp("departure_time");
         if (departureTime != null) {
@@ -259,13 +823,43 @@ public class BookingDAO {
         return booking;
     }
     
+    /**
+     * Roll back the current transaction, keeping the original failure as the one reported
+     */
+    private void rollback(Connection conn) {
+        try {
+            if (conn != null) conn.rollback();
+        } catch (SQLException e) {
+            logger.error("Error rolling back transaction", e);
+        }
+    }
+    
+    /**
+     * Put the connection back into auto-commit mode before it returns to the pool
+     */
+    private void endTransaction(Connection conn) {
+        try {
+            if (conn != null) conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.error("Error restoring auto-commit", e);
+        }
+    }
+    
+    private void releaseStatement(Connection conn, PreparedStatement stmt) {
+        try {
+            if (stmt != null) DatabaseConnection.releaseStatement(conn, stmt);
+        } catch (SQLException e) {
+            logger.error("Error closing statement", e);
+        }
+    }
+    
     /**
      * Close database resources
      */
     private void closeResources(Connection conn, PreparedStatement stmt, ResultSet rs) {
         try {
             if (rs != null) rs.close();
-            if (stmt != null) stmt.close();
+            if (stmt != null) DatabaseConnection.releaseStatement(conn, stmt);
             if (conn != null) DatabaseConnection.releaseConnection(conn);
         } catch (SQLException e) {
             logger.error("Error closing resources", e);
@@ -1,10 +1,15 @@
 package com.example.airportmanagement.dao;
 
 import com.example.airportmanagement.db.DatabaseConnection;
+import com.example.airportmanagement.metrics.Metrics;
+import com.example.airportmanagement.model.Airport;
 import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.Page;
+import com.example.airportmanagement.util.CursorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +20,7 @@ import java.util.Optional;
  */
 public class FlightDAO {
     private static final Logger logger = LoggerFactory.getLogger(FlightDAO.class);
+    private final AirportCache airportCache;
     
     private static final String INSERT_FLIGHT = 
         "INSERT INTO flights (flight_number, source_airport_id, destination_airport_id, " +
@@ -22,58 +28,71 @@ public class FlightDAO {
         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
     
     private static final String SELECT_FLIGHT_BY_ID = 
-        "SELECT f.*, " +
-        "sa.code as source_code, sa.name as source_name, " +
-        "da.code as dest_code, da.name as dest_name " +
-        "FROM flights f " +
-        "JOIN airports sa ON f.source_airport_id = sa.id " +
-        "JOIN airports da ON f.destination_airport_id = da.id " +
+        "SELECT f.* FROM flights f " +
         "WHERE f.id = ?";
     
     private static final String SELECT_ALL_FLIGHTS = 
-        "SELECT f.*, " +
-        "sa.code as source_code, sa.name as source_name, " +
-        "da.code as dest_code, da.name as dest_name " +
-        "FROM flights f " +
-        "JOIN airports sa ON f.source_airport_id = sa.id " +
-        "JOIN airports da ON f.destination_airport_id = da.id " +
+        "SELECT f.* FROM flights f " +
         "ORDER BY f.departure_time";
     
+    private static final String SELECT_FLIGHTS_FIRST_PAGE = 
+        "SELECT f.* FROM flights f " +
+        "ORDER BY f.departure_time, f.id LIMIT ?";
+    
+    // Expanded row comparison (departure_time, id) > (?, ?) so MySQL can range-scan idx_departure_time
+    private static final String SELECT_FLIGHTS_PAGE_AFTER = 
+        "SELECT f.* FROM flights f " +
+        "WHERE f.departure_time >= ? AND (f.departure_time > ? OR f.id > ?) " +
+        "ORDER BY f.departure_time, f.id LIMIT ?";
+    
     private static final String UPDATE_FLIGHT = 
         "UPDATE flights SET flight_number = ?, source_airport_id = ?, " +
         "destination_airport_id = ?, departure_time = ?, arrival_time = ?, " +
         "seats_available = ?, price = ?, status = ?, updated_at = NOW() WHERE id = ?";
     
+    // Leaves seats_available alone: it may lag the seat inventory's pending bookings
+    private static final String UPDATE_FLIGHT_STATUS = 
+        "UPDATE flights SET status = ?, updated_at = NOW() WHERE id = ?";
+    
     private static final String DELETE_FLIGHT = 
         "DELETE FROM flights WHERE id = ?";
     
+    // Completed by FlightSearchQuery.toWhereClause()
     private static final String SEARCH_FLIGHTS = 
-        "SELECT f.*, " +
-        "sa.code as source_code, sa.name as source_name, " +
-        "da.code as dest_code, da.name as dest_name " +
+        "SELECT f.* FROM flights f ";
+    
+    private static final String SELECT_SEAT_AVAILABILITY = 
+        "SELECT f.id, f.price, f.status, f.seats_available + COALESCE(SUM(" +
+        "CASE WHEN b.status = 'CANCELLED' THEN b.seats_booked ELSE -b.seats_booked END), 0) " +
+        "AS effective_seats " +
         "FROM flights f " +
-        "JOIN airports sa ON f.source_airport_id = sa.id " +
-        "JOIN airports da ON f.destination_airport_id = da.id " +
-        "WHERE (sa.code = ? OR ? IS NULL) " +
-        "AND (da.code = ? OR ? IS NULL) " +
-        "AND (DATE(f.departure_time) = DATE(?) OR ? IS NULL) " +
-        "AND f.status != 'CANCELLED' " +
-        "ORDER BY f.departure_time";
+        "LEFT JOIN bookings b ON b.flight_id = f.id AND " + BookingDAO.PENDING_SEAT_CHANGE + " " +
+        "WHERE f.id = ? " +
+        "GROUP BY f.id, f.price, f.status, f.seats_available";
     
     private static final String UPDATE_SEATS = 
         "UPDATE flights SET seats_available = seats_available - ?, updated_at = NOW() WHERE id = ?";
     
+    public FlightDAO() {
+        this(AirportCache.getInstance());
+    }
+    
+    FlightDAO(AirportCache airportCache) {
+        this.airportCache = airportCache;
+    }
+    
     /**
      * Create a new flight
      */
     public Flight create(Flight flight) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(INSERT_FLIGHT, Statement.RETURN_GENERATED_KEYS);
+            stmt = DatabaseConnection.prepareStatement(conn, INSERT_FLIGHT, Statement.RETURN_GENERATED_KEYS);
             
             stmt.setString(1, flight.getFlightNumber());
             stmt.setLong(2, flight.getSourceAirportId());
@@ -100,6 +119,60 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "create", startNanos);
+        }
+    }
+    
+    /**
+     * Insert flights as one JDBC batch in one transaction and set their
+     * generated ids, in order. Either every flight is written or none is.
+     */
+    public void createBatch(List<Flight> flights) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            stmt = DatabaseConnection.prepareStatement(conn, INSERT_FLIGHT, Statement.RETURN_GENERATED_KEYS);
+            
+            for (Flight flight : flights) {
+                stmt.setString(1, flight.getFlightNumber());
+                stmt.setLong(2, flight.getSourceAirportId());
+                stmt.setLong(3, flight.getDestinationAirportId());
+                stmt.setTimestamp(4, Timestamp.valueOf(flight.getDepartureTime()));
+                stmt.setTimestamp(5, Timestamp.valueOf(flight.getArrivalTime()));
+                stmt.setInt(6, flight.getSeatsAvailable());
+                stmt.setDouble(7, flight.getPrice());
+                stmt.setString(8, flight.getStatus() != null ? flight.getStatus().name() : "SCHEDULED");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            rs = stmt.getGeneratedKeys();
+            int i = 0;
+            while (rs.next() && i < flights.size()) {
+                flights.get(i++).setId(rs.getLong(1));
+            }
+            if (i < flights.size()) {
+                throw new SQLException("Expected " + flights.size() + " generated flight ids, got " + i);
+            }
+            
+            conn.commit();
+            logger.info("Flight batch created: {} flights", flights.size());
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            for (Flight flight : flights) {
+                flight.setId(null);
+            }
+            throw e;
+        } finally {
+            endTransaction(conn);
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "createBatch", startNanos);
         }
     }
     
@@ -107,13 +180,14 @@ public class FlightDAO {
      * Find flight by ID
      */
     public Optional<Flight> findById(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_FLIGHT_BY_ID);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_FLIGHT_BY_ID);
             stmt.setLong(1, id);
             
             rs = stmt.executeQuery();
@@ -126,6 +200,41 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "findById", startNanos);
+        }
+    }
+    
+    /**
+     * Load the seats a flight really has left, including booking changes not yet
+     * flushed to the flight row. Only id, seatsAvailable, price and status are set.
+     */
+    public Optional<Flight> findSeatAvailability(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_SEAT_AVAILABILITY);
+            stmt.setLong(1, id);
+            
+            rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                Flight flight = new Flight();
+                flight.setId(rs.getLong("id"));
+                flight.setSeatsAvailable(rs.getInt("effective_seats"));
+                flight.setPrice(rs.getDouble("price"));
+                flight.setStatus(Flight.FlightStatus.valueOf(rs.getString("status")));
+                return Optional.of(flight);
+            }
+            
+            return Optional.empty();
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "findSeatAvailability", startNanos);
         }
     }
     
@@ -133,6 +242,7 @@ public class FlightDAO {
      * Get all flights
      */
     public List<Flight> findAll() throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -140,7 +250,7 @@ public class FlightDAO {
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL_FLIGHTS);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_ALL_FLIGHTS);
             rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -151,13 +261,40 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "findAll", startNanos);
         }
     }
     
     /**
-     * Search flights
+     * Stream all flights to the handler without holding them in memory
      */
-    public List<Flight> search(String sourceCode, String destCode, String date) throws SQLException {
+    public void streamAll(RowHandler<Flight> handler) throws SQLException, IOException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStreamingStatement(conn, SELECT_ALL_FLIGHTS);
+            rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                handler.handle(mapResultSetToFlight(rs));
+            }
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "streamAll", startNanos);
+        }
+    }
+    
+    /**
+     * Get one page of flights ordered by departure time, starting after the given cursor.
+     * One extra row is read to tell whether another page follows.
+     */
+    public Page<Flight> findPage(CursorUtil.Cursor after, int limit) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -165,14 +302,53 @@ public class FlightDAO {
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SEARCH_FLIGHTS);
+            if (after == null) {
+                stmt = DatabaseConnection.prepareStatement(conn, SELECT_FLIGHTS_FIRST_PAGE);
+                stmt.setInt(1, limit + 1);
+            } else {
+                Timestamp departure = Timestamp.valueOf(after.getTimestamp());
+                stmt = DatabaseConnection.prepareStatement(conn, SELECT_FLIGHTS_PAGE_AFTER);
+                stmt.setTimestamp(1, departure);
+                stmt.setTimestamp(2, departure);
+                stmt.setLong(3, after.getId());
+                stmt.setInt(4, limit + 1);
+            }
+            
+            rs = stmt.executeQuery();
             
-            stmt.setString(1, sourceCode);
-            stmt.setString(2, sourceCode);
-            stmt.setString(3, destCode);
-            stmt.setString(4, destCode);
-            stmt.setString(5, date);
-            stmt.setString(6, date);
+            while (rs.next()) {
+                flights.add(mapResultSetToFlight(rs));
+            }
+            
+            String nextCursor = null;
+            if (flights.size() > limit) {
+                flights.remove(limit);
+                Flight last = flights.get(limit - 1);
+                nextCursor = CursorUtil.encode(last.getDepartureTime(), last.getId());
+            }
+            
+            return new Page<>(flights, nextCursor);
+            
+        } finally {
+            closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "findPage", startNanos);
+        }
+    }
+    
+    /**
+     * Search flights
+     */
+    public List<Flight> search(FlightSearchQuery query) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        List<Flight> flights = new ArrayList<>();
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStatement(conn, searchSql(query));
+            query.bind(stmt);
             
             rs = stmt.executeQuery();
             
@@ -184,19 +360,28 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("FlightDAO", "search", startNanos);
         }
     }
     
+    /**
+     * Full search statement for a query
+     */
+    static String searchSql(FlightSearchQuery query) {
+        return SEARCH_FLIGHTS + query.toWhereClause() + " ORDER BY f.departure_time";
+    }
+    
     /**
      * Update flight
      */
     public boolean update(Flight flight) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(UPDATE_FLIGHT);
+            stmt = DatabaseConnection.prepareStatement(conn, UPDATE_FLIGHT);
             
             stmt.setString(1, flight.getFlightNumber());
             stmt.setLong(2, flight.getSourceAirportId());
@@ -215,6 +400,33 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("FlightDAO", "update", startNanos);
+        }
+    }
+    
+    /**
+     * Update only the status of a flight
+     */
+    public boolean updateStatus(Long id, Flight.FlightStatus status) throws SQLException {
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.prepareStatement(conn, UPDATE_FLIGHT_STATUS);
+            
+            stmt.setString(1, status.name());
+            stmt.setLong(2, id);
+            
+            int affectedRows = stmt.executeUpdate();
+            
+            logger.info("Flight status updated: flightId={}, status={}", id, status);
+            return affectedRows > 0;
+            
+        } finally {
+            closeResources(conn, stmt, null);
+            Metrics.recordDao("FlightDAO", "updateStatus", startNanos);
         }
     }
     
@@ -222,12 +434,13 @@ public class FlightDAO {
      * Update available seats (for booking)
      */
     public boolean updateSeats(Long flightId, int seatsToBook) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(UPDATE_SEATS);
+            stmt = DatabaseConnection.prepareStatement(conn, UPDATE_SEATS);
             
             stmt.setInt(1, seatsToBook);
             stmt.setLong(2, flightId);
@@ -239,6 +452,7 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("FlightDAO", "updateSeats", startNanos);
         }
     }
     
@@ -246,12 +460,13 @@ public class FlightDAO {
      * Delete flight
      */
     public boolean delete(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(DELETE_FLIGHT);
+            stmt = DatabaseConnection.prepareStatement(conn, DELETE_FLIGHT);
             stmt.setLong(1, id);
             
             int affectedRows = stmt.executeUpdate();
@@ -261,13 +476,14 @@ public class FlightDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("FlightDAO", "delete", startNanos);
         }
     }
     
     /**
      * Map ResultSet to Flight object
      */
-    private Flight mapResultSetToFlight(ResultSet rs) throws SQLException {
+    Flight mapResultSetToFlight(ResultSet rs) throws SQLException {
         Flight flight = new Flight();
         flight.setId(rs.getLong("id"));
         flight.setFlightNumber(rs.getString("flight_number"));
@@ -288,11 +504,18 @@ public class FlightDAO {
         flight.setPrice(rs.getDouble("price"));
         flight.setStatus(Flight.FlightStatus.valueOf(rs.getString("status")));
         
-        // Set airport codes and names from joined tables
-        flight.setSourceAirportCode(rs.getString("source_code"));
-        flight.setSourceAirportName(rs.getString("source_name"));
-        flight.setDestinationAirportCode(rs.getString("dest_code"));
-        flight.setDestinationAirportName(rs.getString("dest_name"));
+        // Set airport codes and names from the airport cache
+        Optional<Airport> source = airportCache.findById(flight.getSourceAirportId());
+        if (source.isPresent()) {
+            flight.setSourceAirportCode(source.get().getCode());
+            flight.setSourceAirportName(source.get().getName());
+        }
+        
+        Optional<Airport> destination = airportCache.findById(flight.getDestinationAirportId());
+        if (destination.isPresent()) {
+            flight.setDestinationAirportCode(destination.get().getCode());
+            flight.setDestinationAirportName(destination.get().getName());
+        }
         
         Timestamp createdAt = rs.getTimestamp("created_at");
         if (createdAt != null) {
@@ -307,13 +530,32 @@ public class FlightDAO {
         return flight;
     }
     
+    private void rollback(Connection conn) {
+        try {
+            if (conn != null) conn.rollback();
+        } catch (SQLException e) {
+            logger.error("Error rolling back transaction", e);
+        }
+    }
+    
+    /**
+     * Put the connection back into auto-commit mode before it returns to the pool
+     */
+    private void endTransaction(Connection conn) {
+        try {
+            if (conn != null) conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.error("Error restoring auto-commit", e);
+        }
+    }
+    
     /**
      * Close database resources
      */
     private void closeResources(Connection conn, PreparedStatement stmt, ResultSet rs) {
         try {
             if (rs != null) rs.close();
-            if (stmt != null) stmt.close();
+            if (stmt != null) DatabaseConnection.releaseStatement(conn, stmt);
             if (conn != null) DatabaseConnection.releaseConnection(conn);
         } catch (SQLException e) {
             logger.error("Error closing resources", e);
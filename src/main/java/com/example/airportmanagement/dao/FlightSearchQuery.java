@@ -0,0 +1,108 @@
+package com.example.airportmanagement.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builder for the WHERE clause of a flight search.
+ *
+ * Only the criteria actually set become predicates, and each one compares a bare
+ * column of {@code flights} with a parameter: airports by id rather than by a
+ * joined code, and the departure day as a half-open range rather than
+ * {@code DATE(departure_time)}. That keeps the query sargable, so MySQL can seek
+ * {@code idx_route_departure} (source, destination, departure) or
+ * {@code idx_departure_time} instead of scanning the table.
+ */
+public class FlightSearchQuery {
+    private Long sourceAirportId;
+    private Long destinationAirportId;
+    private LocalDateTime departureFrom;
+    private LocalDateTime departureBefore;
+    
+    public FlightSearchQuery sourceAirport(Long airportId) {
+        this.sourceAirportId = airportId;
+        return this;
+    }
+    
+    public FlightSearchQuery destinationAirport(Long airportId) {
+        this.destinationAirportId = airportId;
+        return this;
+    }
+    
+    /**
+     * Departing at or after {@code from} and strictly before {@code before}
+     */
+    public FlightSearchQuery departingBetween(LocalDateTime from, LocalDateTime before) {
+        this.departureFrom = from;
+        this.departureBefore = before;
+        return this;
+    }
+    
+    /**
+     * Departing on the given calendar day
+     */
+    public FlightSearchQuery departingOn(LocalDate date) {
+        return departingBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+    
+    public Long getSourceAirportId() {
+        return sourceAirportId;
+    }
+    
+    public Long getDestinationAirportId() {
+        return destinationAirportId;
+    }
+    
+    public LocalDateTime getDepartureFrom() {
+        return departureFrom;
+    }
+    
+    public LocalDateTime getDepartureBefore() {
+        return departureBefore;
+    }
+    
+    /**
+     * WHERE clause with one placeholder per criterion set, in the order {@link #bind} fills them
+     */
+    public String toWhereClause() {
+        List<String> predicates = new ArrayList<>();
+        if (sourceAirportId != null) {
+            predicates.add("f.source_airport_id = ?");
+        }
+        if (destinationAirportId != null) {
+            predicates.add("f.destination_airport_id = ?");
+        }
+        if (departureFrom != null) {
+            predicates.add("f.departure_time >= ?");
+        }
+        if (departureBefore != null) {
+            predicates.add("f.departure_time < ?");
+        }
+        predicates.add("f.status != 'CANCELLED'");
+        return "WHERE " + String.join(" AND ", predicates);
+    }
+    
+    /**
+     * Bind the criteria to a statement prepared from {@link #toWhereClause}
+     */
+    public void bind(PreparedStatement stmt) throws SQLException {
+        int index = 1;
+        if (sourceAirportId != null) {
+            stmt.setLong(index++, sourceAirportId);
+        }
+        if (destinationAirportId != null) {
+            stmt.setLong(index++, destinationAirportId);
+        }
+        if (departureFrom != null) {
+            stmt.setTimestamp(index++, Timestamp.valueOf(departureFrom));
+        }
+        if (departureBefore != null) {
+            stmt.setTimestamp(index++, Timestamp.valueOf(departureBefore));
+        }
+    }
+}
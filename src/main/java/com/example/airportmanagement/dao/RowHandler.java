@@ -0,0 +1,15 @@
+package com.example.airportmanagement.dao;
+
+import java.io.IOException;
+
+/**
+ * Callback receiving rows one at a time from a streaming DAO query
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    
+    /**
+     * Handle one row; the object is not retained by the DAO
+     */
+    void handle(T row) throws IOException;
+}
@@ -1,6 +1,7 @@
 package com.example.airportmanagement.dao;
 
 import com.example.airportmanagement.db.DatabaseConnection;
+import com.example.airportmanagement.metrics.Metrics;
 import com.example.airportmanagement.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,13 +43,14 @@ public class UserDAO {
      * Create a new user
      */
     public User create(User user) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
+            stmt = DatabaseConnection.prepareStatement(conn, INSERT_USER, Statement.RETURN_GENERATED_KEYS);
             
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getPasswordHash());
@@ -71,6 +73,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("UserDAO", "create", startNanos);
         }
     }
     
@@ -78,13 +81,14 @@ public class UserDAO {
      * Find user by ID
      */
     public Optional<User> findById(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_USER_BY_ID);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_USER_BY_ID);
             stmt.setLong(1, id);
             
             rs = stmt.executeQuery();
@@ -97,6 +101,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("UserDAO", "findById", startNanos);
         }
     }
     
@@ -104,13 +109,14 @@ public class UserDAO {
      * Find user by username
      */
     public Optional<User> findByUsername(String username) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_USER_BY_USERNAME);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_USER_BY_USERNAME);
             stmt.setString(1, username);
             
             rs = stmt.executeQuery();
@@ -123,6 +129,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("UserDAO", "findByUsername", startNanos);
         }
     }
     
@@ -130,13 +137,14 @@ public class UserDAO {
      * Find user by email
      */
     public Optional<User> findByEmail(String email) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_USER_BY_EMAIL);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_USER_BY_EMAIL);
             stmt.setString(1, email);
             
             rs = stmt.executeQuery();
@@ -149,6 +157,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("UserDAO", "findByEmail", startNanos);
         }
     }
     
@@ -156,6 +165,7 @@ public class UserDAO {
      * Get all users
      */
     public List<User> findAll() throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -163,7 +173,7 @@ public class UserDAO {
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL_USERS);
+            stmt = DatabaseConnection.prepareStatement(conn, SELECT_ALL_USERS);
             rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -174,6 +184,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, rs);
+            Metrics.recordDao("UserDAO", "findAll", startNanos);
         }
     }
     
@@ -181,12 +192,13 @@ public class UserDAO {
      * Update user
      */
     public boolean update(User user) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(UPDATE_USER);
+            stmt = DatabaseConnection.prepareStatement(conn, UPDATE_USER);
             
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getEmail());
@@ -200,6 +212,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("UserDAO", "update", startNanos);
         }
     }
     
@@ -207,12 +220,13 @@ public class UserDAO {
      * Delete user
      */
     public boolean delete(Long id) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(DELETE_USER);
+            stmt = DatabaseConnection.prepareStatement(conn, DELETE_USER);
             stmt.setLong(1, id);
             
             int affectedRows = stmt.executeUpdate();
@@ -222,6 +236,7 @@ public class UserDAO {
             
         } finally {
             closeResources(conn, stmt, null);
+            Metrics.recordDao("UserDAO", "delete", startNanos);
         }
     }
     
@@ -255,7 +270,7 @@ public class UserDAO {
     private void closeResources(Connection conn, PreparedStatement stmt, ResultSet rs) {
         try {
             if (rs != null) rs.close();
-            if (stmt != null) stmt.close();
+            if (stmt != null) DatabaseConnection.releaseStatement(conn, stmt);
             if (conn != null) DatabaseConnection.releaseConnection(conn);
         } catch (SQLException e) {
             logger.error("Error closing resources", e);
@@ -6,24 +6,81 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Simple Connection Pool Implementation
+ * Bounded, lock-free connection pool.
+ *
+ * Idle connections sit on a concurrent LIFO stack so the most recently used
+ * connection is handed out first, and a semaphore caps the number of
+ * connections that can be borrowed at once. Callers that find the pool
+ * exhausted wait up to {@code db.pool.maxWait} milliseconds for a permit.
+ *
+ * Connections are validated on idle rather than on borrow: a background task
+ * checks connections that have been idle longer than
+ * {@code db.pool.validationIdleMillis}, and recently used connections are
+ * handed out without a round-trip to the server.
+ *
+ * Each pooled connection keeps an LRU cache of its prepared statements, so
+ * DAOs should prepare and release statements through
+ * {@link #prepareStatement(Connection, String)} and
+ * {@link #releaseStatement(Connection, PreparedStatement)}.
  */
 public class DatabaseConnection {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConnection.class);
-    private static final int INITIAL_POOL_SIZE = 5;
-    private static final int MAX_POOL_SIZE = 20;
-    private static final List<Connection> connectionPool = new ArrayList<>();
-    private static final List<Connection> usedConnections = new ArrayList<>();
+    
+    private static final int INITIAL_POOL_SIZE = AppConfig.getDbIntProperty("db.pool.initialSize", 5);
+    private static final int MAX_POOL_SIZE = AppConfig.getDbIntProperty("db.pool.maxActive", 20);
+    private static final int MAX_IDLE = AppConfig.getDbIntProperty("db.pool.maxIdle", MAX_POOL_SIZE);
+    private static final int MIN_IDLE = AppConfig.getDbIntProperty("db.pool.minIdle", 0);
+    private static final long MAX_WAIT_MILLIS = AppConfig.getDbIntProperty("db.pool.maxWait", 30000);
+    private static final long VALIDATION_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(
+        AppConfig.getDbIntProperty("db.pool.validationIdleMillis", 30000));
+    private static final long VALIDATION_INTERVAL_MILLIS =
+        AppConfig.getDbIntProperty("db.pool.validationIntervalMillis", 15000);
+    private static final int VALIDATION_TIMEOUT_SECONDS =
+        AppConfig.getDbIntProperty("db.pool.validationTimeoutSeconds", 1);
+    // A DAO call can hold a couple of statements at once, so never let eviction go below that
+    private static final int STATEMENT_CACHE_SIZE =
+        Math.max(4, AppConfig.getDbIntProperty("db.pool.statementCacheSize", 64));
+    
+    private static final boolean MYSQL = String.valueOf(AppConfig.getDbUrl()).startsWith("jdbc:mysql:");
+    private static final int STREAMING_FETCH_SIZE = 500;
+    
+    private static final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private static final Map<Connection, PooledConnection> usedConnections = new ConcurrentHashMap<>();
+    private static final AtomicInteger idleCount = new AtomicInteger();
+    private static final AtomicInteger waitingCount = new AtomicInteger();
+    private static final Semaphore permits = new Semaphore(MAX_POOL_SIZE);
+    
+    private static final LongAdder validationsSkipped = new LongAdder();
+    private static final LongAdder validationsRun = new LongAdder();
+    private static final LongAdder validationsFailed = new LongAdder();
+    
+    private static final ScheduledExecutorService validator = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "db-pool-validator");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     static {
         try {
             Class.forName(AppConfig.getDbDriver());
             initializePool();
+            validator.scheduleWithFixedDelay(DatabaseConnection::validateIdleConnections,
+                VALIDATION_INTERVAL_MILLIS, VALIDATION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         } catch (ClassNotFoundException e) {
             logger.error("MySQL JDBC Driver not found", e);
             throw new RuntimeException("Failed to load database driver", e);
@@ -31,13 +88,20 @@ public class DatabaseConnection {
     }
     
     private static void initializePool() {
-        for (int i = 0; i < INITIAL_POOL_SIZE; i++) {
-            connectionPool.add(createConnection());
+        int size = Math.min(Math.max(INITIAL_POOL_SIZE, MIN_IDLE), MAX_POOL_SIZE);
+        try {
+            for (int i = 0; i < size; i++) {
+                idleConnections.offerFirst(new PooledConnection(createConnection(), STATEMENT_CACHE_SIZE));
+                idleCount.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create database connection", e);
         }
-        logger.info("Database connection pool initialized with {} connections", INITIAL_POOL_SIZE);
+        logger.info("Database connection pool initialized with {} connections (maxActive={}, maxWait={}ms)",
+            size, MAX_POOL_SIZE, MAX_WAIT_MILLIS);
     }
     
-    private static Connection createConnection() {
+    private static Connection createConnection() throws SQLException {
         try {
             return DriverManager.getConnection(
                 AppConfig.getDbUrl(),
@@ -46,51 +110,272 @@ public class DatabaseConnection {
             );
         } catch (SQLException e) {
             logger.error("Failed to create database connection", e);
-            throw new RuntimeException("Failed to create database connection", e);
+            throw e;
         }
     }
     
-    public static synchronized Connection getConnection() throws SQLException {
-        if (connectionPool.isEmpty()) {
-            if (usedConnections.size() < MAX_POOL_SIZE) {
-                connectionPool.add(createConnection());
-            } else {
-                throw new SQLException("Maximum pool size reached, no available connections");
+    /**
+     * Borrow a connection, waiting up to the configured maxWait when the pool is exhausted
+     */
+    public static Connection getConnection() throws SQLException {
+        // Only callers that actually have to wait count as waiting
+        boolean acquired = permits.tryAcquire();
+        if (!acquired) {
+            waitingCount.incrementAndGet();
+            try {
+                acquired = permits.tryAcquire(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            } finally {
+                waitingCount.decrementAndGet();
             }
         }
         
-        Connection connection = connectionPool.remove(connectionPool.size() - 1);
-        
-        // Check if connection is still valid
-        if (!connection.isValid(1)) {
-            connection = createConnection();
+        if (!acquired) {
+            throw new SQLException("Timed out after " + MAX_WAIT_MILLIS +
+                " ms waiting for a database connection");
         }
         
-        usedConnections.add(connection);
-        logger.debug("Connection retrieved from pool. Available: {}, Used: {}", 
-            connectionPool.size(), usedConnections.size());
-        
-        return connection;
+        try {
+            PooledConnection pooled = idleConnections.pollFirst();
+            if (pooled != null) {
+                idleCount.decrementAndGet();
+                pooled = checkOnBorrow(pooled);
+            }
+            
+            if (pooled == null) {
+                pooled = new PooledConnection(createConnection(), STATEMENT_CACHE_SIZE);
+            }
+            
+            usedConnections.put(pooled.getConnection(), pooled);
+            logger.debug("Connection retrieved from pool. Available: {}, Used: {}",
+                idleCount.get(), usedConnections.size());
+            
+            return pooled.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Recently used connections are handed out as-is; anything idle past the
+     * threshold that the background validator has not reached yet is checked here
+     */
+    private static PooledConnection checkOnBorrow(PooledConnection pooled) {
+        if (pooled.idleNanos(System.nanoTime()) < VALIDATION_IDLE_NANOS) {
+            validationsSkipped.increment();
+            return pooled;
+        }
+        return validate(pooled) ? pooled : null;
+    }
+    
+    private static boolean validate(PooledConnection pooled) {
+        validationsRun.increment();
+        try {
+            if (pooled.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                pooled.touch();
+                return true;
+            }
+        } catch (SQLException e) {
+            logger.debug("Connection validation failed", e);
+        }
+        validationsFailed.increment();
+        closeConnection(pooled.getConnection());
+        return false;
+    }
+    
+    /**
+     * Background pass: validate connections idle past the threshold and top the pool up to minIdle
+     */
+    private static void validateIdleConnections() {
+        try {
+            long now = System.nanoTime();
+            for (PooledConnection pooled : idleConnections) {
+                if (pooled.idleNanos(now) < VALIDATION_IDLE_NANOS) {
+                    continue;
+                }
+                // Only validate connections we manage to take off the stack; a borrower may have won the race
+                if (!idleConnections.remove(pooled)) {
+                    continue;
+                }
+                idleCount.decrementAndGet();
+                if (validate(pooled)) {
+                    idleConnections.offerLast(pooled);
+                    idleCount.incrementAndGet();
+                }
+            }
+            
+            // Each new connection is opened under a borrow permit, so it cannot race a borrower
+            // that is opening one of its own past maxActive; never waits for a permit
+            while (idleCount.get() < MIN_IDLE && idleCount.get() + usedConnections.size() < MAX_POOL_SIZE
+                    && permits.tryAcquire()) {
+                try {
+                    idleConnections.offerLast(new PooledConnection(createConnection(), STATEMENT_CACHE_SIZE));
+                    idleCount.incrementAndGet();
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Idle connection validation pass failed", e);
+        }
     }
     
-    public static synchronized boolean releaseConnection(Connection connection) {
+    /**
+     * Return a borrowed connection to the pool
+     */
+    public static boolean releaseConnection(Connection connection) {
         if (connection == null) {
             return false;
         }
         
-        connectionPool.add(connection);
-        boolean removed = usedConnections.remove(connection);
-        logger.debug("Connection returned to pool. Available: {}, Used: {}", 
-            connectionPool.size(), usedConnections.size());
+        PooledConnection pooled = usedConnections.remove(connection);
+        if (pooled == null) {
+            logger.warn("Attempted to release a connection that was not borrowed from the pool");
+            return false;
+        }
+        
+        try {
+            if (connection.isClosed() || idleCount.get() >= MAX_IDLE) {
+                closeConnection(connection);
+            } else {
+                pooled.touch();
+                idleConnections.offerFirst(pooled);
+                idleCount.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            closeConnection(connection);
+        } finally {
+            permits.release();
+        }
+        
+        logger.debug("Connection returned to pool. Available: {}, Used: {}",
+            idleCount.get(), usedConnections.size());
         
-        return removed;
+        return true;
+    }
+    
+    /**
+     * Prepare a statement through the connection's statement cache
+     */
+    public static PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        return prepareStatement(connection, sql, Statement.NO_GENERATED_KEYS);
+    }
+    
+    /**
+     * Prepare a statement through the connection's statement cache, optionally returning generated keys
+     */
+    public static PreparedStatement prepareStatement(Connection connection, String sql, int autoGeneratedKeys)
+            throws SQLException {
+        PooledConnection pooled = usedConnections.get(connection);
+        if (pooled == null) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return pooled.getStatementCache().prepare(connection, sql, autoGeneratedKeys);
+    }
+    
+    /**
+     * Prepare an uncached forward-only statement whose result set is streamed row by row
+     * (Connector/J streams when the fetch size is {@code Integer.MIN_VALUE}; other drivers
+     * reject that value and get a bounded fetch size instead). The connection can run
+     * nothing else until the result set is closed, so release it as soon as the rows are read.
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection connection, String sql)
+            throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql,
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(MYSQL ? Integer.MIN_VALUE : STREAMING_FETCH_SIZE);
+        return stmt;
+    }
+    
+    /**
+     * Release a statement obtained from {@link #prepareStatement}; cached statements stay open for reuse
+     */
+    public static void releaseStatement(Connection connection, PreparedStatement stmt) throws SQLException {
+        PooledConnection pooled = connection != null ? usedConnections.get(connection) : null;
+        if (pooled == null) {
+            stmt.close();
+        } else {
+            pooled.getStatementCache().release(stmt);
+        }
+    }
+    
+    /**
+     * Number of idle connections ready to be borrowed
+     */
+    public static int getIdleCount() {
+        return idleCount.get();
+    }
+    
+    /**
+     * Number of connections currently borrowed
+     */
+    public static int getUsedCount() {
+        return usedConnections.size();
+    }
+    
+    /**
+     * Number of threads currently waiting for a connection
+     */
+    public static int getWaitingCount() {
+        return waitingCount.get();
+    }
+    
+    /**
+     * Borrows that skipped validation because the connection was recently used
+     */
+    public static long getValidationsSkipped() {
+        return validationsSkipped.sum();
+    }
+    
+    /**
+     * Validation round-trips run, either on borrow or by the background validator
+     */
+    public static long getValidationsRun() {
+        return validationsRun.sum();
+    }
+    
+    /**
+     * Validations that found a dead connection
+     */
+    public static long getValidationsFailed() {
+        return validationsFailed.sum();
+    }
+    
+    /**
+     * Prepared statements served from a connection's statement cache
+     */
+    public static long getStatementCacheHits() {
+        return StatementCache.getHits();
+    }
+    
+    /**
+     * Prepared statements that had to be prepared on the connection
+     */
+    public static long getStatementCacheMisses() {
+        return StatementCache.getMisses();
+    }
+    
+    /**
+     * Prepared statements closed to make room in a full statement cache
+     */
+    public static long getStatementCacheEvictions() {
+        return StatementCache.getEvictions();
     }
     
     public static void shutdown() {
-        usedConnections.forEach(DatabaseConnection::closeConnection);
-        connectionPool.forEach(DatabaseConnection::closeConnection);
+        validator.shutdownNow();
+        
+        usedConnections.keySet().forEach(DatabaseConnection::closeConnection);
         usedConnections.clear();
-        connectionPool.clear();
+        
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            closeConnection(pooled.getConnection());
+        }
         logger.info("Database connection pool shut down");
     }
     
@@ -0,0 +1,37 @@
+package com.example.airportmanagement.db;
+
+import java.sql.Connection;
+
+/**
+ * Pool bookkeeping for a single physical connection
+ */
+class PooledConnection {
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private volatile long lastUsedNanos;
+    
+    PooledConnection(Connection connection, int statementCacheSize) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(statementCacheSize);
+        touch();
+    }
+    
+    Connection getConnection() {
+        return connection;
+    }
+    
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+    
+    /**
+     * Mark the connection as known-good as of now
+     */
+    void touch() {
+        this.lastUsedNanos = System.nanoTime();
+    }
+    
+    long idleNanos(long now) {
+        return now - lastUsedNanos;
+    }
+}
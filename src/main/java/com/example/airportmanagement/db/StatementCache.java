@@ -0,0 +1,106 @@
+package com.example.airportmanagement.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for a single pooled connection.
+ *
+ * Not thread-safe: a pooled connection is only ever used by the thread that
+ * borrowed it, and the cache lives and dies with that connection.
+ */
+class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+    
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+    
+    private final Map<String, PreparedStatement> statements;
+    private final Map<PreparedStatement, String> cachedKeys = new IdentityHashMap<>();
+    
+    StatementCache(int maxSize) {
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                cachedKeys.remove(eldest.getValue());
+                evictions.increment();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+    
+    /**
+     * Return the cached statement for this SQL, preparing and caching it on a miss
+     */
+    PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        PreparedStatement stmt = statements.get(key);
+        
+        if (stmt != null && !stmt.isClosed()) {
+            hits.increment();
+            return stmt;
+        }
+        
+        misses.increment();
+        if (stmt != null) {
+            // Closed behind our back; its replacement takes over the key
+            cachedKeys.remove(stmt);
+        }
+        stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, stmt);
+        cachedKeys.put(stmt, key);
+        return stmt;
+    }
+    
+    /**
+     * Hand a statement back; cached statements stay open, anything else is closed
+     */
+    void release(PreparedStatement stmt) throws SQLException {
+        if (cachedKeys.containsKey(stmt) && !stmt.isClosed()) {
+            stmt.clearParameters();
+            stmt.clearBatch();
+        } else {
+            stmt.close();
+        }
+    }
+    
+    /**
+     * Statements currently cached
+     */
+    int size() {
+        return cachedKeys.size();
+    }
+    
+    static long getHits() {
+        return hits.sum();
+    }
+    
+    static long getMisses() {
+        return misses.sum();
+    }
+    
+    static long getEvictions() {
+        return evictions.sum();
+    }
+    
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close evicted statement", e);
+        }
+    }
+}
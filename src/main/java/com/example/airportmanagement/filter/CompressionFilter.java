@@ -0,0 +1,112 @@
+package com.example.airportmanagement.filter;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.controller.BaseServlet;
+import com.example.airportmanagement.metrics.MetricsRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Gzip for API responses ({@code compression.enabled}).
+ *
+ * JSON bodies larger than {@code compression.minSizeBytes} are compressed
+ * for clients that accept gzip, with deflaters taken from a pool rather than
+ * created per response (see {@link GzipResponseWrapper}). Every response
+ * passing through gets {@code Vary: Accept-Encoding}. The event stream is
+ * not filtered: it is written with non-blocking I/O and its frames are small.
+ *
+ * Mapped in web.xml, inside {@link VirtualThreadFilter}. A response handed
+ * off to another thread ({@link BaseServlet#ASYNC_HANDOFF_ATTRIBUTE}) is
+ * left open here and finished when the handler closes it.
+ */
+@WebFilter(filterName = "CompressionFilter", asyncSupported = true)
+public class CompressionFilter implements Filter {
+    private static final boolean ENABLED = AppConfig.getAppBooleanProperty("compression.enabled", true);
+    private static final int MIN_SIZE = AppConfig.getAppIntProperty("compression.minSizeBytes", 1024);
+    private static final int LEVEL = AppConfig.getAppIntProperty("compression.level", 6);
+    private static final int POOL_SIZE = AppConfig.getAppIntProperty("compression.deflaterPoolSize", 64);
+    
+    private DeflaterPool pool;
+    
+    @Override
+    public void init(FilterConfig filterConfig) {
+        if (ENABLED) {
+            pool = new DeflaterPool(POOL_SIZE, LEVEL);
+            MetricsRegistry.getInstance().gauge("compression_deflaters_idle",
+                "Deflaters waiting in the pool", pool::idleCount);
+        }
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (pool == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        if (!acceptsGzip(httpRequest) || "HEAD".equals(httpRequest.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        GzipResponseWrapper wrapper = new GzipResponseWrapper(httpResponse, pool, MIN_SIZE);
+        try {
+            chain.doFilter(request, wrapper);
+            // A handler handed off to an executor is still writing; the body is finished when it
+            // closes the stream, as every JSON send in BaseServlet does
+            if (request.getAttribute(BaseServlet.ASYNC_HANDOFF_ATTRIBUTE) == null) {
+                wrapper.finish();
+            }
+        } finally {
+            if (request.getAttribute(BaseServlet.ASYNC_HANDOFF_ATTRIBUTE) == null) {
+                // No-op after finish; after a failure the deflater goes back to the pool
+                wrapper.abandon();
+            }
+        }
+    }
+    
+    /**
+     * Whether Accept-Encoding allows gzip: listed, or covered by *, and not with q=0
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader("Accept-Encoding");
+        if (header == null) {
+            return false;
+        }
+        boolean accepted = false;
+        for (String part : header.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equals("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            if (coding.equals("gzip")) {
+                // An explicit gzip entry overrides *
+                return !refused;
+            }
+            accepted = !refused;
+        }
+        return accepted;
+    }
+}
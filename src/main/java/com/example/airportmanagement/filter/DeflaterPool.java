@@ -0,0 +1,41 @@
+package com.example.airportmanagement.filter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Reusable raw {@link Deflater}s. A deflater holds a few hundred KB of
+ * native memory that is only released by {@link Deflater#end()}, so
+ * creating one per response costs more than compressing a small body.
+ * Borrowing never waits: when the pool is empty a new deflater is made, and
+ * one returned to a full pool is ended.
+ */
+final class DeflaterPool {
+    private final BlockingQueue<Deflater> idle;
+    private final int level;
+    
+    DeflaterPool(int size, int level) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, size));
+        this.level = level;
+    }
+    
+    /**
+     * A deflater producing raw deflate data, without zlib header or checksum
+     */
+    Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+    
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+    
+    int idleCount() {
+        return idle.size();
+    }
+}
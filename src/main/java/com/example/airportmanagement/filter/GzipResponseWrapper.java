@@ -0,0 +1,280 @@
+package com.example.airportmanagement.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Response that gzips a JSON body once it is known to be worth it.
+ *
+ * The first {@code minSize} bytes are held back. A body that ends within
+ * them is sent as is, with its Content-Length; one that grows past them, or
+ * is pushed out early with {@code flushBuffer} because it is streamed, is
+ * sent gzipped from the start.
+ * Compression uses a pooled deflater with sync flushes, so a streamed
+ * response still reaches the client as it is flushed. A strong ETag on a
+ * compressed body is made weak, which If-None-Match still matches.
+ */
+final class GzipResponseWrapper extends HttpServletResponseWrapper {
+    // Magic, CM=deflate, no flags, no mtime, XFL=0, OS=unknown
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    
+    private final DeflaterPool pool;
+    private final GzipStream stream;
+    private PrintWriter writer;
+    
+    GzipResponseWrapper(HttpServletResponse response, DeflaterPool pool, int minSize) {
+        super(response);
+        this.pool = pool;
+        this.stream = new GzipStream(minSize);
+    }
+    
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return stream;
+    }
+    
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(stream, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+    
+    @Override
+    public void setContentLength(int length) {
+        // The length on the wire is decided when the body is
+    }
+    
+    @Override
+    public void setContentLengthLong(long length) {
+    }
+    
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        stream.flushNow();
+    }
+    
+    @Override
+    public void resetBuffer() {
+        stream.discard();
+        super.resetBuffer();
+    }
+    
+    @Override
+    public void reset() {
+        stream.discard();
+        super.reset();
+    }
+    
+    /**
+     * Send whatever is held back and end the gzip member; the container closes the response
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        stream.finish();
+    }
+    
+    /**
+     * Give the deflater back if the response failed before {@link #finish}; nothing more is sent
+     */
+    void abandon() {
+        stream.abandon();
+    }
+    
+    /**
+     * Compress only JSON that nothing else has encoded, and only responses that have a body
+     */
+    private boolean isCompressible() {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        String type = response.getContentType();
+        int status = response.getStatus();
+        return type != null && type.startsWith("application/json")
+            && !response.containsHeader("Content-Encoding")
+            && status != HttpServletResponse.SC_NO_CONTENT && status != HttpServletResponse.SC_NOT_MODIFIED;
+    }
+    
+    private final class GzipStream extends ServletOutputStream {
+        private final byte[] held;
+        private int count;
+        private ServletOutputStream out;
+        private Deflater deflater;
+        private DeflaterOutputStream deflating;
+        private CRC32 crc;
+        private boolean finished;
+        
+        GzipStream(int minSize) {
+            this.held = new byte[Math.max(1, minSize)];
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (finished) {
+                throw new IOException("Response already finished");
+            }
+            if (out == null) {
+                if (count + length <= held.length) {
+                    System.arraycopy(bytes, offset, held, count, length);
+                    count += length;
+                    return;
+                }
+                start(true);
+            }
+            send(bytes, offset, length);
+        }
+        
+        /**
+         * Push out what has been sent so far. Held-back bytes stay held: Jackson and
+         * writers flush after every value, which says nothing about the body's size.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (finished || out == null) {
+                return;
+            }
+            if (deflating != null) {
+                deflating.flush();
+            } else {
+                out.flush();
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            finish();
+            getResponse().getOutputStream().close();
+        }
+        
+        /**
+         * Flush for {@code flushBuffer}: a body flushed to the client before it is
+         * complete is being streamed, so it is compressed whatever its size so far
+         */
+        void flushNow() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (out == null) {
+                start(true);
+            }
+            flush();
+        }
+        
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (out == null) {
+                start(false);
+            }
+            finished = true;
+            if (deflating != null) {
+                try {
+                    deflating.finish();
+                    writeTrailer();
+                } finally {
+                    pool.release(deflater);
+                    deflater = null;
+                }
+            }
+            out.flush();
+        }
+        
+        void abandon() {
+            finished = true;
+            if (deflater != null) {
+                pool.release(deflater);
+                deflater = null;
+            }
+        }
+        
+        /**
+         * Drop held-back bytes after a reset; nothing has been sent yet
+         */
+        void discard() {
+            if (out == null) {
+                count = 0;
+            }
+        }
+        
+        /**
+         * Decide how the body goes out and send what was held back
+         */
+        private void start(boolean large) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (large && isCompressible()) {
+                response.setHeader("Content-Encoding", "gzip");
+                // A strong tag names one exact byte sequence; the gzipped body is a different one
+                String etag = response.getHeader("ETag");
+                if (etag != null && etag.startsWith("\"")) {
+                    response.setHeader("ETag", "W/" + etag);
+                }
+                out = response.getOutputStream();
+                out.write(GZIP_HEADER);
+                deflater = pool.borrow();
+                crc = new CRC32();
+                deflating = new DeflaterOutputStream(out, deflater, 8192, true);
+            } else {
+                if (!large && count > 0) {
+                    response.setContentLength(count);
+                }
+                out = response.getOutputStream();
+            }
+            send(held, 0, count);
+            count = 0;
+        }
+        
+        private void send(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            if (deflating != null) {
+                crc.update(bytes, offset, length);
+                deflating.write(bytes, offset, length);
+            } else {
+                out.write(bytes, offset, length);
+            }
+        }
+        
+        private void writeTrailer() throws IOException {
+            writeIntLE((int) crc.getValue());
+            writeIntLE((int) deflater.getBytesRead());
+        }
+        
+        private void writeIntLE(int value) throws IOException {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+        
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new IllegalStateException("Non-blocking writes are not supported on compressed responses");
+        }
+    }
+}
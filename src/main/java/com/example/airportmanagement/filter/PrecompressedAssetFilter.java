@@ -0,0 +1,77 @@
+package com.example.airportmanagement.filter;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the {@code .gz} twin of a static asset, written at build time, to
+ * clients that accept gzip.
+ *
+ * The twin is forwarded to the container's default servlet, so caching
+ * headers, conditional requests and zero-copy sends work as for any static
+ * file; only Content-Type (the original file's) and Content-Encoding are
+ * set here. Assets without a twin, as under {@code mvn jetty:run}, which
+ * serves the source tree, are served as usual. Nothing is compressed at
+ * request time.
+ */
+@WebFilter(filterName = "PrecompressedAssetFilter", urlPatterns = {"/assets/*"})
+public class PrecompressedAssetFilter implements Filter {
+    private ServletContext context;
+    // Whether each asset path has a .gz twin; the war does not change while deployed
+    private final Map<String, Boolean> hasTwin = new ConcurrentHashMap<>();
+    
+    @Override
+    public void init(FilterConfig filterConfig) {
+        context = filterConfig.getServletContext();
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String path = httpRequest.getServletPath() + (httpRequest.getPathInfo() != null ? httpRequest.getPathInfo() : "");
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        
+        String contentType = context.getMimeType(path);
+        if (!CompressionFilter.acceptsGzip(httpRequest) || contentType == null || !hasTwin(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        httpResponse.setContentType(contentType);
+        httpResponse.setHeader("Content-Encoding", "gzip");
+        RequestDispatcher twin = context.getRequestDispatcher(path + ".gz");
+        twin.forward(request, new HttpServletResponseWrapper(httpResponse) {
+            @Override
+            public void setContentType(String type) {
+                // The default servlet would label the twin application/gzip
+            }
+        });
+    }
+    
+    private boolean hasTwin(String path) {
+        return hasTwin.computeIfAbsent(path, key -> {
+            try {
+                return context.getResource(key + ".gz") != null;
+            } catch (MalformedURLException e) {
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.airportmanagement.filter;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.controller.BaseServlet;
+import com.example.airportmanagement.metrics.MetricsRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in virtual-thread request execution ({@code virtualThreads.enabled}).
+ *
+ * Each API request is put into async mode and handled, servlet and DAO calls
+ * included, on a new virtual thread; the container thread goes back to its
+ * pool at once. A request blocked on JDBC then holds only a virtual thread,
+ * so concurrency is bounded by the connection pool rather than the
+ * container's thread pool. When disabled the filter passes requests straight
+ * through.
+ *
+ * Mapped in web.xml, as the outermost API filter. Filters outside it still
+ * see the request marked with {@link BaseServlet#ASYNC_HANDOFF_ATTRIBUTE}
+ * when it returns, since the response is written on the virtual thread.
+ * Inside, the mark only appears if a servlet hands the request on again.
+ */
+@WebFilter(filterName = "VirtualThreadFilter", asyncSupported = true)
+public class VirtualThreadFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadFilter.class);
+    
+    private static final boolean ENABLED = AppConfig.getAppBooleanProperty("virtualThreads.enabled", false);
+    private static final long TIMEOUT_MILLIS =
+        AppConfig.getAppIntProperty("virtualThreads.requestTimeoutMillis", 60000);
+    
+    private final boolean enabled;
+    private final AtomicInteger active = new AtomicInteger();
+    private ExecutorService executor;
+    
+    public VirtualThreadFilter() {
+        this(ENABLED);
+    }
+    
+    VirtualThreadFilter(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public void init(FilterConfig filterConfig) {
+        if (enabled) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 0).factory());
+            MetricsRegistry.getInstance().gauge("virtual_thread_requests_active",
+                "Requests being handled on virtual threads", active::get);
+            logger.info("Handling API requests on virtual threads");
+        }
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (executor == null || request.getDispatcherType() != DispatcherType.REQUEST
+                || request.isAsyncStarted()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        // Set before the virtual thread starts, so no outer filter can miss it
+        request.setAttribute(BaseServlet.ASYNC_HANDOFF_ATTRIBUTE, Boolean.TRUE);
+        AsyncContext async = request.startAsync(new HandoffScope((HttpServletRequest) request), response);
+        async.setTimeout(TIMEOUT_MILLIS);
+        active.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                chain.doFilter(async.getRequest(), async.getResponse());
+            } catch (Exception e) {
+                logger.error("Error handling request on virtual thread", e);
+                HttpServletResponse httpResponse = (HttpServletResponse) async.getResponse();
+                if (!httpResponse.isCommitted()) {
+                    httpResponse.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            } finally {
+                active.decrementAndGet();
+                // A handler that handed the request on to its own executor completes it there
+                if (async.getRequest().getAttribute(BaseServlet.ASYNC_HANDOFF_ATTRIBUTE) == null) {
+                    try {
+                        async.complete();
+                    } catch (IllegalStateException e) {
+                        // Already completed by the container after the async timeout
+                        logger.warn("Request finished after the {} ms async timeout", TIMEOUT_MILLIS);
+                    }
+                }
+            }
+        });
+    }
+    
+    /**
+     * The request as seen on the virtual thread: the handoff mark set for outer
+     * filters is hidden, and one set by a servlet in here is kept to itself
+     */
+    private static final class HandoffScope extends HttpServletRequestWrapper {
+        private volatile Object handoff;
+        
+        HandoffScope(HttpServletRequest request) {
+            super(request);
+        }
+        
+        @Override
+        public Object getAttribute(String name) {
+            return BaseServlet.ASYNC_HANDOFF_ATTRIBUTE.equals(name) ? handoff : super.getAttribute(name);
+        }
+        
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (BaseServlet.ASYNC_HANDOFF_ATTRIBUTE.equals(name)) {
+                handoff = value;
+            } else {
+                super.setAttribute(name, value);
+            }
+        }
+        
+        @Override
+        public void removeAttribute(String name) {
+            if (BaseServlet.ASYNC_HANDOFF_ATTRIBUTE.equals(name)) {
+                handoff = null;
+            } else {
+                super.removeAttribute(name);
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
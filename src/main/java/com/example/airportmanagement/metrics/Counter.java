@@ -0,0 +1,25 @@
+package com.example.airportmanagement.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count, exported as a Prometheus counter
+ */
+public class Counter {
+    private final LongAdder count = new LongAdder();
+    
+    Counter() {
+    }
+    
+    public void increment() {
+        count.increment();
+    }
+    
+    public void increment(long amount) {
+        count.add(amount);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+}
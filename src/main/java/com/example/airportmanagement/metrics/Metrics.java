@@ -0,0 +1,142 @@
+package com.example.airportmanagement.metrics;
+
+import com.example.airportmanagement.dao.AirportCache;
+import com.example.airportmanagement.db.DatabaseConnection;
+import com.example.airportmanagement.service.DashboardCache;
+import com.example.airportmanagement.service.FlightGraph;
+import com.example.airportmanagement.service.FlightSearchCache;
+import com.example.airportmanagement.service.FlightTimetable;
+import com.example.airportmanagement.service.SeatInventory;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The application's metrics: names, labels and the components they observe.
+ * Request and DAO timers and service exception counters are recorded by the
+ * code they measure; gauges over the pool and caches are registered once at
+ * startup by {@link #registerGauges()}.
+ */
+public final class Metrics {
+    private static final MetricsRegistry registry = MetricsRegistry.getInstance();
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    
+    private static final String REQUEST_TIMER = "http_server_requests_seconds";
+    private static final String REQUEST_TIMER_HELP = "Servlet request handling time";
+    private static final String DAO_TIMER = "dao_call_seconds";
+    private static final String DAO_TIMER_HELP = "DAO method time, including waiting for a connection";
+    private static final String SERVICE_EXCEPTIONS = "service_exceptions_total";
+    private static final String SERVICE_EXCEPTIONS_HELP =
+        "Service exceptions by service and kind (rejected: invalid or disallowed request; failed: underlying error)";
+    
+    private Metrics() {
+    }
+    
+    /**
+     * Time one request. Numeric path segments are folded into {id}; a path
+     * that is not one of the servlet's routes is recorded as "other", and any
+     * 404 as "unmatched", so the number of series stays bounded whatever
+     * paths clients send.
+     */
+    public static void recordRequest(String servlet, String method, String pathInfo, Set<String> routes,
+            int status, long startNanos) {
+        String route;
+        if (status == 404) {
+            route = "unmatched";
+        } else if (pathInfo == null || pathInfo.isEmpty()) {
+            route = "/";
+        } else {
+            route = ID_SEGMENT.matcher(pathInfo).replaceAll("/{id}");
+        }
+        if (!"unmatched".equals(route) && !routes.contains(route)) {
+            route = "other";
+        }
+        registry.timer(REQUEST_TIMER, REQUEST_TIMER_HELP,
+            "servlet", servlet, "method", method, "route", route, "status", String.valueOf(status))
+            .recordSince(startNanos);
+    }
+    
+    /**
+     * Time one DAO call, from before the connection is acquired to after it is released
+     */
+    public static void recordDao(String dao, String method, long startNanos) {
+        registry.timer(DAO_TIMER, DAO_TIMER_HELP, "dao", dao, "method", method).recordSince(startNanos);
+    }
+    
+    public static void countServiceException(String service, String kind) {
+        registry.counter(SERVICE_EXCEPTIONS, SERVICE_EXCEPTIONS_HELP, "service", service, "kind", kind)
+            .increment();
+    }
+    
+    /**
+     * Register gauges over the connection pool, the caches and, when enabled, the seat inventory
+     */
+    public static void registerGauges() {
+        registry.gauge("db_pool_connections", "Pooled connections by state",
+            DatabaseConnection::getIdleCount, "state", "idle");
+        registry.gauge("db_pool_connections", "Pooled connections by state",
+            DatabaseConnection::getUsedCount, "state", "used");
+        registry.gauge("db_pool_waiting_threads", "Threads waiting for a connection",
+            DatabaseConnection::getWaitingCount);
+        registry.counter("db_pool_validations_total", "Idle connection validations by outcome",
+            DatabaseConnection::getValidationsRun, "outcome", "run");
+        registry.counter("db_pool_validations_total", "Idle connection validations by outcome",
+            DatabaseConnection::getValidationsSkipped, "outcome", "skipped");
+        registry.counter("db_pool_validations_total", "Idle connection validations by outcome",
+            DatabaseConnection::getValidationsFailed, "outcome", "failed");
+        registry.counter("db_statement_cache_total", "Prepared statement cache lookups and evictions",
+            DatabaseConnection::getStatementCacheHits, "result", "hit");
+        registry.counter("db_statement_cache_total", "Prepared statement cache lookups and evictions",
+            DatabaseConnection::getStatementCacheMisses, "result", "miss");
+        registry.counter("db_statement_cache_total", "Prepared statement cache lookups and evictions",
+            DatabaseConnection::getStatementCacheEvictions, "result", "eviction");
+        
+        FlightSearchCache searchCache = FlightSearchCache.getInstance();
+        registry.counter("flight_search_cache_requests_total", "Flight search cache lookups by result",
+            searchCache::getHitCount, "result", "hit");
+        registry.counter("flight_search_cache_requests_total", "Flight search cache lookups by result",
+            searchCache::getMissCount, "result", "miss");
+        registry.counter("flight_search_cache_evictions_total", "Entries removed for size or age",
+            searchCache::getEvictionCount);
+        registry.counter("flight_search_cache_invalidations_total", "Entries removed by writes",
+            searchCache::getInvalidationCount);
+        registry.counter("flight_search_cache_load_seconds_total", "Time spent running searches on a miss",
+            () -> searchCache.getTotalLoadTimeNanos() / 1e9);
+        registry.gauge("flight_search_cache_size", "Cached search results", searchCache::size);
+        
+        AirportCache airportCache = AirportCache.getInstance();
+        registry.counter("airport_cache_requests_total", "Airport cache lookups by result",
+            airportCache::getHitCount, "result", "hit");
+        registry.counter("airport_cache_requests_total", "Airport cache lookups by result",
+            airportCache::getMissCount, "result", "miss");
+        registry.gauge("airport_cache_size", "Cached airports", airportCache::size);
+        registry.gauge("airport_search_index_words", "Distinct words in the airport search index",
+            airportCache::getSearchWordCount);
+        
+        DashboardCache dashboardCache = DashboardCache.getInstance();
+        registry.counter("dashboard_cache_requests_total", "Dashboard summary cache lookups by result",
+            dashboardCache::getHitCount, "result", "hit");
+        registry.counter("dashboard_cache_requests_total", "Dashboard summary cache lookups by result",
+            dashboardCache::getMissCount, "result", "miss");
+        registry.gauge("dashboard_cache_size", "Cached dashboard summaries", dashboardCache::size);
+        
+        registry.gauge("flight_graph_flights", "Flights in the connection search graph",
+            FlightGraph.getInstance()::size);
+        registry.gauge("flight_table_rows", "Flights in the in-memory flight table",
+            FlightTimetable.getInstance()::size);
+        registry.gauge("flight_table_age_seconds", "Age of the in-memory flight table snapshot",
+            FlightTimetable.getInstance()::getAgeSeconds);
+        
+        if (SeatInventory.isEnabled()) {
+            SeatInventory inventory = SeatInventory.getInstance();
+            registry.counter("seat_inventory_holds_total", "Seat holds by outcome",
+                inventory::getHoldsGranted, "outcome", "granted");
+            registry.counter("seat_inventory_holds_total", "Seat holds by outcome",
+                inventory::getHoldsDenied, "outcome", "denied");
+            registry.counter("seat_inventory_drift_corrections_total", "Counters corrected by reconciliation",
+                inventory::getDriftCorrections);
+            registry.gauge("seat_inventory_flights", "Flights held in the seat inventory",
+                inventory::getCachedFlightCount);
+        }
+    }
+}
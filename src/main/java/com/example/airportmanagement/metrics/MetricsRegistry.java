@@ -0,0 +1,196 @@
+package com.example.airportmanagement.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Named timers, counters and gauges with labels, written out in the
+ * Prometheus text exposition format (version 0.0.4).
+ *
+ * A metric is identified by its name and label values; asking for the same
+ * one twice returns the same instance, so callers may look metrics up on
+ * every use or keep them in fields. Gauges and function counters read their
+ * value from a supplier when the registry is scraped.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry instance = new MetricsRegistry();
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+        
+        final String text;
+        
+        Type(String text) {
+            this.text = text;
+        }
+    }
+    
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        // Label set ("a=\"x\",b=\"y\"") -> Timer, Counter or DoubleSupplier
+        final Map<String, Object> series = new ConcurrentSkipListMap<>();
+        
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+    
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+    
+    MetricsRegistry() {
+    }
+    
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+    
+    /**
+     * Timer for the name and label pairs ({@code "key", "value", ...}), created on first use
+     */
+    public Timer timer(String name, String help, String... labels) {
+        return (Timer) family(name, help, Type.HISTOGRAM).series
+            .computeIfAbsent(labelSet(labels), key -> new Timer());
+    }
+    
+    /**
+     * Counter for the name and label pairs, created on first use
+     */
+    public Counter counter(String name, String help, String... labels) {
+        Object counter = family(name, help, Type.COUNTER).series
+            .computeIfAbsent(labelSet(labels), key -> new Counter());
+        if (!(counter instanceof Counter)) {
+            throw new IllegalArgumentException(name + " is registered as a function counter");
+        }
+        return (Counter) counter;
+    }
+    
+    /**
+     * Counter whose value is kept elsewhere, e.g. a component's own statistics
+     */
+    public void counter(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.COUNTER).series.put(labelSet(labels), value);
+    }
+    
+    /**
+     * Gauge read from the supplier at scrape time; registering it again replaces the supplier
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(labelSet(labels), value);
+    }
+    
+    /**
+     * Write every metric in the Prometheus text format
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        StringBuilder sb = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            if (family.series.isEmpty()) {
+                continue;
+            }
+            writeHeader(sb, family.name, family.help, family.type);
+            if (family.type == Type.HISTOGRAM) {
+                writeHistogram(sb, family);
+            } else {
+                for (Map.Entry<String, Object> entry : family.series.entrySet()) {
+                    writeSample(sb, family.name, entry.getKey(), valueOf(entry.getValue()));
+                }
+            }
+            out.write(sb.toString());
+            sb.setLength(0);
+        }
+        out.flush();
+    }
+    
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException(name + " is already registered as a " + family.type.text);
+        }
+        return family;
+    }
+    
+    private static void writeHistogram(StringBuilder sb, Family family) {
+        for (Map.Entry<String, Object> entry : family.series.entrySet()) {
+            Timer timer = (Timer) entry.getValue();
+            String labels = entry.getKey();
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long[] counts = timer.cumulativeBucketCounts();
+            for (int i = 0; i < Timer.BUCKET_SECONDS.length; i++) {
+                writeSample(sb, family.name + "_bucket",
+                    prefix + "le=\"" + Timer.BUCKET_SECONDS[i] + "\"", counts[i]);
+            }
+            long count = counts[counts.length - 1];
+            writeSample(sb, family.name + "_bucket", prefix + "le=\"+Inf\"", count);
+            writeSample(sb, family.name + "_sum", labels, timer.getTotalTimeNanos() / NANOS_PER_SECOND);
+            writeSample(sb, family.name + "_count", labels, count);
+        }
+        
+        writeHeader(sb, family.name + "_max", "Maximum of " + family.name + " since startup", Type.GAUGE);
+        for (Map.Entry<String, Object> entry : family.series.entrySet()) {
+            Timer timer = (Timer) entry.getValue();
+            writeSample(sb, family.name + "_max", entry.getKey(), timer.getMaxNanos() / NANOS_PER_SECOND);
+        }
+    }
+    
+    private static double valueOf(Object series) {
+        if (series instanceof Counter) {
+            return ((Counter) series).getCount();
+        }
+        try {
+            return ((DoubleSupplier) series).getAsDouble();
+        } catch (RuntimeException e) {
+            // A failing gauge must not break the whole scrape
+            return Double.NaN;
+        }
+    }
+    
+    private static void writeHeader(StringBuilder sb, String name, String help, Type type) {
+        sb.append("# HELP ").append(name).append(' ')
+            .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type.text).append('\n');
+    }
+    
+    private static void writeSample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ');
+        if (Double.isNaN(value)) {
+            sb.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            sb.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+    
+    private static String labelSet(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name/value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            String value = labels[i + 1] != null ? labels[i + 1] : "";
+            sb.append(labels[i]).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.airportmanagement.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed buckets, exported as a Prometheus histogram
+ * plus a {@code _max} gauge. Recording is lock-free.
+ */
+public class Timer {
+    // Upper bounds in seconds, as exported in the le label
+    static final double[] BUCKET_SECONDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BUCKET_NANOS = new long[BUCKET_SECONDS.length];
+    
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKET_SECONDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+    
+    // The last slot counts values above the highest bound
+    private final LongAdder[] buckets = new LongAdder[BUCKET_NANOS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    
+    Timer() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int i = 0;
+        while (i < BUCKET_NANOS.length && nanos > BUCKET_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+    
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} reading
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public long getTotalTimeNanos() {
+        return totalNanos.sum();
+    }
+    
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+    
+    /**
+     * Cumulative count of values at or below each bucket bound, then the total
+     */
+    long[] cumulativeBucketCounts() {
+        long[] counts = new long[buckets.length];
+        long sum = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            sum += buckets[i].sum();
+            counts[i] = sum;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.airportmanagement.model;
+
+import java.util.List;
+
+/**
+ * Counts and most recent bookings shown on one user's dashboard
+ */
+public class DashboardSummary {
+    private int totalFlights;
+    private int totalAirports;
+    private int myBookings;
+    private List<Booking> recentBookings;
+    
+    // Constructors
+    public DashboardSummary() {}
+    
+    public DashboardSummary(int totalFlights, int totalAirports, int myBookings, List<Booking> recentBookings) {
+        this.totalFlights = totalFlights;
+        this.totalAirports = totalAirports;
+        this.myBookings = myBookings;
+        this.recentBookings = recentBookings;
+    }
+    
+    // Getters and Setters
+    public int getTotalFlights() {
+        return totalFlights;
+    }
+    
+    public void setTotalFlights(int totalFlights) {
+        this.totalFlights = totalFlights;
+    }
+    
+    public int getTotalAirports() {
+        return totalAirports;
+    }
+    
+    public void setTotalAirports(int totalAirports) {
+        this.totalAirports = totalAirports;
+    }
+    
+    public int getMyBookings() {
+        return myBookings;
+    }
+    
+    public void setMyBookings(int myBookings) {
+        this.myBookings = myBookings;
+    }
+    
+    /**
+     * The user's newest bookings, newest first
+     */
+    public List<Booking> getRecentBookings() {
+        return recentBookings;
+    }
+    
+    public void setRecentBookings(List<Booking> recentBookings) {
+        this.recentBookings = recentBookings;
+    }
+}
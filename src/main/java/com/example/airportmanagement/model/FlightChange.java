@@ -0,0 +1,181 @@
+package com.example.airportmanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to the flight timetable, as published on the change bus.
+ *
+ * Only the fields the change touched are set; the rest stay null. Seat
+ * changes always carry {@code seatsDelta} and carry {@code seatsAvailable}
+ * only when the new count is known without a read (the seat inventory).
+ * {@code RELOAD} means too much changed at once (an import, an airport
+ * deletion) and clients should fetch the listing again.
+ */
+public class FlightChange {
+    private long id;
+    private Type type;
+    private Long flightId;
+    private String flightNumber;
+    private Long sourceAirportId;
+    private Long destinationAirportId;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private Integer seatsAvailable;
+    private Integer seatsDelta;
+    private Double price;
+    private Flight.FlightStatus status;
+    
+    public enum Type {
+        CREATED, SCHEDULE, STATUS, SEATS, REMOVED, RELOAD
+    }
+    
+    // Constructors
+    public FlightChange() {}
+    
+    private FlightChange(Type type, Long flightId) {
+        this.type = type;
+        this.flightId = flightId;
+    }
+    
+    /**
+     * A new flight, or an edited one: every field of the timetable row
+     */
+    private static FlightChange ofFlight(Type type, Flight flight) {
+        FlightChange change = new FlightChange(type, flight.getId());
+        change.flightNumber = flight.getFlightNumber();
+        change.sourceAirportId = flight.getSourceAirportId();
+        change.destinationAirportId = flight.getDestinationAirportId();
+        change.departureTime = flight.getDepartureTime();
+        change.arrivalTime = flight.getArrivalTime();
+        change.seatsAvailable = flight.getSeatsAvailable();
+        change.price = flight.getPrice();
+        change.status = flight.getStatus();
+        return change;
+    }
+    
+    public static FlightChange created(Flight flight) {
+        return ofFlight(Type.CREATED, flight);
+    }
+    
+    public static FlightChange schedule(Flight flight) {
+        return ofFlight(Type.SCHEDULE, flight);
+    }
+    
+    public static FlightChange status(Long flightId, Flight.FlightStatus status) {
+        FlightChange change = new FlightChange(Type.STATUS, flightId);
+        change.status = status;
+        return change;
+    }
+    
+    public static FlightChange seats(Long flightId, int seatsDelta, Integer seatsAvailable) {
+        FlightChange change = new FlightChange(Type.SEATS, flightId);
+        change.seatsDelta = seatsDelta;
+        change.seatsAvailable = seatsAvailable;
+        return change;
+    }
+    
+    public static FlightChange removed(Long flightId) {
+        return new FlightChange(Type.REMOVED, flightId);
+    }
+    
+    public static FlightChange reload() {
+        return new FlightChange(Type.RELOAD, null);
+    }
+    
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+    
+    public void setId(long id) {
+        this.id = id;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+    
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+    
+    public Long getSourceAirportId() {
+        return sourceAirportId;
+    }
+    
+    public void setSourceAirportId(Long sourceAirportId) {
+        this.sourceAirportId = sourceAirportId;
+    }
+    
+    public Long getDestinationAirportId() {
+        return destinationAirportId;
+    }
+    
+    public void setDestinationAirportId(Long destinationAirportId) {
+        this.destinationAirportId = destinationAirportId;
+    }
+    
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+    
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+    
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+    
+    public void setArrivalTime(LocalDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+    
+    public Integer getSeatsAvailable() {
+        return seatsAvailable;
+    }
+    
+    public void setSeatsAvailable(Integer seatsAvailable) {
+        this.seatsAvailable = seatsAvailable;
+    }
+    
+    public Integer getSeatsDelta() {
+        return seatsDelta;
+    }
+    
+    public void setSeatsDelta(Integer seatsDelta) {
+        this.seatsDelta = seatsDelta;
+    }
+    
+    public Double getPrice() {
+        return price;
+    }
+    
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+    
+    public Flight.FlightStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Flight.FlightStatus status) {
+        this.status = status;
+    }
+}
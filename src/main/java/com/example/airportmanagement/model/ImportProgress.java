@@ -0,0 +1,88 @@
+package com.example.airportmanagement.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running totals of a bulk import, with the rows rejected since the last report
+ */
+public class ImportProgress {
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<ImportError> errors = new ArrayList<>();
+    
+    /**
+     * A row that could not be imported, by its line number in the upload
+     */
+    public static class ImportError {
+        private long line;
+        private String error;
+        
+        public ImportError() {}
+        
+        public ImportError(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public void setLine(long line) {
+            this.line = line;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+    
+    // Constructors
+    public ImportProgress() {}
+    
+    public ImportProgress(long rowsRead, long imported, long failed, List<ImportError> errors) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+    
+    // Getters and Setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<ImportError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.airportmanagement.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A journey of one or more connecting flights
+ */
+public class Itinerary {
+    private List<Flight> legs;
+    private double totalPrice;
+    
+    // Constructors
+    public Itinerary() {}
+    
+    public Itinerary(List<Flight> legs, double totalPrice) {
+        this.legs = legs;
+        this.totalPrice = totalPrice;
+    }
+    
+    // Getters and Setters
+    public List<Flight> getLegs() {
+        return legs;
+    }
+    
+    public void setLegs(List<Flight> legs) {
+        this.legs = legs;
+    }
+    
+    /**
+     * Price per seat over all legs
+     */
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+    
+    public LocalDateTime getDepartureTime() {
+        return legs.get(0).getDepartureTime();
+    }
+    
+    public LocalDateTime getArrivalTime() {
+        return legs.get(legs.size() - 1).getArrivalTime();
+    }
+    
+    public int getStops() {
+        return legs.size() - 1;
+    }
+    
+    public long getDurationMinutes() {
+        return Duration.between(getDepartureTime(), getArrivalTime()).toMinutes();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.airportmanagement.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing
+ */
+public class Page<T> {
+    private List<T> items;
+    private String nextCursor;
+    
+    // Constructors
+    public Page() {}
+    
+    public Page(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    /**
+     * Token to pass as {@code after} for the next page, or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.airportmanagement.model;
+
+/**
+ * Summary of the bookable flights on one route; prices are null when there are none
+ */
+public class RouteStats {
+    private int flights;
+    private long seatsAvailable;
+    private Double minPrice;
+    private Double averagePrice;
+    private Double maxPrice;
+    
+    // Constructors
+    public RouteStats() {}
+    
+    public RouteStats(int flights, long seatsAvailable, Double minPrice, Double averagePrice, Double maxPrice) {
+        this.flights = flights;
+        this.seatsAvailable = seatsAvailable;
+        this.minPrice = minPrice;
+        this.averagePrice = averagePrice;
+        this.maxPrice = maxPrice;
+    }
+    
+    // Getters and Setters
+    public int getFlights() {
+        return flights;
+    }
+    
+    public void setFlights(int flights) {
+        this.flights = flights;
+    }
+    
+    public long getSeatsAvailable() {
+        return seatsAvailable;
+    }
+    
+    public void setSeatsAvailable(long seatsAvailable) {
+        this.seatsAvailable = seatsAvailable;
+    }
+    
+    public Double getMinPrice() {
+        return minPrice;
+    }
+    
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+    
+    public Double getAveragePrice() {
+        return averagePrice;
+    }
+    
+    public void setAveragePrice(Double averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+    
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+    
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.AirportDAO;
+import com.example.airportmanagement.model.Airport;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Imports airports with the fields {@code code, name, city, country}.
+ *
+ * Codes are deduplicated in memory: a code seen earlier in the upload is
+ * rejected, and a row identical to the airport already stored under its
+ * code is counted as imported without being written. The rest are upserted
+ * on the unique code, one JDBC batch per chunk.
+ */
+class AirportImporter extends LineImporter<Airport> {
+    static final String[] COLUMNS = {"code", "name", "city", "country"};
+    
+    private final AirportDAO airportDAO;
+    private final Map<String, Airport> existing;
+    private final Map<String, Long> seen = new HashMap<>();
+    
+    /**
+     * {@code existing} maps each stored code to its airport
+     */
+    AirportImporter(AirportDAO airportDAO, Map<String, Airport> existing, int batchSize) {
+        super("airport", COLUMNS, batchSize);
+        this.airportDAO = airportDAO;
+        this.existing = existing;
+    }
+    
+    @Override
+    protected Airport parse(String[] fields) throws ServiceException {
+        AirportService.validateAirport(fields[1], fields[0], fields[2], fields[3]);
+        
+        Airport airport = new Airport();
+        airport.setCode(fields[0].toUpperCase());
+        airport.setName(fields[1]);
+        airport.setCity(fields[2]);
+        airport.setCountry(fields[3]);
+        return airport;
+    }
+    
+    @Override
+    protected String admit(Airport airport, long line) {
+        Long first = seen.putIfAbsent(airport.getCode(), line);
+        if (first != null) {
+            return "Duplicate airport code " + airport.getCode() + " (first on line " + first + ").";
+        }
+        return null;
+    }
+    
+    @Override
+    protected void write(List<Airport> airports) throws SQLException {
+        List<Airport> changed = new ArrayList<>();
+        for (Airport airport : airports) {
+            if (!isUnchanged(airport)) {
+                changed.add(airport);
+            }
+        }
+        if (!changed.isEmpty()) {
+            airportDAO.upsertBatch(changed);
+        }
+    }
+    
+    @Override
+    protected void writeOne(Airport airport) throws SQLException {
+        write(List.of(airport));
+    }
+    
+    private boolean isUnchanged(Airport airport) {
+        Airport stored = existing.get(airport.getCode());
+        return stored != null
+            && Objects.equals(stored.getName(), airport.getName())
+            && Objects.equals(stored.getCity(), airport.getCity())
+            && Objects.equals(stored.getCountry(), airport.getCountry());
+    }
+}
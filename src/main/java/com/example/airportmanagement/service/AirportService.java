@@ -1,23 +1,36 @@
 package com.example.airportmanagement.service;
 
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.AirportCache;
 import com.example.airportmanagement.dao.AirportDAO;
+import com.example.airportmanagement.dao.RowHandler;
 import com.example.airportmanagement.model.Airport;
+import com.example.airportmanagement.model.FlightChange;
+import com.example.airportmanagement.model.ImportProgress;
 import com.example.airportmanagement.util.ValidationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service layer for Airport business logic
  */
 public class AirportService {
     private static final Logger logger = LoggerFactory.getLogger(AirportService.class);
+    private static final int IMPORT_BATCH_SIZE = AppConfig.getAppIntProperty("airport.import.batchSize", 1000);
+    private static final int SEARCH_LIMIT = AppConfig.getAppIntProperty("airport.search.maxResults", 20);
     private final AirportDAO airportDAO;
+    private final AirportCache airportCache;
     
     public AirportService() {
         this.airportDAO = new AirportDAO();
+        this.airportCache = AirportCache.getInstance();
     }
     
     /**
@@ -26,22 +39,7 @@ public class AirportService {
     public Airport createAirport(String name, String code, String city, String country) 
             throws ServiceException {
         try {
-            // Validate inputs
-            if (!ValidationUtil.isNotEmpty(name)) {
-                throw new ServiceException("Airport name is required.");
-            }
-            
-            if (!ValidationUtil.isValidAirportCode(code)) {
-                throw new ServiceException("Invalid airport code. Must be 3 uppercase letters (e.g., JFK).");
-            }
-            
-            if (!ValidationUtil.isNotEmpty(city)) {
-                throw new ServiceException("City is required.");
-            }
-            
-            if (!ValidationUtil.isNotEmpty(country)) {
-                throw new ServiceException("Country is required.");
-            }
+            validateAirport(name, code, city, country);
             
             // Check if airport code already exists
             if (airportDAO.findByCode(code).isPresent()) {
@@ -56,13 +54,63 @@ public class AirportService {
             airport.setCountry(country);
             
             Airport createdAirport = airportDAO.create(airport);
+            airportCache.put(createdAirport);
+            TableVersion.airports().bump();
             logger.info("Airport created successfully: {}", code);
             
             return createdAirport;
             
         } catch (SQLException e) {
             logger.error("Error creating airport", e);
-            throw new ServiceException("Failed to create airport: " + e.getMessage());
+            throw new ServiceException("Failed to create airport: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Rules a new airport must satisfy, shared by creation and bulk import
+     */
+    static void validateAirport(String name, String code, String city, String country) 
+            throws ServiceException {
+        if (!ValidationUtil.isNotEmpty(name)) {
+            throw new ServiceException("Airport name is required.");
+        }
+        
+        if (!ValidationUtil.isValidAirportCode(code)) {
+            throw new ServiceException("Invalid airport code. Must be 3 uppercase letters (e.g., JFK).");
+        }
+        
+        if (!ValidationUtil.isNotEmpty(city)) {
+            throw new ServiceException("City is required.");
+        }
+        
+        if (!ValidationUtil.isNotEmpty(country)) {
+            throw new ServiceException("Country is required.");
+        }
+    }
+    
+    /**
+     * Import airports from CSV or JSON lines (see {@link AirportImporter}), adding
+     * new codes and updating existing ones. The airport cache and cached flight
+     * searches are refreshed once at the end, whether or not the import completed.
+     */
+    public ImportProgress importAirports(BufferedReader reader, ImportListener listener) 
+            throws ServiceException, IOException {
+        try {
+            Map<String, Airport> existing = new HashMap<>();
+            for (Airport airport : airportCache.findAll()) {
+                existing.put(airport.getCode(), airport);
+            }
+            AirportImporter importer = new AirportImporter(airportDAO, existing, IMPORT_BATCH_SIZE);
+            return importer.importFrom(reader, listener);
+        } catch (SQLException e) {
+            logger.error("Error importing airports", e);
+            throw new ServiceException("Failed to import airports: " + e.getMessage(), e);
+        } finally {
+            airportCache.invalidate();
+            // Cached flights carry airport names
+            FlightSearchCache.getInstance().invalidateAll();
+            FlightGraph.getInstance().invalidate();
+            TableVersion.airports().bump();
         }
     }
     
@@ -71,11 +119,11 @@ public class AirportService {
      */
     public Airport getAirportById(Long id) throws ServiceException {
         try {
-            return airportDAO.findById(id)
+            return airportCache.findById(id)
                 .orElseThrow(() -> new ServiceException("Airport not found"));
         } catch (SQLException e) {
             logger.error("Error fetching airport", e);
-            throw new ServiceException("Failed to fetch airport: " + e.getMessage());
+            throw new ServiceException("Failed to fetch airport: " + e.getMessage(), e);
         }
     }
     
@@ -84,11 +132,11 @@ public class AirportService {
      */
     public Airport getAirportByCode(String code) throws ServiceException {
         try {
-            return airportDAO.findByCode(code)
+            return airportCache.findByCode(code)
                 .orElseThrow(() -> new ServiceException("Airport not found"));
         } catch (SQLException e) {
             logger.error("Error fetching airport", e);
-            throw new ServiceException("Failed to fetch airport: " + e.getMessage());
+            throw new ServiceException("Failed to fetch airport: " + e.getMessage(), e);
         }
     }
     
@@ -97,25 +145,37 @@ public class AirportService {
      */
     public List<Airport> getAllAirports() throws ServiceException {
         try {
-            return airportDAO.findAll();
+            return airportCache.findAll();
         } catch (SQLException e) {
             logger.error("Error fetching airports", e);
-            throw new ServiceException("Failed to fetch airports: " + e.getMessage());
+            throw new ServiceException("Failed to fetch airports: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Search airports
+     * Stream all airports ordered by name
+     */
+    public void streamAllAirports(RowHandler<Airport> handler) throws ServiceException, IOException {
+        try {
+            airportDAO.streamAll(handler);
+        } catch (SQLException e) {
+            logger.error("Error streaming airports", e);
+            throw new ServiceException("Failed to fetch airports: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Search airports in the in-memory index: typo-tolerant, ranked, exact code first
      */
     public List<Airport> searchAirports(String keyword) throws ServiceException {
         try {
             if (!ValidationUtil.isNotEmpty(keyword)) {
                 return getAllAirports();
             }
-            return airportDAO.search(keyword);
+            return airportCache.search(keyword, SEARCH_LIMIT);
         } catch (SQLException e) {
             logger.error("Error searching airports", e);
-            throw new ServiceException("Failed to search airports: " + e.getMessage());
+            throw new ServiceException("Failed to search airports: " + e.getMessage(), e);
         }
     }
     
@@ -140,11 +200,19 @@ public class AirportService {
                 throw new ServiceException("Country is required.");
             }
             
-            return airportDAO.update(airport);
+            boolean updated = airportDAO.update(airport);
+            if (updated) {
+                airportCache.refresh(airport.getId());
+                // Cached search results and the connection graph carry airport codes and names
+                FlightSearchCache.getInstance().invalidateAll();
+                FlightGraph.getInstance().invalidate();
+                TableVersion.airports().bump();
+            }
+            return updated;
             
         } catch (SQLException e) {
             logger.error("Error updating airport", e);
-            throw new ServiceException("Failed to update airport: " + e.getMessage());
+            throw new ServiceException("Failed to update airport: " + e.getMessage(), e);
         }
     }
     
@@ -153,10 +221,21 @@ public class AirportService {
      */
     public boolean deleteAirport(Long id) throws ServiceException {
         try {
-            return airportDAO.delete(id);
+            boolean deleted = airportDAO.delete(id);
+            if (deleted) {
+                airportCache.remove(id);
+                // The airport's flights were deleted with it
+                FlightSearchCache.getInstance().invalidateAll();
+                FlightGraph.getInstance().invalidate();
+                FlightTimetable.getInstance().markStale();
+                TableVersion.airports().bump();
+                TableVersion.flights().bump();
+                FlightChangeBus.getInstance().publish(FlightChange.reload());
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.error("Error deleting airport", e);
-            throw new ServiceException("Failed to delete airport: " + e.getMessage());
+            throw new ServiceException("Failed to delete airport: " + e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,31 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.model.Booking;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Thrown by {@link BookingWriter#write} when the wait timed out after the
+ * booking had already been taken into a batch: it may still commit.
+ *
+ * Callers must not treat the booking as failed; {@link #getOutcome()}
+ * completes once its batch does, with the written booking or empty.
+ */
+public class BookingOutcomeUnknownException extends SQLException {
+    private final transient CompletableFuture<Optional<Booking>> outcome;
+    
+    public BookingOutcomeUnknownException(String message, CompletableFuture<Optional<Booking>> outcome,
+            Throwable cause) {
+        super(message, cause);
+        this.outcome = outcome;
+    }
+    
+    /**
+     * Result of the batch the booking is in
+     */
+    public CompletableFuture<Optional<Booking>> getOutcome() {
+        return outcome;
+    }
+}
@@ -2,26 +2,49 @@ package com.example.airportmanagement.service;
 
 import com.example.airportmanagement.dao.BookingDAO;
 import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.dao.RowHandler;
 import com.example.airportmanagement.model.Booking;
 import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.FlightChange;
+import com.example.airportmanagement.model.Page;
+import com.example.airportmanagement.util.CursorUtil;
 import com.example.airportmanagement.util.ValidationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service layer for Booking business logic
  */
 public class BookingService {
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+    private static final String BOOKING_PENDING_MESSAGE =
+        "The booking is still being processed; check your bookings shortly.";
     private final BookingDAO bookingDAO;
     private final FlightDAO flightDAO;
+    private final SeatInventory seatInventory;
+    private final BookingWriter bookingWriter;
+    // Only consulted without the inventory: with it, search results get live seat counts from the inventory
+    private final FlightSearchCache searchCache;
+    private final FlightGraph flightGraph;
+    private final FlightChangeBus changeBus;
+    private final TableVersion flightVersion;
+    private final DashboardCache dashboardCache;
     
     public BookingService() {
         this.bookingDAO = new BookingDAO();
         this.flightDAO = new FlightDAO();
+        this.seatInventory = SeatInventory.isEnabled() ? SeatInventory.getInstance() : null;
+        this.bookingWriter = BookingWriter.isEnabled() ? BookingWriter.getInstance() : null;
+        this.searchCache = FlightSearchCache.getInstance();
+        this.flightGraph = FlightGraph.getInstance();
+        this.changeBus = FlightChangeBus.getInstance();
+        this.flightVersion = TableVersion.flights();
+        this.dashboardCache = DashboardCache.getInstance();
     }
     
     /**
@@ -39,48 +62,150 @@ public class BookingService {
                 throw new ServiceException("Seats booked must be a positive number.");
             }
             
-            // Get flight details
-            Flight flight = flightDAO.findById(flightId)
-                .orElseThrow(() -> new ServiceException("Flight not found."));
-            
-            // Check if flight is cancelled
-            if (flight.getStatus() == Flight.FlightStatus.CANCELLED) {
-                throw new ServiceException("Cannot book a cancelled flight.");
+            if (seatInventory != null) {
+                return createBookingWithInventory(userId, flightId, seatsBooked);
             }
             
-            // Check seat availability
-            if (flight.getSeatsAvailable() < seatsBooked) {
-                throw new ServiceException("Not enough seats available. Only " + 
-                    flight.getSeatsAvailable() + " seats left.");
-            }
-            
-            // Calculate total price
-            double totalPrice = flight.getPrice() * seatsBooked;
-            
-            // Create booking
             Booking booking = new Booking();
             booking.setUserId(userId);
             booking.setFlightId(flightId);
             booking.setSeatsBooked(seatsBooked);
-            booking.setTotalPrice(totalPrice);
             booking.setStatus(Booking.BookingStatus.CONFIRMED);
             
-            // Update flight seats
-            boolean seatsUpdated = flightDAO.updateSeats(flightId, seatsBooked);
-            if (!seatsUpdated) {
-                throw new ServiceException("Failed to update flight seats.");
+            // Seat check, seat decrement and insert happen atomically in the DAO,
+            // in a transaction of their own or in the writer's next batch
+            Optional<Booking> reserved = bookingWriter != null
+                ? bookingWriter.write(booking)
+                : bookingDAO.createWithSeatReservation(booking);
+            if (reserved.isEmpty()) {
+                throw new ServiceException(describeReservationFailure(flightId, seatsBooked));
             }
             
-            Booking createdBooking = bookingDAO.create(booking);
+            Booking createdBooking = reserved.get();
+            bookingWritten(userId, flightId, seatsBooked);
             logger.info("Booking created successfully: userId={}, flightId={}, seats={}", 
                 userId, flightId, seatsBooked);
             
             return createdBooking;
             
+        } catch (BookingOutcomeUnknownException e) {
+            // Its batch is still running: catch up on the caches if it commits
+            e.getOutcome().thenAccept(written -> {
+                if (written.isPresent()) {
+                    bookingWritten(userId, flightId, seatsBooked);
+                }
+            });
+            throw new ServiceException(BOOKING_PENDING_MESSAGE, e);
         } catch (SQLException e) {
             logger.error("Error creating booking", e);
-            throw new ServiceException("Failed to create booking: " + e.getMessage());
+            throw new ServiceException("Failed to create booking: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Hold seats in memory and insert the booking; the flight row is updated by the inventory's flush job
+     */
+    private Booking createBookingWithInventory(Long userId, Long flightId, Integer seatsBooked) 
+            throws SQLException, ServiceException {
+        switch (seatInventory.tryHold(flightId, seatsBooked)) {
+            case NOT_FOUND:
+                throw new ServiceException("Flight not found.");
+            case NOT_BOOKABLE:
+                throw new ServiceException("Cannot book a cancelled flight.");
+            case INSUFFICIENT_SEATS:
+                throw new ServiceException("Not enough seats available. Only " + 
+                    seatInventory.getAvailableSeats(flightId) + " seats left.");
+            default:
+                break;
+        }
+        
+        // The flight may have been deleted, and evicted, since the hold
+        Double price = seatInventory.getPrice(flightId);
+        if (price == null) {
+            seatInventory.abort(flightId, seatsBooked);
+            throw new ServiceException("Flight not found.");
+        }
+        
+        Booking booking = new Booking();
+        booking.setUserId(userId);
+        booking.setFlightId(flightId);
+        booking.setSeatsBooked(seatsBooked);
+        booking.setTotalPrice(price * seatsBooked);
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        
+        Booking createdBooking;
+        try {
+            createdBooking = bookingWriter != null
+                ? bookingWriter.write(booking).orElseThrow(
+                    () -> new SQLException("Booking writer refused a booking with deferred seats"))
+                : bookingDAO.createWithDeferredSeats(booking);
+        } catch (BookingOutcomeUnknownException e) {
+            // The booking may still commit, so the hold stays until its batch settles it
+            e.getOutcome().whenComplete((written, error) -> {
+                if (error == null && written.isPresent()) {
+                    heldBookingWritten(userId, flightId, seatsBooked);
+                } else {
+                    seatInventory.abort(flightId, seatsBooked);
+                }
+            });
+            throw new ServiceException(BOOKING_PENDING_MESSAGE, e);
+        } catch (SQLException | RuntimeException e) {
+            seatInventory.abort(flightId, seatsBooked);
+            throw e;
+        }
+        heldBookingWritten(userId, flightId, seatsBooked);
+        
+        logger.info("Booking created successfully: userId={}, flightId={}, seats={}", 
+            userId, flightId, seatsBooked);
+        return createdBooking;
+    }
+    
+    /**
+     * Bring the caches and listeners up to date with a booking written without the inventory
+     */
+    private void bookingWritten(Long userId, Long flightId, int seatsBooked) {
+        searchCache.invalidate(flightId);
+        flightGraph.adjustSeats(flightId, -seatsBooked);
+        flightChanged(FlightChange.seats(flightId, -seatsBooked, null));
+        dashboardCache.invalidate(userId);
+    }
+    
+    /**
+     * Turn the hold of a written booking into a confirmed sale and pass it on
+     */
+    private void heldBookingWritten(Long userId, Long flightId, int seatsBooked) {
+        seatInventory.confirm(flightId, seatsBooked);
+        flightGraph.adjustSeats(flightId, -seatsBooked);
+        flightChanged(FlightChange.seats(flightId, -seatsBooked, seatInventory.getAvailableSeats(flightId)));
+        dashboardCache.invalidate(userId);
+    }
+    
+    /**
+     * Seat counts are part of the flights version and of the event stream
+     */
+    private void flightChanged(FlightChange change) {
+        flightVersion.bump();
+        changeBus.publish(change);
+    }
+    
+    /**
+     * Work out why a reservation was refused; only runs on the failure path
+     */
+    private String describeReservationFailure(Long flightId, int seatsBooked) 
+            throws SQLException, ServiceException {
+        Flight flight = flightDAO.findById(flightId)
+            .orElseThrow(() -> new ServiceException("Flight not found."));
+        
+        if (flight.getStatus() == Flight.FlightStatus.CANCELLED) {
+            return "Cannot book a cancelled flight.";
+        }
+        
+        if (flight.getSeatsAvailable() < seatsBooked) {
+            return "Not enough seats available. Only " + 
+                flight.getSeatsAvailable() + " seats left.";
         }
+        
+        return "Failed to reserve seats. Please try again.";
     }
     
     /**
@@ -92,7 +217,7 @@ public class BookingService {
                 .orElseThrow(() -> new ServiceException("Booking not found"));
         } catch (SQLException e) {
             logger.error("Error fetching booking", e);
-            throw new ServiceException("Failed to fetch booking: " + e.getMessage());
+            throw new ServiceException("Failed to fetch booking: " + e.getMessage(), e);
         }
     }
     
@@ -104,7 +229,41 @@ public class BookingService {
             return bookingDAO.findAll();
         } catch (SQLException e) {
             logger.error("Error fetching bookings", e);
-            throw new ServiceException("Failed to fetch bookings: " + e.getMessage());
+            throw new ServiceException("Failed to fetch bookings: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Stream all bookings, newest first
+     */
+    public void streamAllBookings(RowHandler<Booking> handler) throws ServiceException, IOException {
+        try {
+            bookingDAO.streamAll(handler);
+        } catch (SQLException e) {
+            logger.error("Error streaming bookings", e);
+            throw new ServiceException("Failed to fetch bookings: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Get one page of bookings, newest first
+     */
+    public Page<Booking> getBookingsPage(String after, Integer limit) throws ServiceException {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        if (after != null && cursor == null) {
+            throw new ServiceException("Invalid pagination cursor.");
+        }
+        
+        int pageSize = CursorUtil.resolveLimit(limit);
+        if (pageSize < 0) {
+            throw new ServiceException("Limit must be a positive number.");
+        }
+        
+        try {
+            return bookingDAO.findPage(cursor, pageSize);
+        } catch (SQLException e) {
+            logger.error("Error fetching bookings", e);
+            throw new ServiceException("Failed to fetch bookings: " + e.getMessage(), e);
         }
     }
     
@@ -116,7 +275,7 @@ public class BookingService {
             return bookingDAO.findByUserId(userId);
         } catch (SQLException e) {
             logger.error("Error fetching user bookings", e);
-            throw new ServiceException("Failed to fetch user bookings: " + e.getMessage());
+            throw new ServiceException("Failed to fetch user bookings: " + e.getMessage(), e);
         }
     }
     
@@ -140,15 +299,21 @@ public class BookingService {
             
             // Update booking status
             booking.setStatus(Booking.BookingStatus.CANCELLED);
-            boolean updated = bookingDAO.update(booking);
+            
+            // Without the inventory the seats go back to the flight in the same transaction;
+            // with it, the inventory frees them now and its flush job updates the flight row
+            boolean updated = bookingDAO.cancel(booking, seatInventory == null);
             
             if (updated) {
-                // Return seats to flight
-                Flight flight = flightDAO.findById(booking.getFlightId())
-                    .orElseThrow(() -> new ServiceException("Flight not found."));
-                
-                flight.setSeatsAvailable(flight.getSeatsAvailable() + booking.getSeatsBooked());
-                flightDAO.update(flight);
+                if (seatInventory != null) {
+                    seatInventory.release(booking.getFlightId(), booking.getSeatsBooked());
+                } else {
+                    searchCache.invalidate(booking.getFlightId());
+                }
+                flightGraph.adjustSeats(booking.getFlightId(), booking.getSeatsBooked());
+                flightChanged(FlightChange.seats(booking.getFlightId(), booking.getSeatsBooked(),
+                    seatInventory != null ? seatInventory.getAvailableSeats(booking.getFlightId()) : null));
+                dashboardCache.invalidate(userId);
                 
                 logger.info("Booking cancelled: bookingId={}, userId={}", bookingId, userId);
             }
@@ -157,7 +322,7 @@ public class BookingService {
             
         } catch (SQLException e) {
             logger.error("Error cancelling booking", e);
-            throw new ServiceException("Failed to cancel booking: " + e.getMessage());
+            throw new ServiceException("Failed to cancel booking: " + e.getMessage(), e);
         }
     }
     
@@ -166,10 +331,15 @@ public class BookingService {
      */
     public boolean deleteBooking(Long id) throws ServiceException {
         try {
-            return bookingDAO.delete(id);
+            boolean deleted = bookingDAO.delete(id);
+            if (deleted) {
+                // The booking's owner is not known here
+                dashboardCache.invalidateAll();
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.error("Error deleting booking", e);
-            throw new ServiceException("Failed to delete booking: " + e.getMessage());
+            throw new ServiceException("Failed to delete booking: " + e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,299 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.BookingDAO;
+import com.example.airportmanagement.metrics.Counter;
+import com.example.airportmanagement.metrics.MetricsRegistry;
+import com.example.airportmanagement.model.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit for new bookings ({@code bookingWriter.enabled}).
+ *
+ * Callers hand their booking to a single writer thread, which collects
+ * whatever arrives within {@code bookingWriter.maxWaitMillis} (up to
+ * {@code bookingWriter.maxBatchSize}) and writes it as JDBC batches in one
+ * transaction, so a burst of bookings costs one commit instead of one each.
+ * Each caller still gets its own outcome:
+ * <ul>
+ *   <li>A booking refused for lack of seats is left out of the batch and its
+ *       caller gets an empty result; the others are written.</li>
+ *   <li>If the batch fails as a whole (a constraint violation, a deadlock),
+ *       it is rolled back and every booking in it is retried on its own, so
+ *       only the caller whose booking is at fault sees the error.</li>
+ * </ul>
+ * Seats are reserved in the same transaction, or, with the seat inventory
+ * enabled, were already held and the bookings are inserted with deferred seats.
+ */
+public class BookingWriter {
+    private static final Logger logger = LoggerFactory.getLogger(BookingWriter.class);
+    
+    private static final boolean ENABLED = AppConfig.getAppBooleanProperty("bookingWriter.enabled", false);
+    private static final long WRITE_TIMEOUT_MILLIS =
+        AppConfig.getAppIntProperty("bookingWriter.writeTimeoutMillis", 30000);
+    
+    private static final ReentrantLock instanceLock = new ReentrantLock();
+    private static volatile BookingWriter instance;
+    
+    private final BookingDAO bookingDAO;
+    private final boolean deferredSeats;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long writeTimeoutMillis;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // Held to check running and enqueue as one step, so nothing is queued after shutdown drains
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private final Counter batches;
+    private final Counter written;
+    private final Counter fallbacks;
+    private volatile boolean running = true;
+    private Thread thread;
+    
+    private static final class Pending {
+        final Booking booking;
+        final CompletableFuture<Optional<Booking>> result = new CompletableFuture<>();
+        
+        Pending(Booking booking) {
+            this.booking = booking;
+        }
+    }
+    
+    BookingWriter(BookingDAO bookingDAO, boolean deferredSeats, int maxBatchSize, long maxWaitMillis) {
+        this(bookingDAO, deferredSeats, maxBatchSize, maxWaitMillis, WRITE_TIMEOUT_MILLIS);
+    }
+    
+    BookingWriter(BookingDAO bookingDAO, boolean deferredSeats, int maxBatchSize, long maxWaitMillis,
+            long writeTimeoutMillis) {
+        this.bookingDAO = bookingDAO;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.deferredSeats = deferredSeats;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.batches = registry.counter("booking_writer_batches_total", "Transactions committed by the booking writer");
+        this.written = registry.counter("booking_writer_bookings_total", "Bookings written by the booking writer");
+        this.fallbacks = registry.counter("booking_writer_fallbacks_total",
+            "Batches that failed and were retried booking by booking");
+        registry.gauge("booking_writer_queued", "Bookings waiting for the next batch", queue::size);
+    }
+    
+    /**
+     * Whether new bookings go through the group-commit writer ({@code bookingWriter.enabled})
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+    
+    /**
+     * Shared writer; the first call starts its thread
+     */
+    public static BookingWriter getInstance() {
+        if (instance == null) {
+            instanceLock.lock();
+            try {
+                if (instance == null) {
+                    BookingWriter writer = new BookingWriter(new BookingDAO(), SeatInventory.isEnabled(),
+                        AppConfig.getAppIntProperty("bookingWriter.maxBatchSize", 100),
+                        AppConfig.getAppIntProperty("bookingWriter.maxWaitMillis", 2));
+                    writer.start();
+                    instance = writer;
+                }
+            } finally {
+                instanceLock.unlock();
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Stop the shared writer if it was started, writing what is queued
+     */
+    public static void shutdownInstance() {
+        BookingWriter writer = instance;
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+    
+    void start() {
+        thread = new Thread(this::run, "booking-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Queue a booking for the next batch. The future completes with the
+     * booking, id and price set, or empty when its seats could not be reserved.
+     */
+    public CompletableFuture<Optional<Booking>> submit(Booking booking) {
+        return enqueue(booking).result;
+    }
+    
+    /**
+     * Queue a booking and wait for its batch to commit, at most
+     * {@code bookingWriter.writeTimeoutMillis}
+     */
+    public Optional<Booking> write(Booking booking) throws SQLException {
+        Pending pending = enqueue(booking);
+        try {
+            return pending.result.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new SQLException("Timed out waiting for the booking writer; the booking was not written", e);
+            }
+            // Already in a batch: it may still commit, so the caller must not give up on it
+            logger.warn("Booking for flight {} still being written after {} ms", booking.getFlightId(),
+                writeTimeoutMillis);
+            throw new BookingOutcomeUnknownException(
+                "Timed out waiting for the booking to be written; it may still be confirmed", pending.result, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the booking to be written", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Booking write failed", cause);
+        }
+    }
+    
+    private Pending enqueue(Booking booking) {
+        Pending pending = new Pending(booking);
+        submitLock.lock();
+        try {
+            if (running) {
+                queue.add(pending);
+                return pending;
+            }
+        } finally {
+            submitLock.unlock();
+        }
+        pending.result.completeExceptionally(new SQLException("Booking writer is shut down"));
+        return pending;
+    }
+    
+    public void shutdown() {
+        submitLock.lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.unlock();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever is still queued is written by the caller
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            writeBatch(rest);
+        }
+    }
+    
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Wait for the first booking, then gather what arrives within the wait window
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+    
+    void writeBatch(List<Pending> batch) {
+        List<Booking> bookings = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            bookings.add(pending.booking);
+        }
+        
+        try {
+            if (deferredSeats) {
+                bookingDAO.createBatchWithDeferredSeats(bookings);
+                for (Pending pending : batch) {
+                    pending.result.complete(Optional.of(pending.booking));
+                }
+                written.increment(batch.size());
+            } else {
+                boolean[] accepted = bookingDAO.createBatchWithSeatReservation(bookings);
+                for (int i = 0; i < batch.size(); i++) {
+                    Pending pending = batch.get(i);
+                    if (accepted[i]) {
+                        written.increment();
+                    }
+                    pending.result.complete(accepted[i] ? Optional.of(pending.booking) : Optional.empty());
+                }
+            }
+            batches.increment();
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Booking batch of {} failed; writing its bookings one by one", batch.size(), e);
+            fallbacks.increment();
+            for (Pending pending : batch) {
+                writeOne(pending);
+            }
+        }
+    }
+    
+    private void writeOne(Pending pending) {
+        try {
+            Optional<Booking> result = deferredSeats
+                ? Optional.of(bookingDAO.createWithDeferredSeats(pending.booking))
+                : bookingDAO.createWithSeatReservation(pending.booking);
+            if (result.isPresent()) {
+                written.increment();
+            }
+            batches.increment();
+            pending.result.complete(result);
+        } catch (SQLException | RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.model.DashboardSummary;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user cache of dashboard summaries, with LRU and TTL eviction.
+ *
+ * A user's entry is dropped when they book or cancel, so their own changes
+ * show at once; everything else (other users' bookings moving the flight
+ * count, airport edits) may take up to the TTL to appear. As in
+ * {@link FlightSearchCache}, a summary loaded across an invalidation is
+ * returned but not stored.
+ *
+ * Hits share the cached summary; callers only serialize it.
+ */
+public class DashboardCache {
+    private static final DashboardCache instance = new DashboardCache(
+        AppConfig.getAppIntProperty("dashboard.cache.maxEntries", 10000),
+        AppConfig.getAppIntProperty("dashboard.cache.ttlSeconds", 10));
+    
+    /**
+     * Builds the summary on a miss
+     */
+    @FunctionalInterface
+    interface Loader {
+        DashboardSummary load() throws SQLException;
+    }
+    
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    private static final class Entry {
+        final DashboardSummary summary;
+        final long expiresAtNanos;
+        
+        Entry(DashboardSummary summary, long expiresAtNanos) {
+            this.summary = summary;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+    
+    DashboardCache(int maxEntries, int ttlSeconds) {
+        this.enabled = maxEntries > 0 && ttlSeconds > 0;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
+    public static DashboardCache getInstance() {
+        return instance;
+    }
+    
+    /**
+     * Cached summary for the user, or the loader's result on a miss
+     */
+    DashboardSummary get(Long userId, Loader loader) throws SQLException {
+        if (!enabled) {
+            return loader.load();
+        }
+        
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAtNanos < 0) {
+                    hits.increment();
+                    return entry.summary;
+                }
+                entries.remove(userId);
+            }
+        }
+        misses.increment();
+        
+        long startGeneration = generation.get();
+        DashboardSummary summary = loader.load();
+        long loaded = System.nanoTime();
+        
+        synchronized (entries) {
+            if (generation.get() == startGeneration) {
+                entries.put(userId, new Entry(summary, loaded + ttlNanos));
+            }
+        }
+        return summary;
+    }
+    
+    /**
+     * The user booked or cancelled
+     */
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(userId);
+        }
+    }
+    
+    /**
+     * Drop everything, e.g. after a booking was deleted by an administrator
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.AirportCache;
+import com.example.airportmanagement.dao.BookingDAO;
+import com.example.airportmanagement.model.DashboardSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+
+/**
+ * Service layer for the dashboard summary.
+ *
+ * Flight and airport counts come from the in-memory flight table and
+ * airport cache; the user's bookings are counted and the newest
+ * {@code dashboard.recentBookings} fetched with two indexed queries instead
+ * of loading every row. Summaries are cached per user (see {@link DashboardCache}).
+ */
+public class DashboardService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    private static final int RECENT_BOOKINGS = AppConfig.getAppIntProperty("dashboard.recentBookings", 5);
+    
+    private final BookingDAO bookingDAO;
+    private final AirportCache airportCache;
+    private final FlightTimetable timetable;
+    private final DashboardCache cache;
+    
+    public DashboardService() {
+        this.bookingDAO = new BookingDAO();
+        this.airportCache = AirportCache.getInstance();
+        this.timetable = FlightTimetable.getInstance();
+        this.cache = DashboardCache.getInstance();
+    }
+    
+    /**
+     * Summary for the given user
+     */
+    public DashboardSummary getSummary(Long userId) throws ServiceException {
+        try {
+            return cache.get(userId, () -> new DashboardSummary(
+                timetable.getTable().size(),
+                airportCache.count(),
+                bookingDAO.countByUserId(userId),
+                bookingDAO.findRecentByUserId(userId, RECENT_BOOKINGS)));
+        } catch (SQLException e) {
+            logger.error("Error building dashboard summary", e);
+            throw new ServiceException("Failed to fetch dashboard summary: " + e.getMessage(), e);
+        }
+    }
+}
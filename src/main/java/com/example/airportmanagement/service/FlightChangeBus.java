@@ -0,0 +1,160 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.model.FlightChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process bus of flight timetable changes.
+ *
+ * Publishing numbers the change and appends it to a ring of the last
+ * {@code flightEvents.bufferSize} changes under a short lock; delivery to
+ * subscribers happens on one dispatcher thread, in id order, so publishers
+ * never wait on subscribers. A subscriber that reconnects with the last id
+ * it saw gets the changes after it replayed from the ring, if they are
+ * still there. Ids start from the clock at startup, so an id from before a
+ * restart is older than anything in the ring and cannot be resumed.
+ */
+public class FlightChangeBus {
+    private static final Logger logger = LoggerFactory.getLogger(FlightChangeBus.class);
+    
+    private static final FlightChangeBus instance =
+        new FlightChangeBus(AppConfig.getAppIntProperty("flightEvents.bufferSize", 10000));
+    
+    private final FlightChange[] ring;
+    private final long firstId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private long lastId;
+    
+    /**
+     * Receives changes; both methods must return quickly and not block
+     */
+    public interface Subscriber {
+        /**
+         * Called once, before any change, with the id after which the
+         * subscriber will see every change, and whether that is the id it
+         * asked to resume from
+         */
+        void onSubscribe(long fromId, boolean resumed);
+        
+        /**
+         * Called for every change after {@code fromId}. A change published
+         * while the subscriber was being added may arrive twice; drop ids
+         * already seen.
+         */
+        void onChange(FlightChange change);
+    }
+    
+    FlightChangeBus(int bufferSize) {
+        this.ring = new FlightChange[Math.max(1, bufferSize)];
+        this.firstId = System.currentTimeMillis() * 1000;
+        this.lastId = firstId;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-change-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public static FlightChangeBus getInstance() {
+        return instance;
+    }
+    
+    public static void shutdownInstance() {
+        instance.shutdown();
+    }
+    
+    /**
+     * Number the change and deliver it to every subscriber
+     */
+    public void publish(FlightChange change) {
+        lock.lock();
+        try {
+            change.setId(++lastId);
+            ring[(int) (lastId % ring.length)] = change;
+            
+            // Queued under the lock, so the dispatcher sees changes in id order; queueing does not block
+            if (!subscribers.isEmpty()) {
+                dispatcher.execute(() -> deliver(change));
+            }
+        } catch (RejectedExecutionException e) {
+            logger.debug("Change {} not delivered: bus is shut down", change.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Add a subscriber. With {@code lastSeenId} below zero it sees changes
+     * from now on; otherwise the changes after that id are replayed first,
+     * or, if some are no longer buffered, it is told it was not resumed and
+     * sees changes from now on.
+     */
+    public void subscribe(long lastSeenId, Subscriber subscriber) {
+        lock.lock();
+        try {
+            long oldestId = Math.max(firstId + 1, lastId - ring.length + 1);
+            boolean resumable = lastSeenId >= oldestId - 1 && lastSeenId <= lastId;
+            if (lastSeenId < 0 || !resumable) {
+                subscriber.onSubscribe(lastId, lastSeenId < 0);
+            } else {
+                // Replayed under the lock, so no newer change can be delivered before these
+                subscriber.onSubscribe(lastSeenId, true);
+                for (long id = lastSeenId + 1; id <= lastId; id++) {
+                    subscriber.onChange(ring[(int) (id % ring.length)]);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    public long getLastId() {
+        lock.lock();
+        try {
+            return lastId;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void shutdown() {
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void deliver(FlightChange change) {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.onChange(change);
+            } catch (RuntimeException e) {
+                logger.warn("Flight change subscriber failed; removing it", e);
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.dao.FlightSearchQuery;
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.Itinerary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory, time-dependent graph of bookable flights for connection search:
+ * airports are nodes and each flight is an edge that can only be taken at its
+ * departure time.
+ *
+ * Each airport's departures are held in an array sorted by departure time,
+ * so the flights that fit a layover are found by binary search. Readers never
+ * lock; writers serialize on a ReentrantLock and replace only the one array
+ * a flight change touches.
+ *
+ * The graph holds non-cancelled flights departing from the start of today up
+ * to {@code flightGraph.horizonDays} ahead. It is loaded on the first search,
+ * kept current by {@link FlightService} and {@link BookingService} as they
+ * change flights and seats, and reloaded in full every
+ * {@code flightGraph.refreshSeconds} to pick up changes made by other
+ * instances. Changes made before the first search cost nothing.
+ */
+public class FlightGraph {
+    private static final Logger logger = LoggerFactory.getLogger(FlightGraph.class);
+
+    // Upper bound on labels taken off the queue by one search, whatever the graph looks like
+    private static final int MAX_EXPANSIONS = 200_000;
+
+    private static final FlightGraph instance = new FlightGraph(new FlightDAO(),
+        AppConfig.getAppIntProperty("flightGraph.horizonDays", 30),
+        AppConfig.getAppIntProperty("flightGraph.minConnectionMinutes", 45),
+        AppConfig.getAppIntProperty("flightGraph.maxLayoverHours", 12),
+        AppConfig.getAppIntProperty("flightGraph.refreshSeconds", 300));
+
+    public enum SortOrder {
+        ARRIVAL, PRICE
+    }
+
+    private final FlightDAO flightDAO;
+    private final int horizonDays;
+    private final long minConnectionSeconds;
+    private final long maxLayoverSeconds;
+    private final long refreshNanos;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Graph graph;
+
+    /**
+     * One flight. Everything but the seat count is fixed; a changed flight gets a new edge.
+     */
+    private static final class Edge {
+        final long flightId;
+        final long from;
+        final long to;
+        final long departure;
+        final long arrival;
+        final double price;
+        final Flight flight;
+        volatile int seats;
+
+        Edge(Flight flight) {
+            this.flightId = flight.getId();
+            this.from = flight.getSourceAirportId();
+            this.to = flight.getDestinationAirportId();
+            this.departure = epochSeconds(flight.getDepartureTime());
+            this.arrival = epochSeconds(flight.getArrivalTime());
+            this.price = flight.getPrice();
+            this.seats = flight.getSeatsAvailable();
+            this.flight = copy(flight);
+        }
+    }
+
+    private static final Comparator<Edge> BY_DEPARTURE =
+        Comparator.comparingLong((Edge edge) -> edge.departure).thenComparingLong(edge -> edge.flightId);
+
+    private static final class Graph {
+        final Map<Long, Edge[]> departures = new ConcurrentHashMap<>();
+        final Map<Long, Edge> edges = new ConcurrentHashMap<>();
+        final long loadedNanos;
+
+        Graph(long loadedNanos) {
+            this.loadedNanos = loadedNanos;
+        }
+    }
+
+    /**
+     * A partial itinerary ending with {@code edge}
+     */
+    private static final class Label {
+        final Edge edge;
+        final Label previous;
+        final int legs;
+        final double price;
+
+        Label(Edge edge, Label previous) {
+            this.edge = edge;
+            this.previous = previous;
+            this.legs = previous != null ? previous.legs + 1 : 1;
+            this.price = previous != null ? previous.price + edge.price : edge.price;
+        }
+
+        boolean visits(long airportId) {
+            for (Label label = this; label != null; label = label.previous) {
+                if (label.edge.from == airportId || label.edge.to == airportId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    FlightGraph(FlightDAO flightDAO, int horizonDays, int minConnectionMinutes, int maxLayoverHours,
+            int refreshSeconds) {
+        this.flightDAO = flightDAO;
+        this.horizonDays = horizonDays;
+        this.minConnectionSeconds = TimeUnit.MINUTES.toSeconds(minConnectionMinutes);
+        this.maxLayoverSeconds = TimeUnit.HOURS.toSeconds(maxLayoverHours);
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(refreshSeconds);
+    }
+
+    public static FlightGraph getInstance() {
+        return instance;
+    }
+
+    /**
+     * Last departure date the graph covers
+     */
+    public LocalDate getLastSearchableDate() {
+        return LocalDate.now().plusDays(horizonDays);
+    }
+
+    /**
+     * The best {@code limit} itineraries from one airport to another leaving on
+     * the given date, with at most {@code maxLegs} flights, each with at least
+     * {@code seats} seats left, ordered by arrival time or by total price.
+     *
+     * Itineraries are found best first, so the search stops as soon as it has
+     * enough. Connections must leave between {@code flightGraph.minConnectionMinutes}
+     * and {@code flightGraph.maxLayoverHours} after the previous arrival, and
+     * no airport is visited twice.
+     */
+    public List<Itinerary> findConnections(long fromAirportId, long toAirportId, LocalDate date,
+            int maxLegs, int limit, int seats, SortOrder sortOrder) throws SQLException {
+        Graph current = current();
+        Comparator<Label> order = sortOrder == SortOrder.PRICE
+            ? Comparator.comparingDouble((Label label) -> label.price).thenComparingLong(label -> label.edge.arrival)
+            : Comparator.comparingLong((Label label) -> label.edge.arrival).thenComparingDouble(label -> label.price);
+        PriorityQueue<Label> queue = new PriorityQueue<>(order);
+
+        long dayStart = epochSeconds(date.atStartOfDay());
+        Edge[] first = current.departures.getOrDefault(fromAirportId, new Edge[0]);
+        for (int i = firstDepartingAt(first, dayStart); i < first.length && first[i].departure < dayStart + 86_400; i++) {
+            if (first[i].seats >= seats && first[i].to != fromAirportId) {
+                queue.add(new Label(first[i], null));
+            }
+        }
+
+        // Expanding each airport a bounded number of times keeps busy hubs from
+        // flooding the queue with itineraries that cannot make the top results
+        Map<Long, Integer> expanded = new HashMap<>();
+        int expansionLimit = limit * maxLegs;
+        List<Itinerary> results = new ArrayList<>();
+        int polled = 0;
+
+        while (!queue.isEmpty() && results.size() < limit && polled++ < MAX_EXPANSIONS) {
+            Label label = queue.poll();
+            Edge edge = label.edge;
+            if (edge.to == toAirportId) {
+                results.add(toItinerary(label));
+                continue;
+            }
+            if (label.legs >= maxLegs || expanded.merge(edge.to, 1, Integer::sum) > expansionLimit) {
+                continue;
+            }
+
+            Edge[] next = current.departures.getOrDefault(edge.to, new Edge[0]);
+            long earliest = edge.arrival + minConnectionSeconds;
+            long latest = edge.arrival + maxLayoverSeconds;
+            for (int i = firstDepartingAt(next, earliest); i < next.length && next[i].departure <= latest; i++) {
+                if (next[i].seats >= seats && !label.visits(next[i].to)) {
+                    queue.add(new Label(next[i], label));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reload one flight after it was scheduled or edited; drops it if it is gone or cancelled
+     */
+    public void refresh(Long flightId) throws SQLException {
+        writeLock.lock();
+        try {
+            Graph current = graph;
+            if (current == null) {
+                return;
+            }
+            Optional<Flight> flight = flightDAO.findById(flightId);
+            remove(current, flightId);
+            if (flight.isPresent() && flight.get().getStatus() != Flight.FlightStatus.CANCELLED) {
+                add(current, new Edge(flight.get()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forget a flight after it was cancelled or deleted
+     */
+    public void remove(Long flightId) {
+        writeLock.lock();
+        try {
+            Graph current = graph;
+            if (current != null) {
+                remove(current, flightId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Seats were booked (negative) or released (positive) on a flight
+     */
+    public void adjustSeats(Long flightId, int delta) {
+        writeLock.lock();
+        try {
+            Graph current = graph;
+            Edge edge = current != null ? current.edges.get(flightId) : null;
+            if (edge != null) {
+                edge.seats = Math.max(0, edge.seats + delta);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Drop everything, e.g. after a bulk import; the next search reloads the graph
+     */
+    public void invalidate() {
+        writeLock.lock();
+        try {
+            graph = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flights currently in the graph, or 0 before the first search
+     */
+    public int size() {
+        Graph current = graph;
+        return current != null ? current.edges.size() : 0;
+    }
+
+    private Graph current() throws SQLException {
+        Graph current = graph;
+        if (current == null || System.nanoTime() - current.loadedNanos > refreshNanos) {
+            return reload();
+        }
+        return current;
+    }
+
+    private Graph reload() throws SQLException {
+        writeLock.lock();
+        try {
+            // Another thread may have reloaded while this one waited for the lock
+            Graph current = graph;
+            long now = System.nanoTime();
+            if (current != null && now - current.loadedNanos <= refreshNanos) {
+                return current;
+            }
+
+            LocalDateTime from = LocalDate.now().atStartOfDay();
+            List<Flight> flights = flightDAO.search(new FlightSearchQuery()
+                .departingBetween(from, from.plusDays(horizonDays + 1L)));
+
+            Graph loaded = new Graph(now);
+            Map<Long, List<Edge>> byAirport = new HashMap<>();
+            for (Flight flight : flights) {
+                Edge edge = new Edge(flight);
+                loaded.edges.put(edge.flightId, edge);
+                byAirport.computeIfAbsent(edge.from, id -> new ArrayList<>()).add(edge);
+            }
+            for (Map.Entry<Long, List<Edge>> entry : byAirport.entrySet()) {
+                Edge[] edges = entry.getValue().toArray(new Edge[0]);
+                Arrays.sort(edges, BY_DEPARTURE);
+                loaded.departures.put(entry.getKey(), edges);
+            }
+
+            graph = loaded;
+            logger.info("Flight graph loaded: {} flights from {} airports", flights.size(), byAirport.size());
+            return loaded;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void add(Graph current, Edge edge) {
+        current.edges.put(edge.flightId, edge);
+        Edge[] edges = current.departures.getOrDefault(edge.from, new Edge[0]);
+        int at = -Arrays.binarySearch(edges, edge, BY_DEPARTURE) - 1;
+        Edge[] updated = new Edge[edges.length + 1];
+        System.arraycopy(edges, 0, updated, 0, at);
+        updated[at] = edge;
+        System.arraycopy(edges, at, updated, at + 1, edges.length - at);
+        current.departures.put(edge.from, updated);
+    }
+
+    private static void remove(Graph current, Long flightId) {
+        Edge edge = current.edges.remove(flightId);
+        if (edge == null) {
+            return;
+        }
+        Edge[] edges = current.departures.get(edge.from);
+        int at = Arrays.binarySearch(edges, edge, BY_DEPARTURE);
+        if (edges.length == 1) {
+            current.departures.remove(edge.from);
+            return;
+        }
+        Edge[] updated = new Edge[edges.length - 1];
+        System.arraycopy(edges, 0, updated, 0, at);
+        System.arraycopy(edges, at + 1, updated, at, edges.length - at - 1);
+        current.departures.put(edge.from, updated);
+    }
+
+    /**
+     * Index of the first edge departing at or after the given time
+     */
+    private static int firstDepartingAt(Edge[] edges, long time) {
+        int low = 0;
+        int high = edges.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (edges[mid].departure < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Itinerary toItinerary(Label last) {
+        List<Flight> legs = new ArrayList<>(last.legs);
+        for (Label label = last; label != null; label = label.previous) {
+            Flight leg = copy(label.edge.flight);
+            leg.setSeatsAvailable(label.edge.seats);
+            legs.add(leg);
+        }
+        Collections.reverse(legs);
+        return new Itinerary(legs, last.price);
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static Flight copy(Flight flight) {
+        Flight copy = new Flight(flight.getId(), flight.getFlightNumber(), flight.getSourceAirportId(),
+            flight.getDestinationAirportId(), flight.getDepartureTime(), flight.getArrivalTime(),
+            flight.getSeatsAvailable(), flight.getPrice());
+        copy.setStatus(flight.getStatus());
+        copy.setSourceAirportCode(flight.getSourceAirportCode());
+        copy.setSourceAirportName(flight.getSourceAirportName());
+        copy.setDestinationAirportCode(flight.getDestinationAirportCode());
+        copy.setDestinationAirportName(flight.getDestinationAirportName());
+        copy.setCreatedAt(flight.getCreatedAt());
+        copy.setUpdatedAt(flight.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.util.DateUtil;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Imports a flight timetable with the fields
+ * {@code flightNumber, from, to, departureTime, arrivalTime, seatsAvailable, price};
+ * airports are given by IATA code or id.
+ *
+ * Rows are validated with the rules of {@link FlightService#scheduleFlight}
+ * and each chunk is inserted as one JDBC batch in one transaction.
+ */
+class FlightImporter extends LineImporter<Flight> {
+    static final String[] COLUMNS = {
+        "flightNumber", "from", "to", "departureTime", "arrivalTime", "seatsAvailable", "price"
+    };
+    
+    /**
+     * Airport id for an IATA code or id, or null if there is no such airport
+     */
+    @FunctionalInterface
+    interface AirportResolver {
+        Long resolve(String reference) throws SQLException;
+    }
+    
+    private final FlightDAO flightDAO;
+    private final AirportResolver airports;
+    
+    FlightImporter(FlightDAO flightDAO, AirportResolver airports, int batchSize) {
+        super("flight", COLUMNS, batchSize);
+        this.flightDAO = flightDAO;
+        this.airports = airports;
+    }
+    
+    @Override
+    protected Flight parse(String[] fields) throws ServiceException, SQLException {
+        Long sourceAirportId = resolveAirport(fields[1]);
+        Long destinationAirportId = resolveAirport(fields[2]);
+        LocalDateTime departureTime = parseTime(fields[3], COLUMNS[3]);
+        LocalDateTime arrivalTime = parseTime(fields[4], COLUMNS[4]);
+        Integer seatsAvailable = fields[5] != null ? Integer.valueOf(fields[5]) : null;
+        Double price = fields[6] != null ? Double.valueOf(fields[6]) : null;
+        
+        FlightService.validateFlight(fields[0], sourceAirportId, destinationAirportId,
+            departureTime, arrivalTime, seatsAvailable, price);
+        
+        Flight flight = new Flight();
+        flight.setFlightNumber(fields[0].toUpperCase());
+        flight.setSourceAirportId(sourceAirportId);
+        flight.setDestinationAirportId(destinationAirportId);
+        flight.setDepartureTime(departureTime);
+        flight.setArrivalTime(arrivalTime);
+        flight.setSeatsAvailable(seatsAvailable);
+        flight.setPrice(price);
+        flight.setStatus(Flight.FlightStatus.SCHEDULED);
+        return flight;
+    }
+    
+    @Override
+    protected void write(List<Flight> flights) throws SQLException {
+        flightDAO.createBatch(flights);
+    }
+    
+    @Override
+    protected void writeOne(Flight flight) throws SQLException {
+        flightDAO.create(flight);
+    }
+    
+    private Long resolveAirport(String reference) throws SQLException, ServiceException {
+        if (reference == null) {
+            return null;
+        }
+        Long id = airports.resolve(reference);
+        if (id == null) {
+            throw new ServiceException("Unknown airport: " + reference);
+        }
+        return id;
+    }
+    
+    private LocalDateTime parseTime(String value, String column) throws ServiceException {
+        if (value == null) {
+            return null;
+        }
+        LocalDateTime time = DateUtil.parse(value);
+        if (time == null) {
+            throw new ServiceException("Invalid " + column + ": " + value);
+        }
+        return time;
+    }
+}
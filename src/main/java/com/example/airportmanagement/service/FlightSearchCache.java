@@ -0,0 +1,281 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.FlightSearchQuery;
+import com.example.airportmanagement.model.Flight;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of flight search results, keyed on the resolved query
+ * (airport ids and departure range), with LRU and TTL eviction.
+ *
+ * Writes invalidate only the entries they can affect: an entry is dropped
+ * when its result contains the changed flight, or when the flight now
+ * matches its criteria. Every invalidation bumps a generation counter, and
+ * a result loaded across an invalidation is returned but not stored, so a
+ * slow load can never put back what a write just removed.
+ *
+ * Cached flights are never handed out; every hit returns fresh copies.
+ */
+public class FlightSearchCache {
+    private static final FlightSearchCache instance = new FlightSearchCache(
+        AppConfig.getAppBooleanProperty("flightSearchCache.enabled", true),
+        AppConfig.getAppIntProperty("flightSearchCache.maxEntries", 1000),
+        AppConfig.getAppIntProperty("flightSearchCache.ttlSeconds", 30));
+    
+    /**
+     * Runs the search on a miss
+     */
+    @FunctionalInterface
+    interface Loader {
+        List<Flight> load() throws SQLException;
+    }
+    
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    
+    private static final class Key {
+        final Long sourceAirportId;
+        final Long destinationAirportId;
+        final LocalDateTime departureFrom;
+        final LocalDateTime departureBefore;
+        
+        Key(FlightSearchQuery query) {
+            this.sourceAirportId = query.getSourceAirportId();
+            this.destinationAirportId = query.getDestinationAirportId();
+            this.departureFrom = query.getDepartureFrom();
+            this.departureBefore = query.getDepartureBefore();
+        }
+        
+        /**
+         * Whether the search would return this flight, ignoring its status
+         */
+        boolean matches(Flight flight) {
+            LocalDateTime departure = flight.getDepartureTime();
+            return (sourceAirportId == null || sourceAirportId.equals(flight.getSourceAirportId()))
+                && (destinationAirportId == null || destinationAirportId.equals(flight.getDestinationAirportId()))
+                && (departureFrom == null || (departure != null && !departure.isBefore(departureFrom)))
+                && (departureBefore == null || (departure != null && departure.isBefore(departureBefore)));
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(sourceAirportId, key.sourceAirportId)
+                && Objects.equals(destinationAirportId, key.destinationAirportId)
+                && Objects.equals(departureFrom, key.departureFrom)
+                && Objects.equals(departureBefore, key.departureBefore);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceAirportId, destinationAirportId, departureFrom, departureBefore);
+        }
+    }
+    
+    private static final class Entry {
+        final List<Flight> flights;
+        final Set<Long> flightIds;
+        final long expiresAtNanos;
+        
+        Entry(List<Flight> flights, long expiresAtNanos) {
+            this.flights = flights;
+            this.flightIds = new HashSet<>();
+            for (Flight flight : flights) {
+                flightIds.add(flight.getId());
+            }
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+    
+    FlightSearchCache(boolean enabled, int maxEntries, int ttlSeconds) {
+        this.enabled = enabled && maxEntries > 0 && ttlSeconds > 0;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    public static FlightSearchCache getInstance() {
+        return instance;
+    }
+    
+    /**
+     * Cached result for the query, or the loader's result on a miss
+     */
+    List<Flight> get(FlightSearchQuery query, Loader loader) throws SQLException {
+        if (!enabled) {
+            return loader.load();
+        }
+        
+        Key key = new Key(query);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAtNanos < 0) {
+                    hits.increment();
+                    return copyOf(entry.flights);
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        
+        long startGeneration = generation.get();
+        long start = System.nanoTime();
+        List<Flight> flights = loader.load();
+        long loaded = System.nanoTime();
+        loads.increment();
+        loadNanos.add(loaded - start);
+        
+        synchronized (entries) {
+            if (generation.get() == startGeneration) {
+                entries.put(key, new Entry(copyOf(flights), loaded + ttlNanos));
+            }
+        }
+        return flights;
+    }
+    
+    /**
+     * A flight was scheduled or edited: drop results that contain it or that it now matches
+     */
+    public void invalidate(Flight flight) {
+        invalidateWhere(entry -> entry.getValue().flightIds.contains(flight.getId())
+            || entry.getKey().matches(flight));
+    }
+    
+    /**
+     * A flight was cancelled, deleted or had its seats changed: drop results that contain it
+     */
+    public void invalidate(Long flightId) {
+        invalidateWhere(entry -> entry.getValue().flightIds.contains(flightId));
+    }
+    
+    /**
+     * Drop everything, e.g. after an airport and its flights were deleted
+     */
+    public void invalidateAll() {
+        invalidateWhere(entry -> true);
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    /**
+     * Hits over lookups since startup, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+    
+    /**
+     * Entries removed for size or age; invalidations are counted separately
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+    
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+    
+    public long getLoadCount() {
+        return loads.sum();
+    }
+    
+    public long getTotalLoadTimeNanos() {
+        return loadNanos.sum();
+    }
+    
+    /**
+     * Mean time of the searches run on a miss, in milliseconds
+     */
+    public double getAverageLoadMillis() {
+        long count = loads.sum();
+        return count == 0 ? 0.0 : loadNanos.sum() / (count * 1_000_000.0);
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    private void invalidateWhere(Predicate<Map.Entry<Key, Entry>> affected) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                if (affected.test(it.next())) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+    
+    private static List<Flight> copyOf(List<Flight> flights) {
+        List<Flight> copies = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            copies.add(copy(flight));
+        }
+        return copies;
+    }
+    
+    private static Flight copy(Flight flight) {
+        Flight copy = new Flight(flight.getId(), flight.getFlightNumber(), flight.getSourceAirportId(),
+            flight.getDestinationAirportId(), flight.getDepartureTime(), flight.getArrivalTime(),
+            flight.getSeatsAvailable(), flight.getPrice());
+        copy.setStatus(flight.getStatus());
+        copy.setSourceAirportCode(flight.getSourceAirportCode());
+        copy.setSourceAirportName(flight.getSourceAirportName());
+        copy.setDestinationAirportCode(flight.getDestinationAirportCode());
+        copy.setDestinationAirportName(flight.getDestinationAirportName());
+        copy.setCreatedAt(flight.getCreatedAt());
+        copy.setUpdatedAt(flight.getUpdatedAt());
+        return copy;
+    }
+}
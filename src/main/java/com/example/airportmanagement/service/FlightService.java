@@ -1,24 +1,58 @@
 package com.example.airportmanagement.service;
 
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.AirportCache;
 import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.dao.FlightSearchQuery;
+import com.example.airportmanagement.dao.RowHandler;
+import com.example.airportmanagement.model.Airport;
 import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.FlightChange;
+import com.example.airportmanagement.model.ImportProgress;
+import com.example.airportmanagement.model.Itinerary;
+import com.example.airportmanagement.model.Page;
+import com.example.airportmanagement.model.RouteStats;
+import com.example.airportmanagement.util.CursorUtil;
+import com.example.airportmanagement.util.DateUtil;
 import com.example.airportmanagement.util.ValidationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service layer for Flight business logic
  */
 public class FlightService {
     private static final Logger logger = LoggerFactory.getLogger(FlightService.class);
+    private static final int IMPORT_BATCH_SIZE = AppConfig.getAppIntProperty("flight.import.batchSize", 1000);
+    private static final int MAX_CONNECTION_LEGS = AppConfig.getAppIntProperty("flightGraph.maxLegs", 3);
+    private static final int MAX_CONNECTION_RESULTS = 20;
     private final FlightDAO flightDAO;
+    private final AirportCache airportCache;
+    private final SeatInventory seatInventory;
+    private final FlightSearchCache searchCache;
+    private final FlightGraph flightGraph;
+    private final FlightTimetable timetable;
+    private final FlightChangeBus changeBus;
+    private final TableVersion flightVersion;
     
     public FlightService() {
         this.flightDAO = new FlightDAO();
+        this.airportCache = AirportCache.getInstance();
+        this.seatInventory = SeatInventory.isEnabled() ? SeatInventory.getInstance() : null;
+        this.searchCache = FlightSearchCache.getInstance();
+        this.flightGraph = FlightGraph.getInstance();
+        this.timetable = FlightTimetable.getInstance();
+        this.changeBus = FlightChangeBus.getInstance();
+        this.flightVersion = TableVersion.flights();
     }
     
     /**
@@ -29,34 +63,8 @@ public class FlightService {
                                 LocalDateTime arrivalTime, Integer seatsAvailable, 
                                 Double price) throws ServiceException {
         try {
-            // Validate inputs
-            if (!ValidationUtil.isValidFlightNumber(flightNumber)) {
-                throw new ServiceException("Invalid flight number format. Expected format: AA123 or BA1234.");
-            }
-            
-            if (sourceAirportId == null || destinationAirportId == null) {
-                throw new ServiceException("Source and destination airports are required.");
-            }
-            
-            if (sourceAirportId.equals(destinationAirportId)) {
-                throw new ServiceException("Source and destination airports cannot be the same.");
-            }
-            
-            if (!ValidationUtil.isValidFlightTimes(departureTime, arrivalTime)) {
-                throw new ServiceException("Arrival time must be after departure time.");
-            }
-            
-            if (!ValidationUtil.isFutureDateTime(departureTime)) {
-                throw new ServiceException("Departure time must be in the future.");
-            }
-            
-            if (!ValidationUtil.isPositiveInteger(seatsAvailable)) {
-                throw new ServiceException("Seats available must be a positive number.");
-            }
-            
-            if (!ValidationUtil.isPositiveDouble(price)) {
-                throw new ServiceException("Price must be a positive number.");
-            }
+            validateFlight(flightNumber, sourceAirportId, destinationAirportId,
+                departureTime, arrivalTime, seatsAvailable, price);
             
             // Create flight
             Flight flight = new Flight();
@@ -70,13 +78,75 @@ public class FlightService {
             flight.setStatus(Flight.FlightStatus.SCHEDULED);
             
             Flight createdFlight = flightDAO.create(flight);
+            searchCache.invalidate(createdFlight);
+            flightGraph.refresh(createdFlight.getId());
+            timetable.markStale();
+            flightChanged(FlightChange.created(createdFlight));
             logger.info("Flight scheduled successfully: {}", flightNumber);
             
             return createdFlight;
             
         } catch (SQLException e) {
             logger.error("Error scheduling flight", e);
-            throw new ServiceException("Failed to schedule flight: " + e.getMessage());
+            throw new ServiceException("Failed to schedule flight: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Rules a new flight must satisfy, shared by scheduling and bulk import
+     */
+    static void validateFlight(String flightNumber, Long sourceAirportId, 
+                               Long destinationAirportId, LocalDateTime departureTime,
+                               LocalDateTime arrivalTime, Integer seatsAvailable, 
+                               Double price) throws ServiceException {
+        if (!ValidationUtil.isValidFlightNumber(flightNumber)) {
+            throw new ServiceException("Invalid flight number format. Expected format: AA123 or BA1234.");
+        }
+        
+        if (sourceAirportId == null || destinationAirportId == null) {
+            throw new ServiceException("Source and destination airports are required.");
+        }
+        
+        if (sourceAirportId.equals(destinationAirportId)) {
+            throw new ServiceException("Source and destination airports cannot be the same.");
+        }
+        
+        if (!ValidationUtil.isValidFlightTimes(departureTime, arrivalTime)) {
+            throw new ServiceException("Arrival time must be after departure time.");
+        }
+        
+        if (!ValidationUtil.isFutureDateTime(departureTime)) {
+            throw new ServiceException("Departure time must be in the future.");
+        }
+        
+        if (!ValidationUtil.isPositiveInteger(seatsAvailable)) {
+            throw new ServiceException("Seats available must be a positive number.");
+        }
+        
+        if (!ValidationUtil.isPositiveDouble(price)) {
+            throw new ServiceException("Price must be a positive number.");
+        }
+    }
+    
+    /**
+     * Import a timetable of CSV or JSON lines (see {@link FlightImporter}),
+     * reporting totals and rejected rows after each chunk is written
+     */
+    public ImportProgress importFlights(BufferedReader reader, ImportListener listener) 
+            throws ServiceException, IOException {
+        FlightImporter importer = new FlightImporter(flightDAO, this::resolveAirport, IMPORT_BATCH_SIZE);
+        try {
+            return importer.importFrom(reader, progress -> {
+                searchCache.invalidateAll();
+                listener.chunkDone(progress);
+            });
+        } catch (SQLException e) {
+            logger.error("Error importing flights", e);
+            throw new ServiceException("Failed to import flights: " + e.getMessage(), e);
+        } finally {
+            flightGraph.invalidate();
+            timetable.markStale();
+            flightChanged(FlightChange.reload());
         }
     }
     
@@ -85,11 +155,13 @@ public class FlightService {
      */
     public Flight getFlightById(Long id) throws ServiceException {
         try {
-            return flightDAO.findById(id)
+            Flight flight = flightDAO.findById(id)
                 .orElseThrow(() -> new ServiceException("Flight not found"));
+            applySeatInventory(flight);
+            return flight;
         } catch (SQLException e) {
             logger.error("Error fetching flight", e);
-            throw new ServiceException("Failed to fetch flight: " + e.getMessage());
+            throw new ServiceException("Failed to fetch flight: " + e.getMessage(), e);
         }
     }
     
@@ -98,23 +170,186 @@ public class FlightService {
      */
     public List<Flight> getAllFlights() throws ServiceException {
         try {
-            return flightDAO.findAll();
+            List<Flight> flights = flightDAO.findAll();
+            flights.forEach(this::applySeatInventory);
+            return flights;
         } catch (SQLException e) {
             logger.error("Error fetching flights", e);
-            throw new ServiceException("Failed to fetch flights: " + e.getMessage());
+            throw new ServiceException("Failed to fetch flights: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Stream all flights ordered by departure time
+     */
+    public void streamAllFlights(RowHandler<Flight> handler) throws ServiceException, IOException {
+        try {
+            flightDAO.streamAll(flight -> {
+                applySeatInventory(flight);
+                handler.handle(flight);
+            });
+        } catch (SQLException e) {
+            logger.error("Error streaming flights", e);
+            throw new ServiceException("Failed to fetch flights: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Search flights
+     * Get one page of flights ordered by departure time
+     */
+    public Page<Flight> getFlightsPage(String after, Integer limit) throws ServiceException {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        if (after != null && cursor == null) {
+            throw new ServiceException("Invalid pagination cursor.");
+        }
+        
+        int pageSize = CursorUtil.resolveLimit(limit);
+        if (pageSize < 0) {
+            throw new ServiceException("Limit must be a positive number.");
+        }
+        
+        try {
+            Page<Flight> page = flightDAO.findPage(cursor, pageSize);
+            page.getItems().forEach(this::applySeatInventory);
+            return page;
+        } catch (SQLException e) {
+            logger.error("Error fetching flights", e);
+            throw new ServiceException("Failed to fetch flights: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Search flights. Airport codes are resolved to ids first, so an unknown
+     * code returns no flights without querying the flights table.
      */
     public List<Flight> searchFlights(String sourceCode, String destCode, String date) 
             throws ServiceException {
         try {
-            return flightDAO.search(sourceCode, destCode, date);
+            FlightSearchQuery query = new FlightSearchQuery();
+            
+            if (ValidationUtil.isNotEmpty(sourceCode)) {
+                Optional<Airport> source = airportCache.findByCode(sourceCode);
+                if (source.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                query.sourceAirport(source.get().getId());
+            }
+            
+            if (ValidationUtil.isNotEmpty(destCode)) {
+                Optional<Airport> destination = airportCache.findByCode(destCode);
+                if (destination.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                query.destinationAirport(destination.get().getId());
+            }
+            
+            if (ValidationUtil.isNotEmpty(date)) {
+                LocalDate departureDate = DateUtil.parseDate(date);
+                if (departureDate == null) {
+                    throw new ServiceException("Invalid date format. Expected yyyy-MM-dd.");
+                }
+                query.departingOn(departureDate);
+            }
+            
+            List<Flight> flights = searchCache.get(query, () -> flightDAO.search(query));
+            flights.forEach(this::applySeatInventory);
+            return flights;
         } catch (SQLException e) {
             logger.error("Error searching flights", e);
-            throw new ServiceException("Failed to search flights: " + e.getMessage());
+            throw new ServiceException("Failed to search flights: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Find itineraries of up to {@code maxLegs} connecting flights leaving on
+     * the given date, best first by arrival time or by total price
+     */
+    public List<Itinerary> findConnections(String sourceCode, String destCode, String date,
+                                           Integer maxLegs, Integer limit, Integer seats, String sort) 
+            throws ServiceException {
+        try {
+            if (!ValidationUtil.isNotEmpty(sourceCode) || !ValidationUtil.isNotEmpty(destCode)) {
+                throw new ServiceException("Source and destination airports are required.");
+            }
+            
+            LocalDate departureDate = DateUtil.parseDate(date);
+            if (departureDate == null) {
+                throw new ServiceException("Invalid date format. Expected yyyy-MM-dd.");
+            }
+            if (departureDate.isAfter(flightGraph.getLastSearchableDate())) {
+                throw new ServiceException("Connections can only be searched up to " + 
+                    flightGraph.getLastSearchableDate() + ".");
+            }
+            
+            int legs = maxLegs != null ? maxLegs : 2;
+            if (legs < 1 || legs > MAX_CONNECTION_LEGS) {
+                throw new ServiceException("Max legs must be between 1 and " + MAX_CONNECTION_LEGS + ".");
+            }
+            
+            int results = limit != null ? limit : 5;
+            if (results < 1 || results > MAX_CONNECTION_RESULTS) {
+                throw new ServiceException("Limit must be between 1 and " + MAX_CONNECTION_RESULTS + ".");
+            }
+            
+            int seatsWanted = seats != null ? seats : 1;
+            if (!ValidationUtil.isPositiveInteger(seatsWanted)) {
+                throw new ServiceException("Seats must be a positive number.");
+            }
+            
+            FlightGraph.SortOrder sortOrder;
+            try {
+                sortOrder = ValidationUtil.isNotEmpty(sort)
+                    ? FlightGraph.SortOrder.valueOf(sort.trim().toUpperCase())
+                    : FlightGraph.SortOrder.ARRIVAL;
+            } catch (IllegalArgumentException e) {
+                throw new ServiceException("Sort must be arrival or price.");
+            }
+            
+            Optional<Airport> source = airportCache.findByCode(sourceCode);
+            Optional<Airport> destination = airportCache.findByCode(destCode);
+            if (source.isEmpty() || destination.isEmpty()) {
+                return new ArrayList<>();
+            }
+            
+            List<Itinerary> itineraries = flightGraph.findConnections(source.get().getId(),
+                destination.get().getId(), departureDate, legs, results, seatsWanted, sortOrder);
+            for (Itinerary itinerary : itineraries) {
+                itinerary.getLegs().forEach(this::applySeatInventory);
+            }
+            return itineraries;
+        } catch (SQLException e) {
+            logger.error("Error searching connections", e);
+            throw new ServiceException("Failed to search connections: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Flight count, seats and fares on a route for one day of departures,
+     * aggregated from the in-memory flight table
+     */
+    public RouteStats getRouteStats(String sourceCode, String destCode, String date) throws ServiceException {
+        try {
+            if (!ValidationUtil.isNotEmpty(sourceCode) || !ValidationUtil.isNotEmpty(destCode)) {
+                throw new ServiceException("Source and destination airports are required.");
+            }
+            
+            LocalDate day = DateUtil.parseDate(date);
+            if (day == null) {
+                throw new ServiceException("Invalid date format. Expected yyyy-MM-dd.");
+            }
+            
+            Optional<Airport> source = airportCache.findByCode(sourceCode);
+            Optional<Airport> destination = airportCache.findByCode(destCode);
+            if (source.isEmpty() || destination.isEmpty()) {
+                return new RouteStats(0, 0, null, null, null);
+            }
+            
+            return timetable.getTable().routeStats(source.get().getId(), destination.get().getId(),
+                FlightTable.epochSecond(day.atStartOfDay()),
+                FlightTable.epochSecond(day.plusDays(1).atStartOfDay()));
+        } catch (SQLException e) {
+            logger.error("Error computing route stats", e);
+            throw new ServiceException("Failed to compute route stats: " + e.getMessage(), e);
         }
     }
     
@@ -139,11 +374,28 @@ public class FlightService {
                 throw new ServiceException("Price must be a positive number.");
             }
             
-            return flightDAO.update(flight);
+            if (seatInventory != null) {
+                // Bring the flight row up to date first so the edited seat count is not adjusted twice
+                seatInventory.flushPending();
+            }
+            
+            boolean updated = flightDAO.update(flight);
+            
+            if (updated) {
+                searchCache.invalidate(flight);
+                flightGraph.refresh(flight.getId());
+                timetable.markStale();
+                if (seatInventory != null) {
+                    seatInventory.refresh(flight.getId());
+                }
+                flightChanged(FlightChange.schedule(flight));
+            }
+            
+            return updated;
             
         } catch (SQLException e) {
             logger.error("Error updating flight", e);
-            throw new ServiceException("Failed to update flight: " + e.getMessage());
+            throw new ServiceException("Failed to update flight: " + e.getMessage(), e);
         }
     }
     
@@ -152,17 +404,29 @@ public class FlightService {
      */
     public boolean cancelFlight(Long id) throws ServiceException {
         try {
-            Flight flight = getFlightById(id);
-            flight.setStatus(Flight.FlightStatus.CANCELLED);
+            Flight flight = flightDAO.findById(id)
+                .orElseThrow(() -> new ServiceException("Flight not found"));
             
-            boolean updated = flightDAO.update(flight);
+            // Status only: writing the whole row back would overwrite seat changes the
+            // inventory has not flushed yet, and they would then be applied twice
+            boolean updated = flightDAO.updateStatus(id, Flight.FlightStatus.CANCELLED);
             logger.info("Flight cancelled: {}", flight.getFlightNumber());
             
+            if (updated) {
+                searchCache.invalidate(id);
+                flightGraph.remove(id);
+                timetable.markStale();
+                if (seatInventory != null) {
+                    seatInventory.refresh(id);
+                }
+                flightChanged(FlightChange.status(id, Flight.FlightStatus.CANCELLED));
+            }
+            
             return updated;
             
         } catch (SQLException e) {
             logger.error("Error cancelling flight", e);
-            throw new ServiceException("Failed to cancel flight: " + e.getMessage());
+            throw new ServiceException("Failed to cancel flight: " + e.getMessage(), e);
         }
     }
     
@@ -171,10 +435,47 @@ public class FlightService {
      */
     public boolean deleteFlight(Long id) throws ServiceException {
         try {
-            return flightDAO.delete(id);
+            boolean deleted = flightDAO.delete(id);
+            if (deleted) {
+                searchCache.invalidate(id);
+                flightGraph.remove(id);
+                timetable.markStale();
+                if (seatInventory != null) {
+                    seatInventory.evict(id);
+                }
+                flightChanged(FlightChange.removed(id));
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.error("Error deleting flight", e);
-            throw new ServiceException("Failed to delete flight: " + e.getMessage());
+            throw new ServiceException("Failed to delete flight: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Bump the flights version and tell event stream clients what changed
+     */
+    private void flightChanged(FlightChange change) {
+        flightVersion.bump();
+        changeBus.publish(change);
+    }
+    
+    /**
+     * Airport id for an IATA code or numeric id, or null if there is no such airport
+     */
+    private Long resolveAirport(String reference) throws SQLException {
+        Optional<Airport> airport = reference.chars().allMatch(Character::isDigit)
+            ? airportCache.findById(Long.valueOf(reference))
+            : airportCache.findByCode(reference);
+        return airport.map(Airport::getId).orElse(null);
+    }
+    
+    /**
+     * Show seats held in the in-memory inventory rather than the possibly lagging flight row
+     */
+    private void applySeatInventory(Flight flight) {
+        if (seatInventory != null) {
+            seatInventory.applyTo(flight);
         }
     }
     
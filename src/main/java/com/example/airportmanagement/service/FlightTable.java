@@ -0,0 +1,347 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.RouteStats;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Read-only, columnar snapshot of the flights table.
+ *
+ * Each column is a primitive array indexed by row: ids, airport ids,
+ * departure and arrival as epoch seconds, seats, price in cents and status.
+ * Rows are ordered by route and, within a route, by departure time, so the
+ * flights of a route in a time window are one contiguous range found by a
+ * hash lookup and a binary search. Lookups, scans and aggregations over the
+ * table do not allocate; only {@link #toFlight} builds objects, for the rows
+ * a caller actually returns.
+ *
+ * Times are local date-times counted as if they were UTC, the same
+ * convention as everywhere else they are compared. A table is never
+ * modified after {@link Builder#build}; see {@link FlightTimetable} for
+ * how snapshots are refreshed.
+ */
+public final class FlightTable {
+    private static final Flight.FlightStatus[] STATUSES = Flight.FlightStatus.values();
+    private static final int MAX_ROWS = (1 << 24) - 1;
+    
+    private final long[] ids;
+    private final long[] sources;
+    private final long[] destinations;
+    private final long[] departures;
+    private final long[] arrivals;
+    private final int[] seats;
+    private final long[] priceCents;
+    private final byte[] statuses;
+    private final String[] flightNumbers;
+    
+    // Open-addressing route index: slot -> route number, or -1 when empty
+    private final long[] slotSources;
+    private final long[] slotDestinations;
+    private final int[] slotRoutes;
+    // Rows of route r are [routeOffsets[r], routeOffsets[r + 1])
+    private final int[] routeOffsets;
+    
+    private final long builtAtMillis;
+    
+    private FlightTable(Builder builder, int[] order, int[] routeOfRow, int routes) {
+        int size = builder.size;
+        ids = new long[size];
+        sources = new long[size];
+        destinations = new long[size];
+        departures = new long[size];
+        arrivals = new long[size];
+        seats = new int[size];
+        priceCents = new long[size];
+        statuses = new byte[size];
+        flightNumbers = new String[size];
+        
+        routeOffsets = new int[routes + 1];
+        for (int row = 0; row < size; row++) {
+            routeOffsets[routeOfRow[row] + 1]++;
+        }
+        for (int route = 0; route < routes; route++) {
+            routeOffsets[route + 1] += routeOffsets[route];
+        }
+        
+        // Stable placement of rows already in departure order keeps each route sorted
+        int[] next = Arrays.copyOf(routeOffsets, routes);
+        for (int row : order) {
+            int at = next[routeOfRow[row]]++;
+            ids[at] = builder.ids[row];
+            sources[at] = builder.sources[row];
+            destinations[at] = builder.destinations[row];
+            departures[at] = builder.departures[row];
+            arrivals[at] = builder.arrivals[row];
+            seats[at] = builder.seats[row];
+            priceCents[at] = builder.priceCents[row];
+            statuses[at] = builder.statuses[row];
+            flightNumbers[at] = builder.flightNumbers[row];
+        }
+        
+        slotSources = builder.slotSources;
+        slotDestinations = builder.slotDestinations;
+        slotRoutes = builder.slotRoutes;
+        builtAtMillis = System.currentTimeMillis();
+    }
+    
+    /**
+     * Collects flights in any order and builds the table
+     */
+    public static final class Builder {
+        private int size;
+        private long[] ids = new long[1024];
+        private long[] sources = new long[1024];
+        private long[] destinations = new long[1024];
+        private long[] departures = new long[1024];
+        private long[] arrivals = new long[1024];
+        private int[] seats = new int[1024];
+        private long[] priceCents = new long[1024];
+        private byte[] statuses = new byte[1024];
+        private String[] flightNumbers = new String[1024];
+        
+        private long[] slotSources;
+        private long[] slotDestinations;
+        private int[] slotRoutes;
+        
+        public void add(Flight flight) {
+            if (size == MAX_ROWS) {
+                throw new IllegalStateException("Flight table is limited to " + MAX_ROWS + " rows");
+            }
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                departures = Arrays.copyOf(departures, capacity);
+                arrivals = Arrays.copyOf(arrivals, capacity);
+                seats = Arrays.copyOf(seats, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                flightNumbers = Arrays.copyOf(flightNumbers, capacity);
+            }
+            ids[size] = flight.getId();
+            sources[size] = flight.getSourceAirportId();
+            destinations[size] = flight.getDestinationAirportId();
+            departures[size] = epochSecond(flight.getDepartureTime());
+            arrivals[size] = epochSecond(flight.getArrivalTime());
+            seats[size] = flight.getSeatsAvailable();
+            priceCents[size] = Math.round(flight.getPrice() * 100);
+            statuses[size] = (byte) (flight.getStatus() != null
+                ? flight.getStatus() : Flight.FlightStatus.SCHEDULED).ordinal();
+            flightNumbers[size] = flight.getFlightNumber();
+            size++;
+        }
+        
+        public FlightTable build() {
+            // Sort rows by departure on packed primitive keys: departure in the
+            // high bits, row number in the low 24
+            long[] keys = new long[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = (departures[row] << 24) | row;
+            }
+            Arrays.sort(keys);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) (keys[i] & MAX_ROWS);
+            }
+            
+            slotRoutes = null;
+            resize(64);
+            int routes = 0;
+            int[] routeOfRow = new int[size];
+            for (int row = 0; row < size; row++) {
+                int slot = findSlot(slotSources, slotDestinations, slotRoutes, sources[row], destinations[row]);
+                int route = slotRoutes[slot];
+                if (route < 0) {
+                    route = routes++;
+                    slotSources[slot] = sources[row];
+                    slotDestinations[slot] = destinations[row];
+                    slotRoutes[slot] = route;
+                    if (routes * 2 > slotRoutes.length) {
+                        resize(slotRoutes.length * 2);
+                    }
+                }
+                routeOfRow[row] = route;
+            }
+            return new FlightTable(this, order, routeOfRow, routes);
+        }
+        
+        /**
+         * Rehash the route index into a table of the given power-of-two size, kept at most half full
+         */
+        private void resize(int capacity) {
+            long[] oldSources = slotSources;
+            long[] oldDestinations = slotDestinations;
+            int[] oldRoutes = slotRoutes;
+            
+            slotSources = new long[capacity];
+            slotDestinations = new long[capacity];
+            slotRoutes = new int[capacity];
+            Arrays.fill(slotRoutes, -1);
+            if (oldRoutes == null) {
+                return;
+            }
+            for (int i = 0; i < oldRoutes.length; i++) {
+                if (oldRoutes[i] >= 0) {
+                    int slot = findSlot(slotSources, slotDestinations, slotRoutes, oldSources[i], oldDestinations[i]);
+                    slotSources[slot] = oldSources[i];
+                    slotDestinations[slot] = oldDestinations[i];
+                    slotRoutes[slot] = oldRoutes[i];
+                }
+            }
+        }
+    }
+    
+    public int size() {
+        return ids.length;
+    }
+    
+    public int getRouteCount() {
+        return routeOffsets.length - 1;
+    }
+    
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+    
+    /**
+     * Route number for a pair of airports, or -1 if no flight flies it
+     */
+    public int route(long sourceAirportId, long destinationAirportId) {
+        int slot = findSlot(slotSources, slotDestinations, slotRoutes, sourceAirportId, destinationAirportId);
+        return slotRoutes[slot];
+    }
+    
+    /**
+     * First row of the route departing at or after the given epoch second
+     */
+    public int firstRow(int route, long departingFrom) {
+        int low = routeOffsets[route];
+        int high = routeOffsets[route + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departures[mid] < departingFrom) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * One past the last row of the route
+     */
+    public int endRow(int route) {
+        return routeOffsets[route + 1];
+    }
+    
+    public long getId(int row) {
+        return ids[row];
+    }
+    
+    public long getSourceAirportId(int row) {
+        return sources[row];
+    }
+    
+    public long getDestinationAirportId(int row) {
+        return destinations[row];
+    }
+    
+    public long getDepartureEpochSecond(int row) {
+        return departures[row];
+    }
+    
+    public long getArrivalEpochSecond(int row) {
+        return arrivals[row];
+    }
+    
+    public int getSeatsAvailable(int row) {
+        return seats[row];
+    }
+    
+    public long getPriceCents(int row) {
+        return priceCents[row];
+    }
+    
+    public Flight.FlightStatus getStatus(int row) {
+        return STATUSES[statuses[row]];
+    }
+    
+    /**
+     * Flight count, seats and prices of the non-cancelled flights on a route
+     * departing in [departingFrom, departingBefore)
+     */
+    public RouteStats routeStats(long sourceAirportId, long destinationAirportId,
+            long departingFrom, long departingBefore) {
+        int flights = 0;
+        long totalSeats = 0;
+        long minCents = Long.MAX_VALUE;
+        long maxCents = 0;
+        long sumCents = 0;
+        
+        int route = route(sourceAirportId, destinationAirportId);
+        if (route >= 0) {
+            int cancelled = Flight.FlightStatus.CANCELLED.ordinal();
+            int end = endRow(route);
+            for (int row = firstRow(route, departingFrom); row < end && departures[row] < departingBefore; row++) {
+                if (statuses[row] == cancelled) {
+                    continue;
+                }
+                flights++;
+                totalSeats += seats[row];
+                sumCents += priceCents[row];
+                minCents = Math.min(minCents, priceCents[row]);
+                maxCents = Math.max(maxCents, priceCents[row]);
+            }
+        }
+        
+        if (flights == 0) {
+            return new RouteStats(0, 0, null, null, null);
+        }
+        return new RouteStats(flights, totalSeats, minCents / 100.0,
+            Math.round((double) sumCents / flights) / 100.0, maxCents / 100.0);
+    }
+    
+    /**
+     * Flights per status, indexed by {@link Flight.FlightStatus#ordinal()}
+     */
+    public int[] countByStatus() {
+        int[] counts = new int[STATUSES.length];
+        for (byte status : statuses) {
+            counts[status]++;
+        }
+        return counts;
+    }
+    
+    /**
+     * Materialize one row; airport codes and names are not part of the table
+     */
+    public Flight toFlight(int row) {
+        Flight flight = new Flight(ids[row], flightNumbers[row], sources[row], destinations[row],
+            LocalDateTime.ofEpochSecond(departures[row], 0, ZoneOffset.UTC),
+            LocalDateTime.ofEpochSecond(arrivals[row], 0, ZoneOffset.UTC),
+            seats[row], priceCents[row] / 100.0);
+        flight.setStatus(getStatus(row));
+        return flight;
+    }
+    
+    public static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static int findSlot(long[] slotSources, long[] slotDestinations, int[] slotRoutes,
+            long source, long destination) {
+        int mask = slotRoutes.length - 1;
+        long hash = source * 0x9E3779B97F4A7C15L + destination;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (slotRoutes[slot] >= 0
+                && (slotSources[slot] != source || slotDestinations[slot] != destination)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.FlightDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link FlightTable} snapshot and replaces it when it is
+ * older than {@code flightTable.refreshSeconds} or a schedule change marked
+ * it stale.
+ *
+ * A new table is built from a streaming read of the flights table and
+ * swapped in through a volatile reference, so readers always see one
+ * complete snapshot. While one thread rebuilds, the others keep reading the
+ * previous table rather than waiting. Bookings do not mark the table stale:
+ * its seat counts may lag by up to the refresh interval.
+ */
+public class FlightTimetable {
+    private static final Logger logger = LoggerFactory.getLogger(FlightTimetable.class);
+    
+    private static final FlightTimetable instance = new FlightTimetable(new FlightDAO(),
+        AppConfig.getAppIntProperty("flightTable.refreshSeconds", 60));
+    
+    private final FlightDAO flightDAO;
+    private final long refreshNanos;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile boolean stale;
+    
+    private static final class Snapshot {
+        final FlightTable table;
+        final long builtNanos;
+        
+        Snapshot(FlightTable table, long builtNanos) {
+            this.table = table;
+            this.builtNanos = builtNanos;
+        }
+    }
+    
+    FlightTimetable(FlightDAO flightDAO, int refreshSeconds) {
+        this.flightDAO = flightDAO;
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(refreshSeconds);
+    }
+    
+    public static FlightTimetable getInstance() {
+        return instance;
+    }
+    
+    /**
+     * Current table; the first call builds it
+     */
+    public FlightTable getTable() throws SQLException {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuildLock.lock();
+            try {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                return snapshot.table;
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        
+        if ((stale || System.nanoTime() - current.builtNanos > refreshNanos) && rebuildLock.tryLock()) {
+            try {
+                current = snapshot;
+                if (stale || System.nanoTime() - current.builtNanos > refreshNanos) {
+                    rebuild();
+                }
+            } catch (SQLException e) {
+                logger.warn("Failed to rebuild flight table; serving the previous snapshot", e);
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return snapshot.table;
+    }
+    
+    /**
+     * Flights were scheduled, edited, cancelled or deleted; the next read rebuilds the table
+     */
+    public void markStale() {
+        stale = true;
+    }
+    
+    /**
+     * Rows in the current table, or 0 before it is first built
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current != null ? current.table.size() : 0;
+    }
+    
+    /**
+     * Seconds since the current table was built, or 0 before it is first built
+     */
+    public double getAgeSeconds() {
+        Snapshot current = snapshot;
+        return current != null ? (System.nanoTime() - current.builtNanos) / 1e9 : 0.0;
+    }
+    
+    private void rebuild() throws SQLException {
+        // Cleared first: a change made while the table is read marks it stale again
+        stale = false;
+        long start = System.nanoTime();
+        FlightTable.Builder builder = new FlightTable.Builder();
+        try {
+            flightDAO.streamAll(builder::add);
+        } catch (SQLException | IOException | RuntimeException e) {
+            stale = true;
+            if (e instanceof SQLException) {
+                throw (SQLException) e;
+            }
+            throw new SQLException("Failed to build flight table: " + e.getMessage(), e);
+        }
+        FlightTable table = builder.build();
+        snapshot = new Snapshot(table, start);
+        logger.info("Flight table built: {} flights on {} routes in {} ms", table.size(),
+            table.getRouteCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
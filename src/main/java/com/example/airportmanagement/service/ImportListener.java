@@ -0,0 +1,17 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.model.ImportProgress;
+
+import java.io.IOException;
+
+/**
+ * Receives progress from a bulk import after each chunk is written
+ */
+@FunctionalInterface
+public interface ImportListener {
+    
+    /**
+     * Totals so far and the rows rejected in this chunk
+     */
+    void chunkDone(ImportProgress progress) throws IOException;
+}
@@ -0,0 +1,252 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.model.ImportProgress;
+import com.example.airportmanagement.model.ImportProgress.ImportError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads an upload line by line and writes it in chunks.
+ *
+ * Each line is either CSV, with the importer's columns in order, or a JSON
+ * object with the same field names; a leading CSV header line is skipped.
+ * A chunk of {@code batchSize} lines is parsed and validated in parallel,
+ * then passed through {@link #admit} in line order, and its accepted rows
+ * are written together by {@link #write}. If that fails, the chunk is retried
+ * row by row with {@link #writeOne} so each bad row is reported on its own;
+ * an error that is not about the row's data (e.g. the database is
+ * unreachable) stops the import instead. Chunks already written stay written.
+ */
+abstract class LineImporter<T> {
+    private static final Logger logger = LoggerFactory.getLogger(LineImporter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final String name;
+    private final String[] columns;
+    private final int batchSize;
+    
+    private static final class Row<T> {
+        final long line;
+        T item;
+        String error;
+        
+        Row(long line) {
+            this.line = line;
+        }
+    }
+    
+    LineImporter(String name, String[] columns, int batchSize) {
+        this.name = name;
+        this.columns = columns;
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * Build and validate one item from its fields, in column order; blank fields are null.
+     * Runs on several threads at once.
+     */
+    protected abstract T parse(String[] fields) throws ServiceException, SQLException;
+    
+    /**
+     * Checks that need the rows before it, run in line order; returns why the row is rejected, or null
+     */
+    protected String admit(T item, long line) {
+        return null;
+    }
+    
+    /**
+     * Write a chunk of accepted items, all or nothing
+     */
+    protected abstract void write(List<T> items) throws SQLException;
+    
+    /**
+     * Write one item after its chunk failed
+     */
+    protected abstract void writeOne(T item) throws SQLException;
+    
+    /**
+     * Import every line of the reader, reporting after each chunk. Returns the totals.
+     */
+    ImportProgress importFrom(BufferedReader reader, ImportListener listener) throws IOException, SQLException {
+        long lineNumber = 0;
+        long rowsRead = 0;
+        long imported = 0;
+        long failed = 0;
+        boolean first = true;
+        
+        List<String> lines = new ArrayList<>(batchSize);
+        List<Long> lineNumbers = new ArrayList<>(batchSize);
+        String line;
+        do {
+            line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (first) {
+                    first = false;
+                    if (line.trim().regionMatches(true, 0, columns[0], 0, columns[0].length())) {
+                        continue;
+                    }
+                }
+                lines.add(line);
+                lineNumbers.add(lineNumber);
+            }
+            
+            if (lines.size() == batchSize || (line == null && !lines.isEmpty())) {
+                List<ImportError> errors = importChunk(lines, lineNumbers);
+                rowsRead += lines.size();
+                imported += lines.size() - errors.size();
+                failed += errors.size();
+                listener.chunkDone(new ImportProgress(rowsRead, imported, failed, errors));
+                lines.clear();
+                lineNumbers.clear();
+            }
+        } while (line != null);
+        
+        logger.info("{} import finished: {} rows, {} imported, {} failed", name, rowsRead, imported, failed);
+        return new ImportProgress(rowsRead, imported, failed, new ArrayList<>());
+    }
+    
+    /**
+     * Validate and write one chunk; returns the rejected rows in line order
+     */
+    private List<ImportError> importChunk(List<String> lines, List<Long> lineNumbers) throws SQLException {
+        List<Row<T>> rows = new ArrayList<>(lines.size());
+        for (long line : lineNumbers) {
+            rows.add(new Row<>(line));
+        }
+        IntStream.range(0, rows.size()).parallel()
+            .forEach(i -> parseLine(lines.get(i), rows.get(i)));
+        
+        List<Row<T>> accepted = new ArrayList<>();
+        List<T> items = new ArrayList<>();
+        for (Row<T> row : rows) {
+            if (row.error == null) {
+                row.error = admit(row.item, row.line);
+            }
+            if (row.error == null) {
+                accepted.add(row);
+                items.add(row.item);
+            }
+        }
+        
+        if (!items.isEmpty()) {
+            try {
+                write(items);
+            } catch (SQLException e) {
+                logger.warn("{} import batch of {} failed, retrying row by row", name, items.size(), e);
+                for (Row<T> row : accepted) {
+                    try {
+                        writeOne(row.item);
+                    } catch (SQLException rowError) {
+                        if (!isDataError(rowError)) {
+                            throw rowError;
+                        }
+                        row.error = "Failed to import " + name + ": " + rowError.getMessage();
+                    }
+                }
+            }
+        }
+        
+        List<ImportError> errors = new ArrayList<>();
+        for (Row<T> row : rows) {
+            if (row.error != null) {
+                errors.add(new ImportError(row.line, row.error));
+            }
+        }
+        errors.sort(Comparator.comparingLong(ImportError::getLine));
+        return errors;
+    }
+    
+    private void parseLine(String line, Row<T> row) {
+        try {
+            String trimmed = line.trim();
+            row.item = parse(trimmed.startsWith("{") ? jsonFields(trimmed) : csvFields(trimmed));
+        } catch (NumberFormatException e) {
+            row.error = "Invalid number format";
+        } catch (ServiceException e) {
+            row.error = e.getMessage();
+        } catch (SQLException e) {
+            row.error = "Failed to import " + name + ": " + e.getMessage();
+        }
+    }
+    
+    /**
+     * SQL states of class 22 (data exception) and 23 (constraint violation) blame the row
+     */
+    private static boolean isDataError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+    
+    /**
+     * Split a CSV line; a field in double quotes may contain commas and doubled quotes
+     */
+    private String[] csvFields(String line) throws ServiceException {
+        List<String> fields = new ArrayList<>(columns.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ServiceException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        
+        if (fields.size() != columns.length) {
+            throw new ServiceException("Expected " + columns.length + " columns, got " + fields.size() + ".");
+        }
+        String[] values = new String[columns.length];
+        for (int i = 0; i < values.length; i++) {
+            String value = fields.get(i).trim();
+            values[i] = value.isEmpty() ? null : value;
+        }
+        return values;
+    }
+    
+    private String[] jsonFields(String line) throws ServiceException {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            JsonNode value = node.get(columns[i]);
+            values[i] = value == null || value.isNull() ? null : value.asText().trim();
+        }
+        return values;
+    }
+}
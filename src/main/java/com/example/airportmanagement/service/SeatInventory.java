@@ -0,0 +1,413 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.config.AppConfig;
+import com.example.airportmanagement.dao.BookingDAO;
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.model.Flight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory seat inventory in front of the flights table.
+ *
+ * Seats left per flight are held in memory and guarded by one of a fixed set
+ * of lock stripes, so concurrent bookings for a popular flight never queue on
+ * its InnoDB row lock. Bookings granted here are inserted with
+ * {@code seats_reflected = FALSE} and a write-behind job applies the net seat
+ * change to {@code flights} in batches.
+ *
+ * Crash-recovery rules:
+ * <ul>
+ *   <li>The bookings table is the durable record. A hold only becomes a
+ *       booking once its row is committed; a hold whose insert fails is
+ *       returned to the inventory and nothing is written.</li>
+ *   <li>{@code flights.seats_available} may lag behind by the bookings whose
+ *       seats are not yet reflected. The flush applies them and flips the
+ *       flag in the same transaction, so it is idempotent and can be rerun
+ *       after a crash at any point.</li>
+ *   <li>Counters are loaded from the flight row adjusted by pending bookings,
+ *       never from the flight row alone, so a restart before a flush loses
+ *       nothing. Pending changes left by a previous process are flushed on
+ *       startup.</li>
+ *   <li>The reconciliation job reloads every cached counter from the
+ *       database. Any error it can make is towards fewer seats, which the
+ *       next pass corrects, never towards overselling.</li>
+ * </ul>
+ */
+public class SeatInventory {
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+    
+    private static final boolean ENABLED = AppConfig.getAppBooleanProperty("inventory.enabled", false);
+    private static final int STRIPES = 64;
+    
+    private static final ReentrantLock instanceLock = new ReentrantLock();
+    private static volatile SeatInventory instance;
+    
+    public enum HoldResult {
+        GRANTED, INSUFFICIENT_SEATS, NOT_BOOKABLE, NOT_FOUND
+    }
+    
+    private final FlightDAO flightDAO;
+    private final BookingDAO bookingDAO;
+    private final int flushBatchSize;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private ScheduledExecutorService scheduler;
+    
+    private final LongAdder holdsGranted = new LongAdder();
+    private final LongAdder holdsDenied = new LongAdder();
+    private final LongAdder driftCorrections = new LongAdder();
+    
+    /**
+     * Per-flight counter. {@code available} is readable without the stripe
+     * lock; every other field and every write is guarded by it.
+     */
+    private static final class Entry {
+        final AtomicInteger available = new AtomicInteger();
+        volatile double price;
+        volatile boolean bookable;
+        int inFlight;
+        // Bumped by every hold, confirm, abort and release, so a reload can tell the counter moved
+        long version;
+    }
+    
+    SeatInventory(FlightDAO flightDAO, BookingDAO bookingDAO, int flushBatchSize) {
+        this.flightDAO = flightDAO;
+        this.bookingDAO = bookingDAO;
+        this.flushBatchSize = flushBatchSize;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Whether bookings go through the in-memory inventory ({@code inventory.enabled})
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+    
+    /**
+     * Shared inventory; the first call recovers pending changes and starts the background jobs
+     */
+    public static SeatInventory getInstance() {
+        if (instance == null) {
+            // Not a monitor: start() runs JDBC, which would pin a virtual thread
+            instanceLock.lock();
+            try {
+                if (instance == null) {
+                    SeatInventory inventory = new SeatInventory(new FlightDAO(), new BookingDAO(),
+                        AppConfig.getAppIntProperty("inventory.flushBatchSize", 500));
+                    inventory.start(
+                        AppConfig.getAppIntProperty("inventory.flushIntervalMillis", 1000),
+                        AppConfig.getAppIntProperty("inventory.reconcileIntervalSeconds", 300));
+                    instance = inventory;
+                }
+            } finally {
+                instanceLock.unlock();
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Stop the shared inventory if it was started, flushing what is pending
+     */
+    public static void shutdownInstance() {
+        SeatInventory inventory = instance;
+        if (inventory != null) {
+            inventory.shutdown();
+        }
+    }
+    
+    private void start(long flushIntervalMillis, long reconcileIntervalSeconds) {
+        try {
+            int recovered = flushPending();
+            logger.info("Seat inventory started; flushed {} flights left pending by a previous run", recovered);
+        } catch (SQLException e) {
+            logger.error("Failed to flush pending seat changes on startup; the flush job will retry", e);
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-inventory");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runFlush,
+            flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::reconcile,
+            reconcileIntervalSeconds, reconcileIntervalSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Try to hold seats on a flight. A granted hold must be followed by
+     * {@link #confirm} once the booking row is committed, or {@link #abort}.
+     */
+    public HoldResult tryHold(Long flightId, int seats) throws SQLException {
+        Entry entry = getOrLoad(flightId);
+        if (entry == null) {
+            holdsDenied.increment();
+            return HoldResult.NOT_FOUND;
+        }
+        
+        ReentrantLock lock = stripeFor(flightId);
+        lock.lock();
+        try {
+            if (!entry.bookable) {
+                holdsDenied.increment();
+                return HoldResult.NOT_BOOKABLE;
+            }
+            
+            int available = entry.available.get();
+            if (available < seats) {
+                holdsDenied.increment();
+                return HoldResult.INSUFFICIENT_SEATS;
+            }
+            
+            entry.available.set(available - seats);
+            entry.inFlight += seats;
+            entry.version++;
+            holdsGranted.increment();
+            return HoldResult.GRANTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * The booking for a granted hold has been committed
+     */
+    public void confirm(Long flightId, int seats) {
+        update(flightId, entry -> entry.inFlight -= seats);
+    }
+    
+    /**
+     * The booking for a granted hold was not written; give the seats back
+     */
+    public void abort(Long flightId, int seats) {
+        update(flightId, entry -> {
+            entry.inFlight -= seats;
+            entry.available.addAndGet(seats);
+        });
+    }
+    
+    /**
+     * A committed booking was cancelled; its seats are bookable again
+     */
+    public void release(Long flightId, int seats) {
+        update(flightId, entry -> entry.available.addAndGet(seats));
+    }
+    
+    /**
+     * Seats left according to the inventory, or null if the flight is not loaded
+     */
+    public Integer getAvailableSeats(Long flightId) {
+        Entry entry = entries.get(flightId);
+        return entry != null ? entry.available.get() : null;
+    }
+    
+    /**
+     * Price per seat as of the last load of this flight, or null if not loaded
+     */
+    public Double getPrice(Long flightId) {
+        Entry entry = entries.get(flightId);
+        return entry != null ? entry.price : null;
+    }
+    
+    /**
+     * Overwrite the flight's seat count with the inventory's view when it has one
+     */
+    public void applyTo(Flight flight) {
+        Integer available = getAvailableSeats(flight.getId());
+        if (available != null) {
+            flight.setSeatsAvailable(available);
+        }
+    }
+    
+    /**
+     * Reload one flight from the database, e.g. after staff edited or cancelled it
+     */
+    public void refresh(Long flightId) throws SQLException {
+        if (entries.containsKey(flightId)) {
+            reload(flightId);
+        }
+    }
+    
+    /**
+     * Forget a flight, e.g. after it was deleted
+     */
+    public void evict(Long flightId) {
+        entries.remove(flightId);
+    }
+    
+    /**
+     * Apply all pending seat changes to the flights table now.
+     * Returns the number of flights touched.
+     */
+    public int flushPending() throws SQLException {
+        int flights = 0;
+        Map<Long, Integer> deltas;
+        do {
+            deltas = bookingDAO.flushPendingSeatChanges(flushBatchSize);
+            flights += deltas.size();
+        } while (!deltas.isEmpty());
+        return flights;
+    }
+    
+    /**
+     * Compare every cached counter with the database and correct any drift
+     */
+    public void reconcile() {
+        for (Long flightId : entries.keySet()) {
+            try {
+                reload(flightId);
+            } catch (SQLException | RuntimeException e) {
+                logger.warn("Failed to reconcile seat inventory for flight {}", flightId, e);
+            }
+        }
+    }
+    
+    public long getHoldsGranted() {
+        return holdsGranted.sum();
+    }
+    
+    public long getHoldsDenied() {
+        return holdsDenied.sum();
+    }
+    
+    public long getDriftCorrections() {
+        return driftCorrections.sum();
+    }
+    
+    public int getCachedFlightCount() {
+        return entries.size();
+    }
+    
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        try {
+            flushPending();
+        } catch (SQLException e) {
+            logger.warn("Final seat flush failed; pending changes will be flushed on next startup", e);
+        }
+    }
+    
+    private void runFlush() {
+        try {
+            flushPending();
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Seat inventory flush failed; will retry", e);
+        }
+    }
+    
+    /**
+     * The first load of a flight runs without any lock; when two callers race,
+     * the entry installed first wins. No hold can exist before it is installed.
+     */
+    private Entry getOrLoad(Long flightId) throws SQLException {
+        Entry entry = entries.get(flightId);
+        if (entry != null) {
+            return entry;
+        }
+        
+        Optional<Flight> flight = flightDAO.findSeatAvailability(flightId);
+        if (flight.isEmpty()) {
+            return null;
+        }
+        entry = new Entry();
+        entry.available.set(flight.get().getSeatsAvailable());
+        applyDetails(entry, flight.get());
+        Entry existing = entries.putIfAbsent(flightId, entry);
+        return existing != null ? existing : entry;
+    }
+    
+    /**
+     * The query runs outside the stripe lock so holds on the flight never wait
+     * on JDBC. The counter is reset from the row only if no hold, confirm,
+     * abort or release touched it since the read began; otherwise the row may
+     * predate that change and the counter is left for the next pass. Price and
+     * status do not depend on holds and are applied either way. A booking
+     * committed but not yet confirmed is counted twice here, which only ever
+     * under-reports seats until the next pass.
+     */
+    private void reload(Long flightId) throws SQLException {
+        Entry entry = entries.get(flightId);
+        if (entry == null) {
+            return;
+        }
+        ReentrantLock lock = stripeFor(flightId);
+        long version;
+        lock.lock();
+        try {
+            version = entry.version;
+        } finally {
+            lock.unlock();
+        }
+        
+        Optional<Flight> flight = flightDAO.findSeatAvailability(flightId);
+        
+        lock.lock();
+        try {
+            if (entries.get(flightId) != entry) {
+                // Evicted, and possibly loaded afresh, meanwhile
+                return;
+            }
+            if (flight.isEmpty()) {
+                entries.remove(flightId);
+                return;
+            }
+            
+            applyDetails(entry, flight.get());
+            if (entry.version != version) {
+                logger.debug("Seat inventory for flight {} changed during reload; counter left as is", flightId);
+                return;
+            }
+            int before = entry.available.get();
+            entry.available.set(Math.max(0, flight.get().getSeatsAvailable() - entry.inFlight));
+            if (before != entry.available.get()) {
+                driftCorrections.increment();
+                logger.info("Seat inventory for flight {} corrected from {} to {} (in flight: {})",
+                    flightId, before, entry.available.get(), entry.inFlight);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void applyDetails(Entry entry, Flight flight) {
+        entry.price = flight.getPrice();
+        entry.bookable = flight.getStatus() != Flight.FlightStatus.CANCELLED;
+    }
+    
+    private void update(Long flightId, Consumer<Entry> change) {
+        ReentrantLock lock = stripeFor(flightId);
+        lock.lock();
+        try {
+            Entry entry = entries.get(flightId);
+            if (entry != null) {
+                change.accept(entry);
+                entry.version++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ReentrantLock stripeFor(Long flightId) {
+        return stripes[(Long.hashCode(flightId) & 0x7fffffff) % STRIPES];
+    }
+}
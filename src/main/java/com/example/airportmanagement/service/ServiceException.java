@@ -1,14 +1,32 @@
 package com.example.airportmanagement.service;
 
+import com.example.airportmanagement.metrics.Metrics;
+
 /**
- * Custom exception for service layer
+ * Custom exception for service layer.
+ *
+ * Every instance is counted by the service that raised it and by kind:
+ * "failed" when it wraps an underlying error, "rejected" when the request
+ * itself was invalid or not allowed.
  */
 public class ServiceException extends Exception {
     public ServiceException(String message) {
         super(message);
+        count();
     }
     
     public ServiceException(String message, Throwable cause) {
         super(message, cause);
+        count();
+    }
+    
+    private void count() {
+        StackTraceElement[] trace = getStackTrace();
+        String service = "unknown";
+        if (trace.length > 0) {
+            String className = trace[0].getClassName();
+            service = className.substring(className.lastIndexOf('.') + 1);
+        }
+        Metrics.countServiceException(service, getCause() != null ? "failed" : "rejected");
     }
 }
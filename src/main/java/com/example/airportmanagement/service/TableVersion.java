@@ -0,0 +1,53 @@
+package com.example.airportmanagement.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counter for a table served by cacheable GET endpoints.
+ *
+ * The services bump it after every write they make to the table, so a
+ * response can be tagged with the versions it was built from and a
+ * conditional GET answered without a query. Counters start from the clock
+ * at startup, so a tag issued by an earlier process never matches. Rows
+ * changed behind the application's back are not counted.
+ */
+public final class TableVersion {
+    private static final TableVersion flights = new TableVersion();
+    private static final TableVersion airports = new TableVersion();
+    
+    private final AtomicLong version;
+    private volatile long lastModifiedMillis;
+    
+    TableVersion() {
+        long now = System.currentTimeMillis();
+        this.version = new AtomicLong(now * 1000);
+        this.lastModifiedMillis = now;
+    }
+    
+    /**
+     * Flights, including their seat counts and status
+     */
+    public static TableVersion flights() {
+        return flights;
+    }
+    
+    public static TableVersion airports() {
+        return airports;
+    }
+    
+    /**
+     * Record a write; call it after the write is committed
+     */
+    public void bump() {
+        lastModifiedMillis = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+    
+    public long get() {
+        return version.get();
+    }
+    
+    public long getLastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+}
@@ -67,7 +67,7 @@ public class UserService {
             
         } catch (SQLException e) {
             logger.error("Error registering user", e);
-            throw new ServiceException("Failed to register user: " + e.getMessage());
+            throw new ServiceException("Failed to register user: " + e.getMessage(), e);
         }
     }
     
@@ -93,7 +93,7 @@ public class UserService {
             
         } catch (SQLException e) {
             logger.error("Error during login", e);
-            throw new ServiceException("Login failed: " + e.getMessage());
+            throw new ServiceException("Login failed: " + e.getMessage(), e);
         }
     }
     
@@ -106,7 +106,7 @@ public class UserService {
                 .orElseThrow(() -> new ServiceException("User not found"));
         } catch (SQLException e) {
             logger.error("Error fetching user", e);
-            throw new ServiceException("Failed to fetch user: " + e.getMessage());
+            throw new ServiceException("Failed to fetch user: " + e.getMessage(), e);
         }
     }
     
@@ -118,7 +118,7 @@ public class UserService {
             return userDAO.findAll();
         } catch (SQLException e) {
             logger.error("Error fetching users", e);
-            throw new ServiceException("Failed to fetch users: " + e.getMessage());
+            throw new ServiceException("Failed to fetch users: " + e.getMessage(), e);
         }
     }
     
@@ -139,7 +139,7 @@ public class UserService {
             
         } catch (SQLException e) {
             logger.error("Error updating user", e);
-            throw new ServiceException("Failed to update user: " + e.getMessage());
+            throw new ServiceException("Failed to update user: " + e.getMessage(), e);
         }
     }
     
@@ -151,7 +151,7 @@ public class UserService {
             return userDAO.delete(id);
         } catch (SQLException e) {
             logger.error("Error deleting user", e);
-            throw new ServiceException("Failed to delete user: " + e.getMessage());
+            throw new ServiceException("Failed to delete user: " + e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,81 @@
+package com.example.airportmanagement.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utility class for opaque keyset-pagination cursors.
+ * A cursor encodes the sort key (a timestamp) and id of the last row on a page.
+ */
+public class CursorUtil {
+    private static final char SEPARATOR = '|';
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    
+    /**
+     * Position of the last row returned
+     */
+    public static class Cursor {
+        private final LocalDateTime timestamp;
+        private final long id;
+        
+        public Cursor(LocalDateTime timestamp, long id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+        
+        public LocalDateTime getTimestamp() {
+            return timestamp;
+        }
+        
+        public long getId() {
+            return id;
+        }
+    }
+    
+    /**
+     * Page size to use for a requested limit: the default when absent, capped at {@link #MAX_LIMIT}.
+     * Returns -1 if the limit is not positive.
+     */
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            return -1;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+    
+    /**
+     * Encode a cursor as a URL-safe token
+     */
+    public static String encode(LocalDateTime timestamp, long id) {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a token produced by {@link #encode}; returns null if it is missing or malformed
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                return null;
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.airportmanagement.util;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -51,6 +52,21 @@ public class DateUtil {
         }
     }
     
+    /**
+     * Parse string to LocalDate, accepting a plain date or a date-time
+     */
+    public static LocalDate parseDate(String dateStr) {
+        if (dateStr == null || dateStr.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(dateStr.trim());
+        } catch (Exception e) {
+            LocalDateTime dateTime = parse(dateStr.trim());
+            return dateTime != null ? dateTime.toLocalDate() : null;
+        }
+    }
+    
     /**
      * Get current date-time
      */
@@ -4,6 +4,9 @@
 
 let currentFlight = null;
 let allAirports = [];
+let shownFlights = [];
+let showingAll = true;
+let renderPending = false;
 
 // Initialize
 document.addEventListener('DOMContentLoaded', () => {
@@ -11,6 +14,7 @@ document.addEventListener('DOMContentLoaded', () => {
     loadAllFlights();
     loadAirports();
     checkAdminStaffAccess();
+    subscribeToFlightEvents();
     
     // Setup search form
     document.getElementById('searchForm').addEventListener('submit', handleSearch);
@@ -28,6 +32,7 @@ async function loadAllFlights() {
         const result = await response.json();
         
         if (result.success) {
+            showingAll = true;
             displayFlights(result.data);
         } else {
             document.getElementById('flightsList').innerHTML = 
@@ -57,6 +62,7 @@ async function handleSearch(event) {
         const result = await response.json();
         
         if (result.success) {
+            showingAll = false;
             displayFlights(result.data);
         } else {
             showNotification(result.error, 'error');
@@ -67,7 +73,74 @@ async function handleSearch(event) {
     }
 }
 
+// Live updates: apply flight changes to the cards on screen instead of re-fetching the list
+function subscribeToFlightEvents() {
+    if (!window.EventSource) {
+        return;
+    }
+    
+    // The browser reconnects on its own and resumes from the last event it saw
+    const events = new EventSource(`${API_BASE}/flight/events`);
+    const reloadListing = () => {
+        if (showingAll) {
+            loadAllFlights();
+        }
+    };
+    
+    // A new flight needs airport names the event does not carry
+    events.addEventListener('created', reloadListing);
+    events.addEventListener('reload', reloadListing);
+    ['schedule', 'status', 'seats'].forEach(type => {
+        events.addEventListener(type, event => applyFlightChange(JSON.parse(event.data)));
+    });
+    events.addEventListener('removed', event => {
+        const change = JSON.parse(event.data);
+        const remaining = shownFlights.filter(flight => flight.id !== change.flightId);
+        if (remaining.length !== shownFlights.length) {
+            shownFlights = remaining;
+            scheduleRender();
+        }
+    });
+}
+
+function applyFlightChange(change) {
+    const flight = shownFlights.find(f => f.id === change.flightId);
+    if (!flight) {
+        return;
+    }
+    
+    if ((change.sourceAirportId !== undefined && change.sourceAirportId !== flight.sourceAirportId) ||
+        (change.destinationAirportId !== undefined && change.destinationAirportId !== flight.destinationAirportId)) {
+        if (showingAll) {
+            loadAllFlights();
+        }
+        return;
+    }
+    
+    if (change.type === 'SEATS' && change.seatsAvailable === undefined) {
+        flight.seatsAvailable += change.seatsDelta;
+    }
+    ['flightNumber', 'departureTime', 'arrivalTime', 'seatsAvailable', 'price', 'status'].forEach(key => {
+        if (change[key] !== undefined) {
+            flight[key] = change[key];
+        }
+    });
+    scheduleRender();
+}
+
+// Redraw at most once per frame during a burst of changes
+function scheduleRender() {
+    if (!renderPending) {
+        renderPending = true;
+        requestAnimationFrame(() => {
+            renderPending = false;
+            displayFlights(shownFlights);
+        });
+    }
+}
+
 function displayFlights(flights) {
+    shownFlights = flights;
     const container = document.getElementById('flightsList');
     
     if (flights.length === 0) {
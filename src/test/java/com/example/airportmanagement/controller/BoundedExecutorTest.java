@@ -0,0 +1,55 @@
+package com.example.airportmanagement.controller;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedExecutor
+ */
+public class BoundedExecutorTest {
+    
+    @Test
+    public void testRefusesWorkWhenQueueIsFull() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor("test-full", 1, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        try {
+            assertTrue(executor.trySubmit(() -> {
+                started.countDown();
+                await(release);
+                ran.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            
+            // One worker busy: two tasks fit in the queue, the third is refused
+            assertTrue(executor.trySubmit(ran::incrementAndGet));
+            assertTrue(executor.trySubmit(ran::incrementAndGet));
+            assertFalse(executor.trySubmit(ran::incrementAndGet));
+            
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (ran.get() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, ran.get());
+            
+            // Capacity is available again once the backlog drains
+            assertTrue(executor.trySubmit(ran::incrementAndGet));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.airportmanagement.controller;
+
+import com.example.airportmanagement.service.TableVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for BaseServlet.checkNotModified
+ */
+public class ConditionalGetTest {
+    
+    private final BaseServlet servlet = new BaseServlet() {};
+    private final Map<String, Object> responseHeaders = new HashMap<>();
+    private int status = HttpServletResponse.SC_OK;
+    
+    private HttpServletRequest request(Map<String, String> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getHeader":
+                        return headers.get(args[0]);
+                    case "getDateHeader":
+                        String value = headers.get(args[0]);
+                        return value != null ? Long.parseLong(value) : -1L;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    private HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setHeader":
+                    case "setDateHeader":
+                        responseHeaders.put((String) args[0], args[1]);
+                        return null;
+                    case "setStatus":
+                        status = (Integer) args[0];
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    @Test
+    public void testMatchingETagIsNotModified() {
+        TableVersion.airports().bump();
+        assertFalse(servlet.checkNotModified(request(Map.of()), response(), 60, TableVersion.airports()));
+        String etag = (String) responseHeaders.get("ETag");
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals("max-age=60", responseHeaders.get("Cache-Control"));
+        
+        assertTrue(servlet.checkNotModified(request(Map.of("If-None-Match", "\"other\", W/" + etag)),
+            response(), 60, TableVersion.airports()));
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, status);
+    }
+    
+    @Test
+    public void testWriteChangesETag() {
+        servlet.checkNotModified(request(Map.of()), response(), 0, TableVersion.flights(), TableVersion.airports());
+        String etag = (String) responseHeaders.get("ETag");
+        assertEquals("no-cache", responseHeaders.get("Cache-Control"));
+        
+        TableVersion.flights().bump();
+        assertFalse(servlet.checkNotModified(request(Map.of("If-None-Match", etag)),
+            response(), 0, TableVersion.flights(), TableVersion.airports()));
+        assertNotEquals(etag, responseHeaders.get("ETag"));
+        assertEquals(HttpServletResponse.SC_OK, status);
+    }
+    
+    @Test
+    public void testIfModifiedSince() {
+        long lastModified = TableVersion.airports().getLastModifiedMillis();
+        assertTrue(servlet.checkNotModified(
+            request(Map.of("If-Modified-Since", String.valueOf(lastModified / 1000 * 1000))),
+            response(), 60, TableVersion.airports()));
+        
+        status = HttpServletResponse.SC_OK;
+        assertFalse(servlet.checkNotModified(
+            request(Map.of("If-Modified-Since", String.valueOf(lastModified - 5000))),
+            response(), 60, TableVersion.airports()));
+        assertEquals(HttpServletResponse.SC_OK, status);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.airportmanagement.dao;
+
+import com.example.airportmanagement.model.Airport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AirportCache
+ */
+public class AirportCacheTest {
+    
+    private final List<Airport> table = new ArrayList<>();
+    private final AtomicInteger queries = new AtomicInteger();
+    private AirportCache cache;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        table.add(new Airport(1L, "John F. Kennedy International", "JFK", "New York", "USA"));
+        table.add(new Airport(2L, "Heathrow", "LHR", "London", "UK"));
+        
+        cache = new AirportCache(new AirportDAO() {
+            @Override
+            public List<Airport> findAll() {
+                queries.incrementAndGet();
+                return new ArrayList<>(table);
+            }
+            
+            @Override
+            public Optional<Airport> findById(Long id) {
+                queries.incrementAndGet();
+                return table.stream().filter(a -> a.getId().equals(id)).findFirst();
+            }
+            
+            @Override
+            public Optional<Airport> findByCode(String code) {
+                queries.incrementAndGet();
+                return table.stream().filter(a -> a.getCode().equalsIgnoreCase(code)).findFirst();
+            }
+        });
+        cache.preload();
+        queries.set(0);
+    }
+    
+    @Test
+    public void testLookupsAreServedFromMemory() throws Exception {
+        assertEquals("LHR", cache.findById(2L).get().getCode());
+        assertEquals(1L, cache.findByCode("jfk").get().getId());
+        assertEquals("Heathrow", cache.findAll().get(0).getName());
+        assertEquals(0, queries.get());
+    }
+    
+    @Test
+    public void testCallersGetCopies() throws Exception {
+        cache.findById(1L).get().setName("Changed");
+        assertEquals("John F. Kennedy International", cache.findById(1L).get().getName());
+    }
+    
+    @Test
+    public void testWritesAndReadThrough() throws Exception {
+        table.add(new Airport(3L, "Changi", "SIN", "Singapore", "Singapore"));
+        assertEquals("Changi", cache.findByCode("SIN").get().getName());
+        assertEquals(1, queries.get());
+        assertTrue(cache.findById(3L).isPresent());
+        assertEquals(1, queries.get());
+        
+        cache.put(new Airport(2L, "London Heathrow", "LHR", "London", "UK"));
+        assertEquals("London Heathrow", cache.findByCode("LHR").get().getName());
+        
+        cache.remove(1L);
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.airportmanagement.dao;
+
+import com.example.airportmanagement.model.Airport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AirportSearchIndex
+ */
+public class AirportSearchIndexTest {
+    
+    private AirportSearchIndex index;
+    
+    @BeforeEach
+    public void setUp() {
+        index = new AirportSearchIndex();
+        index.rebuild(List.of(
+            new Airport(1L, "John F. Kennedy International", "JFK", "New York", "USA"),
+            new Airport(2L, "Heathrow", "LHR", "London", "UK"),
+            new Airport(3L, "Gatwick", "LGW", "London", "UK"),
+            new Airport(4L, "São Paulo–Guarulhos International", "GRU", "São Paulo", "Brazil"),
+            new Airport(5L, "Lhasa Gonggar", "LXA", "Lhasa", "China")));
+    }
+    
+    @Test
+    public void testPrefixesMatchAsTyped() {
+        assertEquals(List.of(2L), index.search("heat", 10));
+        assertEquals(List.of(1L), index.search("new yo", 10));
+        assertEquals(List.of(2L, 3L), index.search("London", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+    
+    @Test
+    public void testExactCodeRanksFirst() {
+        // "lh" is a prefix of both Lhasa and LHR; "lhr" is only Heathrow's code
+        assertEquals(List.of(2L), index.search("LHR", 10));
+        assertEquals(2, index.search("lh", 10).size());
+        assertEquals(3L, index.search("lgw london", 10).get(0));
+    }
+    
+    @Test
+    public void testToleratesTyposAndAccents() {
+        assertEquals(List.of(2L), index.search("heathrw", 10));
+        assertEquals(List.of(2L, 3L), index.search("londn", 10));
+        assertEquals(List.of(4L), index.search("sao paulo", 10));
+        assertEquals(List.of(), index.search("paris", 10));
+    }
+    
+    @Test
+    public void testUpdatesInPlace() {
+        index.put(new Airport(6L, "Charles de Gaulle", "CDG", "Paris", "France"));
+        index.put(new Airport(2L, "London Heathrow", "LHR", "Hounslow", "UK"));
+        index.remove(3L);
+        
+        assertEquals(List.of(6L), index.search("paris", 10));
+        assertEquals(List.of(2L), index.search("london", 10));
+        assertEquals(List.of(), index.search("gatwick", 10));
+        assertEquals(List.of(2L), index.search("hounslow", 1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.airportmanagement.dao;
+
+import com.example.airportmanagement.db.DatabaseConnection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlightSearchQuery
+ */
+public class FlightSearchQueryTest {
+    
+    @Test
+    public void testOnlySuppliedPredicates() {
+        assertEquals("WHERE f.status != 'CANCELLED'", new FlightSearchQuery().toWhereClause());
+        
+        String where = new FlightSearchQuery().destinationAirport(7L).toWhereClause();
+        assertEquals("WHERE f.destination_airport_id = ? AND f.status != 'CANCELLED'", where);
+    }
+    
+    @Test
+    public void testDateIsHalfOpenRange() {
+        FlightSearchQuery query = new FlightSearchQuery()
+            .sourceAirport(1L)
+            .destinationAirport(2L)
+            .departingOn(LocalDate.of(2025, 12, 31));
+        
+        assertEquals(LocalDateTime.of(2025, 12, 31, 0, 0), query.getDepartureFrom());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 0), query.getDepartureBefore());
+        
+        String where = query.toWhereClause();
+        assertEquals("WHERE f.source_airport_id = ? AND f.destination_airport_id = ? " +
+            "AND f.departure_time >= ? AND f.departure_time < ? AND f.status != 'CANCELLED'", where);
+        assertFalse(where.contains("DATE("));
+    }
+    
+    /**
+     * Needs a MySQL database with the schema and migrations applied; run with -Ddb.integration=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "db.integration", matches = "true")
+    public void testRouteSearchUsesIndex() throws Exception {
+        FlightSearchQuery query = new FlightSearchQuery()
+            .sourceAirport(1L)
+            .destinationAirport(2L)
+            .departingOn(LocalDate.now());
+        
+        Connection conn = DatabaseConnection.getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + FlightDAO.searchSql(query))) {
+            query.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean found = false;
+                while (rs.next()) {
+                    if ("f".equals(rs.getString("table"))) {
+                        found = true;
+                        assertEquals("idx_route_departure", rs.getString("key"));
+                        assertNotEquals("ALL", rs.getString("type"));
+                    }
+                }
+                assertTrue(found);
+            }
+        } finally {
+            DatabaseConnection.releaseConnection(conn);
+        }
+    }
+}
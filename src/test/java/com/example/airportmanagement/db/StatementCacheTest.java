@@ -0,0 +1,83 @@
+package com.example.airportmanagement.db;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Unit tests for StatementCache
+ */
+public class StatementCacheTest {
+    
+    private PreparedStatement statement() {
+        boolean[] closed = new boolean[1];
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "isClosed":
+                        return closed[0];
+                    case "close":
+                        closed[0] = true;
+                        return null;
+                    case "clearParameters":
+                    case "clearBatch":
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    private final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+            if ("prepareStatement".equals(method.getName())) {
+                return statement();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    
+    @Test
+    public void testRepeatedSqlIsServedFromCache() throws Exception {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement first = cache.prepare(connection, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        cache.release(first);
+        
+        assertSame(first, cache.prepare(connection, "SELECT 1", Statement.NO_GENERATED_KEYS));
+        assertFalse(first.isClosed());
+        assertEquals(1, cache.size());
+    }
+    
+    @Test
+    public void testClosedStatementIsReplacedAndForgotten() throws Exception {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement stale = cache.prepare(connection, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        stale.close();
+        
+        PreparedStatement fresh = cache.prepare(connection, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        assertNotSame(stale, fresh);
+        assertEquals(1, cache.size());
+        
+        // The replacement is the cached one: released, it stays open for the next caller
+        cache.release(fresh);
+        assertFalse(fresh.isClosed());
+        assertSame(fresh, cache.prepare(connection, "SELECT 1", Statement.NO_GENERATED_KEYS));
+    }
+    
+    @Test
+    public void testEvictedStatementIsClosed() throws Exception {
+        StatementCache cache = new StatementCache(1);
+        PreparedStatement first = cache.prepare(connection, "SELECT 1", Statement.NO_GENERATED_KEYS);
+        cache.prepare(connection, "SELECT 2", Statement.NO_GENERATED_KEYS);
+        
+        assertTrue(first.isClosed());
+        assertEquals(1, cache.size());
+    }
+}
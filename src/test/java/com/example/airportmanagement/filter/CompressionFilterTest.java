@@ -0,0 +1,134 @@
+package com.example.airportmanagement.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Unit tests for CompressionFilter and GzipResponseWrapper
+ */
+public class CompressionFilterTest {
+    
+    private final Map<String, String> responseHeaders = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private int contentLength = -1;
+    
+    private HttpServletRequest request(String acceptEncoding) {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                if (method.getName().equals("getHeader")) {
+                    return "Accept-Encoding".equals(args[0]) ? acceptEncoding : null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+    
+    private HttpServletResponse response() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+            
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+            
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getContentType":
+                        return "application/json";
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    case "getStatus":
+                        return HttpServletResponse.SC_OK;
+                    case "getOutputStream":
+                        return out;
+                    case "containsHeader":
+                        return responseHeaders.containsKey(args[0]);
+                    case "getHeader":
+                        return responseHeaders.get(args[0]);
+                    case "setHeader":
+                        responseHeaders.put((String) args[0], (String) args[1]);
+                        return null;
+                    case "setContentLength":
+                        contentLength = (Integer) args[0];
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(CompressionFilter.acceptsGzip(request("gzip, deflate, br")));
+        assertTrue(CompressionFilter.acceptsGzip(request("*")));
+        assertTrue(CompressionFilter.acceptsGzip(request("*;q=0, GZIP;q=0.5")));
+        assertFalse(CompressionFilter.acceptsGzip(request(null)));
+        assertFalse(CompressionFilter.acceptsGzip(request("deflate, br")));
+        assertFalse(CompressionFilter.acceptsGzip(request("gzip;q=0, *")));
+        assertFalse(CompressionFilter.acceptsGzip(request("gzip; q=0.0")));
+    }
+    
+    @Test
+    public void testSmallBodyIsSentAsIs() throws IOException {
+        GzipResponseWrapper wrapper = new GzipResponseWrapper(response(), new DeflaterPool(1, 6), 1024);
+        wrapper.getWriter().write("{\"ok\":true}");
+        wrapper.finish();
+        
+        assertEquals("{\"ok\":true}", body.toString(StandardCharsets.UTF_8));
+        assertEquals(11, contentLength);
+        assertNull(responseHeaders.get("Content-Encoding"));
+    }
+    
+    @Test
+    public void testLargeBodyIsGzipped() throws IOException {
+        DeflaterPool pool = new DeflaterPool(1, 6);
+        responseHeaders.put("ETag", "\"abc\"");
+        String json = "[" + "{\"flightNumber\":\"AB123\"},".repeat(500) + "{}]";
+        
+        GzipResponseWrapper wrapper = new GzipResponseWrapper(response(), pool, 1024);
+        wrapper.getWriter().write(json);
+        wrapper.getWriter().close();
+        
+        assertEquals("gzip", responseHeaders.get("Content-Encoding"));
+        assertEquals("W/\"abc\"", responseHeaders.get("ETag"));
+        assertEquals(-1, contentLength);
+        assertTrue(body.size() < json.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, pool.idleCount());
+    }
+    
+    @Test
+    public void testAbandonReturnsDeflater() throws IOException {
+        DeflaterPool pool = new DeflaterPool(1, 6);
+        GzipResponseWrapper wrapper = new GzipResponseWrapper(response(), pool, 16);
+        wrapper.getOutputStream().write(new byte[64]);
+        assertEquals(0, pool.idleCount());
+        
+        wrapper.abandon();
+        wrapper.abandon();
+        assertEquals(1, pool.idleCount());
+    }
+}
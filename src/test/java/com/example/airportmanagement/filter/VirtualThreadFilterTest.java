@@ -0,0 +1,167 @@
+package com.example.airportmanagement.filter;
+
+import com.example.airportmanagement.controller.BaseServlet;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Unit tests for VirtualThreadFilter together with CompressionFilter
+ */
+public class VirtualThreadFilterTest {
+    
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, String> responseHeaders = new ConcurrentHashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile AsyncContext async;
+    
+    private HttpServletRequest request() {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getHeader":
+                        return "Accept-Encoding".equals(args[0]) ? "gzip" : null;
+                    case "getMethod":
+                        return "GET";
+                    case "getDispatcherType":
+                        return DispatcherType.REQUEST;
+                    case "isAsyncStarted":
+                        return async != null;
+                    case "getAsyncContext":
+                        return async;
+                    case "startAsync":
+                        async = asyncContext((ServletRequest) args[0], (ServletResponse) args[1]);
+                        return async;
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "removeAttribute":
+                        attributes.remove(args[0]);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    private AsyncContext asyncContext(ServletRequest request, ServletResponse response) {
+        return (AsyncContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {AsyncContext.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getRequest":
+                        return request;
+                    case "getResponse":
+                        return response;
+                    case "setTimeout":
+                        return null;
+                    case "complete":
+                        completed.countDown();
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    private HttpServletResponse response() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                synchronized (body) {
+                    body.write(b);
+                }
+            }
+            
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+            
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getContentType":
+                        return responseHeaders.get("Content-Type");
+                    case "setContentType":
+                        responseHeaders.put("Content-Type", (String) args[0]);
+                        return null;
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    case "setCharacterEncoding":
+                        return null;
+                    case "getStatus":
+                        return HttpServletResponse.SC_OK;
+                    case "getOutputStream":
+                        return out;
+                    case "containsHeader":
+                        return responseHeaders.containsKey(args[0]);
+                    case "getHeader":
+                        return responseHeaders.get(args[0]);
+                    case "setHeader":
+                    case "addHeader":
+                        responseHeaders.put((String) args[0], (String) args[1]);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    @Test
+    public void testCompressionOutsideVirtualThreadsLeavesBodyOpen() throws Exception {
+        String json = "[" + "{\"flightNumber\":\"AB123\"},".repeat(500) + "{}]";
+        CompressionFilter compression = new CompressionFilter();
+        compression.init(null);
+        VirtualThreadFilter virtualThreads = new VirtualThreadFilter(true);
+        virtualThreads.init(null);
+        
+        FilterChain servlet = (request, response) -> {
+            // Runs on the virtual thread after the outer filters have returned
+            assertNull(request.getAttribute(BaseServlet.ASYNC_HANDOFF_ATTRIBUTE));
+            response.setContentType("application/json");
+            PrintWriter writer = response.getWriter();
+            writer.write(json);
+            writer.close();
+        };
+        // The order web.xml rules out: compression first, virtual threads inside it
+        compression.doFilter(request(), response(),
+            (request, response) -> virtualThreads.doFilter(request, response, servlet));
+        
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        virtualThreads.destroy();
+        assertEquals("gzip", responseHeaders.get("Content-Encoding"));
+        byte[] sent;
+        synchronized (body) {
+            sent = body.toByteArray();
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(sent))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.airportmanagement.metrics;
+
+import org.junit.jupiter.api.Test;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MetricsRegistry
+ */
+public class MetricsRegistryTest {
+    
+    private String scrape(MetricsRegistry registry) throws Exception {
+        StringWriter out = new StringWriter();
+        registry.writePrometheus(out);
+        return out.toString();
+    }
+    
+    @Test
+    public void testSameNameAndLabelsReturnSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter first = registry.counter("requests_total", "Requests", "route", "/list");
+        Counter second = registry.counter("requests_total", "Requests", "route", "/list");
+        Counter other = registry.counter("requests_total", "Requests", "route", "/search");
+        
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+    
+    @Test
+    public void testCounterAndGaugeFormat() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests", "route", "/list").increment(3);
+        registry.gauge("pool_connections", "Connections", () -> 7, "state", "idle");
+        
+        String text = scrape(registry);
+        assertTrue(text.contains("# TYPE requests_total counter\n"));
+        assertTrue(text.contains("requests_total{route=\"/list\"} 3\n"));
+        assertTrue(text.contains("# TYPE pool_connections gauge\n"));
+        assertTrue(text.contains("pool_connections{state=\"idle\"} 7\n"));
+    }
+    
+    @Test
+    public void testTimerBucketsAreCumulative() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Timer timer = registry.timer("call_seconds", "Calls", "method", "find");
+        timer.record(TimeUnit.MICROSECONDS.toNanos(200));
+        timer.record(TimeUnit.MILLISECONDS.toNanos(3));
+        timer.record(TimeUnit.SECONDS.toNanos(30));
+        
+        String text = scrape(registry);
+        assertTrue(text.contains("# TYPE call_seconds histogram\n"));
+        assertTrue(text.contains("call_seconds_bucket{method=\"find\",le=\"5.0E-4\"} 1\n"));
+        assertTrue(text.contains("call_seconds_bucket{method=\"find\",le=\"0.005\"} 2\n"));
+        assertTrue(text.contains("call_seconds_bucket{method=\"find\",le=\"10.0\"} 2\n"));
+        assertTrue(text.contains("call_seconds_bucket{method=\"find\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("call_seconds_count{method=\"find\"} 3\n"));
+        assertTrue(text.contains("call_seconds_max{method=\"find\"} 30\n"));
+    }
+    
+    @Test
+    public void testLabelValuesAreEscaped() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("errors_total", "Errors", "message", "say \"hi\"\\").increment();
+        
+        assertTrue(scrape(registry).contains("errors_total{message=\"say \\\"hi\\\"\\\\\"} 1\n"));
+    }
+    
+    @Test
+    public void testFailingGaugeDoesNotBreakScrape() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("broken", "Broken", () -> {
+            throw new IllegalStateException("down");
+        });
+        registry.counter("ok_total", "Ok").increment();
+        
+        String text = scrape(registry);
+        assertTrue(text.contains("broken NaN\n"));
+        assertTrue(text.contains("ok_total 1\n"));
+    }
+    
+    @Test
+    public void testTypeConflictIsRejected() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("calls", "Calls");
+        
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("calls", "Calls"));
+    }
+    
+    @Test
+    public void testUnknownRequestPathsShareOneSeries() throws Exception {
+        Set<String> routes = Set.of("/", "/list", "/{id}");
+        long startNanos = System.nanoTime();
+        Metrics.recordRequest("RouteTestServlet", "GET", "/list", routes, 200, startNanos);
+        Metrics.recordRequest("RouteTestServlet", "GET", "/42", routes, 200, startNanos);
+        Metrics.recordRequest("RouteTestServlet", "GET", "/43", routes, 200, startNanos);
+        for (int i = 0; i < 50; i++) {
+            Metrics.recordRequest("RouteTestServlet", "GET", "/probe-" + i + "/x", routes, 400, startNanos);
+        }
+        Metrics.recordRequest("RouteTestServlet", "GET", "/missing", routes, 404, startNanos);
+        
+        String text = scrape(MetricsRegistry.getInstance());
+        String prefix = "http_server_requests_seconds_count{servlet=\"RouteTestServlet\",method=\"GET\",route=";
+        long series = text.lines().filter(line -> line.startsWith(prefix)).count();
+        assertEquals(4, series);
+        assertTrue(text.contains(prefix + "\"/{id}\",status=\"200\"} 2\n"));
+        assertTrue(text.contains(prefix + "\"other\",status=\"400\"} 50\n"));
+        assertTrue(text.contains(prefix + "\"unmatched\",status=\"404\"} 1\n"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.AirportDAO;
+import com.example.airportmanagement.model.Airport;
+import com.example.airportmanagement.model.ImportProgress;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for AirportImporter
+ */
+public class AirportImporterTest {
+    
+    private final List<List<String>> upserts = new ArrayList<>();
+    private final List<Airport> written = new ArrayList<>();
+    
+    private final AirportDAO airportDAO = new AirportDAO() {
+        @Override
+        public void upsertBatch(List<Airport> airports) throws SQLException {
+            List<String> codes = new ArrayList<>();
+            for (Airport airport : airports) {
+                codes.add(airport.getCode());
+            }
+            upserts.add(codes);
+            written.addAll(airports);
+        }
+    };
+    
+    private final Map<String, Airport> existing = Map.of(
+        "JFK", new Airport(1L, "John F. Kennedy International Airport", "JFK", "New York", "USA"),
+        "LAX", new Airport(2L, "Los Angeles International Airport", "LAX", "Los Angeles", "USA"));
+    
+    private ImportProgress run(List<ImportProgress> reports, String... lines) throws Exception {
+        AirportImporter importer = new AirportImporter(airportDAO, existing, 100);
+        BufferedReader reader = new BufferedReader(new StringReader(String.join("\n", lines)));
+        return importer.importFrom(reader, reports::add);
+    }
+    
+    @Test
+    public void testNewAndChangedAirportsAreUpsertedInOneBatch() throws Exception {
+        List<ImportProgress> reports = new ArrayList<>();
+        ImportProgress totals = run(reports,
+            "code,name,city,country",
+            "JFK,John F. Kennedy International Airport,New York,USA",
+            "LAX,Los Angeles Intl,Los Angeles,USA",
+            "DCA,\"Ronald Reagan Washington National Airport, \"\"DCA\"\"\",Arlington,USA",
+            "{\"code\":\"ORD\",\"name\":\"O'Hare International Airport\",\"city\":\"Chicago\",\"country\":\"USA\"}");
+        
+        assertEquals(4, totals.getRowsRead());
+        assertEquals(4, totals.getImported());
+        assertEquals(0, totals.getFailed());
+        // JFK is unchanged and not written
+        assertEquals(List.of(List.of("LAX", "DCA", "ORD")), upserts);
+        assertEquals("Ronald Reagan Washington National Airport, \"DCA\"", written.get(1).getName());
+    }
+    
+    @Test
+    public void testDuplicateAndInvalidRowsAreRejected() throws Exception {
+        List<ImportProgress> reports = new ArrayList<>();
+        ImportProgress totals = run(reports,
+            "SFO,San Francisco International Airport,San Francisco,USA",
+            "sfo,lowercase code,San Francisco,USA",
+            "SFO,San Francisco Intl,San Francisco,USA",
+            "SEA,,Seattle,USA");
+        
+        assertEquals(1, totals.getImported());
+        assertEquals(3, totals.getFailed());
+        List<ImportProgress.ImportError> errors = reports.get(0).getErrors();
+        assertTrue(errors.get(0).getError().startsWith("Invalid airport code"));
+        assertEquals("Duplicate airport code SFO (first on line 1).", errors.get(1).getError());
+        assertEquals("Airport name is required.", errors.get(2).getError());
+        assertEquals(List.of(List.of("SFO")), upserts);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.BookingDAO;
+import com.example.airportmanagement.model.Booking;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for BookingWriter
+ */
+public class BookingWriterTest {
+    
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<Long> singleWrites = new ArrayList<>();
+    private long nextId = 100;
+    // Batches containing flight 4 wait for this before committing
+    private final CountDownLatch slowCommit = new CountDownLatch(1);
+    
+    /**
+     * Flight 2 has no seats left; flight 3 makes any batch containing it fail;
+     * flight 4 holds its batch until slowCommit opens
+     */
+    private final BookingDAO bookingDAO = new BookingDAO() {
+        @Override
+        public boolean[] createBatchWithSeatReservation(List<Booking> bookings) throws SQLException {
+            batchSizes.add(bookings.size());
+            boolean[] accepted = new boolean[bookings.size()];
+            for (Booking booking : bookings) {
+                if (booking.getFlightId() == 3L) {
+                    throw new SQLException("Cannot add or update a child row");
+                }
+                if (booking.getFlightId() == 4L) {
+                    try {
+                        slowCommit.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted", e);
+                    }
+                }
+            }
+            for (int i = 0; i < bookings.size(); i++) {
+                accepted[i] = bookings.get(i).getFlightId() != 2L;
+                if (accepted[i]) {
+                    bookings.get(i).setId(nextId++);
+                }
+            }
+            return accepted;
+        }
+        
+        @Override
+        public Optional<Booking> createWithSeatReservation(Booking booking) throws SQLException {
+            singleWrites.add(booking.getFlightId());
+            if (booking.getFlightId() == 3L) {
+                throw new SQLException("Cannot add or update a child row");
+            }
+            booking.setId(nextId++);
+            return Optional.of(booking);
+        }
+    };
+    
+    private Booking booking(long flightId) {
+        Booking booking = new Booking();
+        booking.setUserId(1L);
+        booking.setFlightId(flightId);
+        booking.setSeatsBooked(1);
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        return booking;
+    }
+    
+    private Optional<Booking> result(CompletableFuture<Optional<Booking>> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void testQueuedBookingsShareOneBatch() throws Exception {
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 100, 50);
+        List<CompletableFuture<Optional<Booking>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(writer.submit(booking(1L)));
+        }
+        writer.start();
+        try {
+            for (CompletableFuture<Optional<Booking>> future : futures) {
+                assertTrue(result(future).isPresent());
+                assertNotNull(result(future).get().getId());
+            }
+            assertEquals(List.of(5), batchSizes);
+        } finally {
+            writer.shutdown();
+        }
+    }
+    
+    @Test
+    public void testBatchSizeIsCapped() throws Exception {
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 2, 50);
+        List<CompletableFuture<Optional<Booking>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(writer.submit(booking(1L)));
+        }
+        writer.start();
+        try {
+            for (CompletableFuture<Optional<Booking>> future : futures) {
+                assertTrue(result(future).isPresent());
+            }
+            assertEquals(List.of(2, 2, 1), batchSizes);
+        } finally {
+            writer.shutdown();
+        }
+    }
+    
+    @Test
+    public void testRefusedBookingDoesNotAffectOthers() throws Exception {
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 100, 50);
+        CompletableFuture<Optional<Booking>> first = writer.submit(booking(1L));
+        CompletableFuture<Optional<Booking>> soldOut = writer.submit(booking(2L));
+        CompletableFuture<Optional<Booking>> last = writer.submit(booking(1L));
+        writer.start();
+        try {
+            assertTrue(result(first).isPresent());
+            assertFalse(result(soldOut).isPresent());
+            assertTrue(result(last).isPresent());
+            assertEquals(1, batchSizes.size());
+        } finally {
+            writer.shutdown();
+        }
+    }
+    
+    @Test
+    public void testFailedBatchIsRetriedOneByOne() throws Exception {
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 100, 50);
+        CompletableFuture<Optional<Booking>> good = writer.submit(booking(1L));
+        CompletableFuture<Optional<Booking>> bad = writer.submit(booking(3L));
+        CompletableFuture<Optional<Booking>> alsoGood = writer.submit(booking(1L));
+        writer.start();
+        try {
+            assertTrue(result(good).isPresent());
+            assertTrue(result(alsoGood).isPresent());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result(bad));
+            assertTrue(e.getCause() instanceof SQLException);
+            assertEquals(List.of(1L, 3L, 1L), singleWrites);
+        } finally {
+            writer.shutdown();
+        }
+    }
+    
+    @Test
+    public void testShutdownWritesWhatIsQueued() throws Exception {
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 100, 50);
+        CompletableFuture<Optional<Booking>> queued = writer.submit(booking(1L));
+        writer.shutdown();
+        
+        assertTrue(result(queued).isPresent());
+        assertThrows(ExecutionException.class, () -> result(writer.submit(booking(1L))));
+    }
+    
+    @Test
+    public void testTimeoutBeforeBatchMeansNotWritten() throws Exception {
+        // Never started: the booking stays queued until the wait gives up
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 100, 50, 50);
+        SQLException e = assertThrows(SQLException.class, () -> writer.write(booking(1L)));
+        assertFalse(e instanceof BookingOutcomeUnknownException);
+        
+        writer.shutdown();
+        assertTrue(batchSizes.isEmpty());
+    }
+    
+    @Test
+    public void testTimeoutInsideBatchLeavesOutcomeOpen() throws Exception {
+        BookingWriter writer = new BookingWriter(bookingDAO, false, 100, 10, 100);
+        writer.start();
+        try {
+            BookingOutcomeUnknownException e = assertThrows(BookingOutcomeUnknownException.class,
+                () -> writer.write(booking(4L)));
+            assertFalse(e.getOutcome().isDone());
+            
+            slowCommit.countDown();
+            assertTrue(result(e.getOutcome()).isPresent());
+        } finally {
+            slowCommit.countDown();
+            writer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.model.DashboardSummary;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DashboardCache
+ */
+public class DashboardCacheTest {
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    private DashboardSummary summary(DashboardCache cache, long userId) throws Exception {
+        return cache.get(userId, () -> new DashboardSummary(10, 3, loads.incrementAndGet(), List.of()));
+    }
+    
+    @Test
+    public void testCachedPerUser() throws Exception {
+        DashboardCache cache = new DashboardCache(10, 60);
+        
+        assertEquals(1, summary(cache, 1).getMyBookings());
+        assertEquals(1, summary(cache, 1).getMyBookings());
+        assertEquals(2, summary(cache, 2).getMyBookings());
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+    
+    @Test
+    public void testInvalidateDropsOnlyThatUser() throws Exception {
+        DashboardCache cache = new DashboardCache(10, 60);
+        summary(cache, 1);
+        summary(cache, 2);
+        
+        cache.invalidate(1L);
+        summary(cache, 1);
+        summary(cache, 2);
+        
+        assertEquals(3, loads.get());
+    }
+    
+    @Test
+    public void testLoadAcrossInvalidationIsNotStored() throws Exception {
+        DashboardCache cache = new DashboardCache(10, 60);
+        
+        cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return new DashboardSummary(0, 0, 0, List.of());
+        });
+        
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    public void testZeroTtlDisablesCache() throws Exception {
+        DashboardCache cache = new DashboardCache(10, 0);
+        summary(cache, 1);
+        summary(cache, 1);
+        
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.FlightChange;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for FlightChangeBus
+ */
+public class FlightChangeBusTest {
+    
+    private final FlightChangeBus bus = new FlightChangeBus(4);
+    
+    private static class Recorder implements FlightChangeBus.Subscriber {
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        long fromId = -1;
+        Boolean resumed;
+        
+        Recorder(int expected) {
+            received = new CountDownLatch(expected);
+        }
+        
+        @Override
+        public void onSubscribe(long fromId, boolean resumed) {
+            this.fromId = fromId;
+            this.resumed = resumed;
+        }
+        
+        @Override
+        public void onChange(FlightChange change) {
+            ids.add(change.getId());
+            received.countDown();
+        }
+    }
+    
+    private long publish() {
+        FlightChange change = FlightChange.seats(1L, -1, null);
+        bus.publish(change);
+        return change.getId();
+    }
+    
+    @Test
+    public void testNewSubscriberSeesOnlyLaterChanges() throws InterruptedException {
+        publish();
+        Recorder recorder = new Recorder(2);
+        bus.subscribe(-1, recorder);
+        assertTrue(recorder.resumed);
+        assertEquals(bus.getLastId(), recorder.fromId);
+        
+        long second = publish();
+        long third = publish();
+        assertTrue(recorder.received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(second, third), recorder.ids);
+    }
+    
+    @Test
+    public void testConcurrentPublishesArriveInIdOrder() throws InterruptedException {
+        int publishers = 8;
+        int perPublisher = 500;
+        Recorder recorder = new Recorder(publishers * perPublisher);
+        bus.subscribe(-1, recorder);
+        
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < publishers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < perPublisher; j++) {
+                    publish();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertTrue(recorder.received.await(5, TimeUnit.SECONDS));
+        assertEquals(publishers * perPublisher, recorder.ids.size());
+        for (int i = 1; i < recorder.ids.size(); i++) {
+            assertEquals(recorder.ids.get(i - 1) + 1, recorder.ids.get(i));
+        }
+    }
+    
+    @Test
+    public void testResumeReplaysBufferedChanges() {
+        long first = publish();
+        long second = publish();
+        long third = publish();
+        
+        Recorder recorder = new Recorder(2);
+        bus.subscribe(first, recorder);
+        assertTrue(recorder.resumed);
+        assertEquals(first, recorder.fromId);
+        assertEquals(List.of(second, third), recorder.ids);
+    }
+    
+    @Test
+    public void testResumePastBufferIsNotResumed() {
+        long first = publish();
+        for (int i = 0; i < 5; i++) {
+            publish();
+        }
+        
+        Recorder recorder = new Recorder(0);
+        bus.subscribe(first, recorder);
+        assertFalse(recorder.resumed);
+        assertEquals(bus.getLastId(), recorder.fromId);
+        assertTrue(recorder.ids.isEmpty());
+        
+        // An id from before a restart, or garbage, is not resumable either
+        Recorder stale = new Recorder(0);
+        bus.subscribe(0, stale);
+        assertFalse(stale.resumed);
+    }
+    
+    @Test
+    public void testChangesCarryOnlyTouchedFields() {
+        FlightChange status = FlightChange.status(7L, Flight.FlightStatus.DELAYED);
+        assertEquals(FlightChange.Type.STATUS, status.getType());
+        assertEquals(7L, status.getFlightId());
+        assertNull(status.getSeatsAvailable());
+        assertNull(status.getDepartureTime());
+        
+        FlightChange reload = FlightChange.reload();
+        assertNull(reload.getFlightId());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.dao.FlightSearchQuery;
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.Itinerary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Unit tests for FlightGraph
+ */
+public class FlightGraphTest {
+    
+    private static final long JFK = 1L;
+    private static final long ORD = 2L;
+    private static final long LAX = 3L;
+    private static final long DEN = 4L;
+    
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private final Map<Long, Flight> flights = new HashMap<>();
+    private int searches;
+    private FlightGraph graph;
+    
+    private final FlightDAO flightDAO = new FlightDAO() {
+        @Override
+        public List<Flight> search(FlightSearchQuery query) throws SQLException {
+            searches++;
+            return new ArrayList<>(flights.values());
+        }
+        
+        @Override
+        public Optional<Flight> findById(Long id) throws SQLException {
+            return Optional.ofNullable(flights.get(id));
+        }
+    };
+    
+    private Flight flight(long id, long from, long to, String departs, String arrives, double price) {
+        Flight flight = new Flight(id, "AA" + (100 + id), from, to,
+            at(departs), at(arrives), 100, price);
+        flights.put(id, flight);
+        return flight;
+    }
+    
+    private LocalDateTime at(String time) {
+        return LocalDateTime.of(day, LocalTime.parse(time));
+    }
+    
+    private List<Long> flightIds(Itinerary itinerary) {
+        List<Long> ids = new ArrayList<>();
+        for (Flight leg : itinerary.getLegs()) {
+            ids.add(leg.getId());
+        }
+        return ids;
+    }
+    
+    @BeforeEach
+    public void setUp() {
+        graph = new FlightGraph(flightDAO, 30, 45, 12, 300);
+        flight(1, JFK, LAX, "08:00", "14:00", 500);
+        flight(2, JFK, ORD, "07:00", "09:00", 120);
+        flight(3, ORD, LAX, "09:30", "12:00", 150);
+        flight(4, ORD, LAX, "10:00", "12:30", 140);
+        flight(5, JFK, DEN, "06:00", "09:00", 90);
+        flight(6, DEN, LAX, "10:00", "11:30", 80);
+    }
+    
+    @Test
+    public void testBestByArrivalRespectsMinimumConnection() throws Exception {
+        List<Itinerary> results = graph.findConnections(JFK, LAX, day, 2, 3, 1, FlightGraph.SortOrder.ARRIVAL);
+        
+        // Flight 3 leaves ORD only 30 minutes after flight 2 lands
+        assertEquals(3, results.size());
+        assertEquals(List.of(5L, 6L), flightIds(results.get(0)));
+        assertEquals(List.of(2L, 4L), flightIds(results.get(1)));
+        assertEquals(List.of(1L), flightIds(results.get(2)));
+        assertEquals(1, results.get(0).getStops());
+        assertEquals(170.0, results.get(0).getTotalPrice(), 0.001);
+    }
+    
+    @Test
+    public void testBestByPrice() throws Exception {
+        List<Itinerary> results = graph.findConnections(JFK, LAX, day, 2, 2, 1, FlightGraph.SortOrder.PRICE);
+        
+        assertEquals(List.of(5L, 6L), flightIds(results.get(0)));
+        assertEquals(List.of(2L, 4L), flightIds(results.get(1)));
+    }
+    
+    @Test
+    public void testMaxLegsAndDate() throws Exception {
+        List<Itinerary> direct = graph.findConnections(JFK, LAX, day, 1, 5, 1, FlightGraph.SortOrder.ARRIVAL);
+        assertEquals(1, direct.size());
+        assertEquals(List.of(1L), flightIds(direct.get(0)));
+        
+        assertTrue(graph.findConnections(JFK, LAX, day.plusDays(1), 2, 5, 1, FlightGraph.SortOrder.ARRIVAL)
+            .isEmpty());
+    }
+    
+    @Test
+    public void testIncrementalUpdates() throws Exception {
+        graph.findConnections(JFK, LAX, day, 2, 5, 1, FlightGraph.SortOrder.ARRIVAL);
+        assertEquals(6, graph.size());
+        
+        graph.remove(6L);
+        flight(7, JFK, LAX, "05:00", "11:00", 300);
+        graph.refresh(7L);
+        graph.adjustSeats(4L, -99);
+        
+        List<Itinerary> results = graph.findConnections(JFK, LAX, day, 2, 5, 2, FlightGraph.SortOrder.ARRIVAL);
+        assertEquals(List.of(7L), flightIds(results.get(0)));
+        assertEquals(List.of(1L), flightIds(results.get(1)));
+        assertEquals(2, results.size());
+        assertEquals(1, searches);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.ImportProgress;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for FlightImporter
+ */
+public class FlightImporterTest {
+    
+    private static final String DEPARTURE = LocalDateTime.now().plusDays(30).withNano(0)
+        .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private static final String ARRIVAL = LocalDateTime.now().plusDays(30).plusHours(2).withNano(0)
+        .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    
+    private final Map<String, Long> airports = Map.of("JFK", 1L, "LAX", 2L, "3", 3L);
+    private final List<Integer> batches = new ArrayList<>();
+    private final List<String> singles = new ArrayList<>();
+    private long nextId = 1;
+    
+    /**
+     * Flight number XX999 violates a constraint, failing any batch that contains it
+     */
+    private final FlightDAO flightDAO = new FlightDAO() {
+        @Override
+        public void createBatch(List<Flight> flights) throws SQLException {
+            batches.add(flights.size());
+            for (Flight flight : flights) {
+                if ("XX999".equals(flight.getFlightNumber())) {
+                    throw new SQLException("Cannot add or update a child row", "23000");
+                }
+            }
+            for (Flight flight : flights) {
+                flight.setId(nextId++);
+            }
+        }
+        
+        @Override
+        public Flight create(Flight flight) throws SQLException {
+            singles.add(flight.getFlightNumber());
+            if ("XX999".equals(flight.getFlightNumber())) {
+                throw new SQLException("Cannot add or update a child row", "23000");
+            }
+            flight.setId(nextId++);
+            return flight;
+        }
+    };
+    
+    private String csv(String flightNumber, String from, String to) {
+        return String.join(",", flightNumber, from, to, DEPARTURE, ARRIVAL, "180", "249.99");
+    }
+    
+    private ImportProgress run(int batchSize, List<ImportProgress> reports, String... lines) throws Exception {
+        FlightImporter importer = new FlightImporter(flightDAO, airports::get, batchSize);
+        BufferedReader reader = new BufferedReader(new StringReader(String.join("\n", lines)));
+        return importer.importFrom(reader, reports::add);
+    }
+    
+    @Test
+    public void testCsvAndJsonLinesAreImportedInChunks() throws Exception {
+        List<ImportProgress> reports = new ArrayList<>();
+        ImportProgress totals = run(2, reports,
+            String.join(",", FlightImporter.COLUMNS),
+            csv("AA100", "JFK", "LAX"),
+            "",
+            "{\"flightNumber\":\"AA101\",\"from\":\"LAX\",\"to\":3,\"departureTime\":\"" + DEPARTURE
+                + "\",\"arrivalTime\":\"" + ARRIVAL + "\",\"seatsAvailable\":150,\"price\":99.5}",
+            csv("AA102", "\"3\"", "JFK"));
+        
+        assertEquals(3, totals.getRowsRead());
+        assertEquals(3, totals.getImported());
+        assertEquals(0, totals.getFailed());
+        assertEquals(List.of(2, 1), batches);
+        assertEquals(2, reports.size());
+        assertEquals(2, reports.get(0).getImported());
+        assertEquals(3, reports.get(1).getImported());
+    }
+    
+    @Test
+    public void testInvalidRowsAreReportedByLine() throws Exception {
+        List<ImportProgress> reports = new ArrayList<>();
+        ImportProgress totals = run(100, reports,
+            csv("AA100", "JFK", "LAX"),
+            csv("bad", "JFK", "LAX"),
+            csv("AA101", "JFK", "ORD"),
+            csv("AA102", "JFK", "JFK"),
+            "AA103,JFK,LAX",
+            "{not json",
+            csv("AA104", "LAX", "JFK"));
+        
+        assertEquals(7, totals.getRowsRead());
+        assertEquals(2, totals.getImported());
+        assertEquals(5, totals.getFailed());
+        assertEquals(List.of(2), batches);
+        
+        List<ImportProgress.ImportError> errors = reports.get(0).getErrors();
+        assertEquals(5, errors.size());
+        assertEquals(2, errors.get(0).getLine());
+        assertTrue(errors.get(0).getError().startsWith("Invalid flight number"));
+        assertEquals("Unknown airport: ORD", errors.get(1).getError());
+        assertEquals("Source and destination airports cannot be the same.", errors.get(2).getError());
+        assertEquals("Expected 7 columns, got 3.", errors.get(3).getError());
+        assertEquals(6, errors.get(4).getLine());
+    }
+    
+    @Test
+    public void testFailedBatchIsRetriedRowByRow() throws Exception {
+        List<ImportProgress> reports = new ArrayList<>();
+        ImportProgress totals = run(100, reports,
+            csv("AA100", "JFK", "LAX"),
+            csv("XX999", "JFK", "LAX"),
+            csv("AA101", "LAX", "JFK"));
+        
+        assertEquals(2, totals.getImported());
+        assertEquals(1, totals.getFailed());
+        assertEquals(List.of("AA100", "XX999", "AA101"), singles);
+        assertEquals(2, reports.get(0).getErrors().get(0).getLine());
+    }
+    
+    @Test
+    public void testConnectionFailureStopsTheImport() {
+        FlightDAO unreachable = new FlightDAO() {
+            @Override
+            public void createBatch(List<Flight> flights) throws SQLException {
+                throw new SQLException("Communications link failure", "08S01");
+            }
+            
+            @Override
+            public Flight create(Flight flight) throws SQLException {
+                throw new SQLException("Communications link failure", "08S01");
+            }
+        };
+        FlightImporter importer = new FlightImporter(unreachable, airports::get, 100);
+        BufferedReader reader = new BufferedReader(new StringReader(csv("AA100", "JFK", "LAX")));
+        
+        assertThrows(SQLException.class, () -> importer.importFrom(reader, progress -> { }));
+    }
+}
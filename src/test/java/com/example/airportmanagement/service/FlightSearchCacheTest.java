@@ -0,0 +1,98 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.FlightSearchQuery;
+import com.example.airportmanagement.model.Flight;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlightSearchCache
+ */
+public class FlightSearchCacheTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 1);
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    private List<Flight> search(FlightSearchCache cache, FlightSearchQuery query, Flight... result) 
+            throws Exception {
+        return cache.get(query, () -> {
+            loads.incrementAndGet();
+            List<Flight> flights = new ArrayList<>();
+            for (Flight flight : result) {
+                flights.add(flight);
+            }
+            return flights;
+        });
+    }
+    
+    private Flight flight(long id, long source, long destination, LocalDateTime departure) {
+        return new Flight(id, "AA" + id, source, destination, departure, departure.plusHours(2), 100, 99.0);
+    }
+    
+    private FlightSearchQuery route(long source, long destination) {
+        return new FlightSearchQuery().sourceAirport(source).destinationAirport(destination).departingOn(DAY);
+    }
+    
+    @Test
+    public void testHitsReturnCopies() throws Exception {
+        FlightSearchCache cache = new FlightSearchCache(true, 10, 60);
+        Flight f1 = flight(1, 1, 2, DAY.atTime(9, 0));
+        
+        search(cache, route(1, 2), f1).get(0).setSeatsAvailable(5);
+        List<Flight> hit = search(cache, route(1, 2), f1);
+        
+        assertEquals(1, loads.get());
+        assertEquals(100, hit.get(0).getSeatsAvailable());
+        assertEquals(0.5, cache.getHitRatio(), 0.0001);
+    }
+    
+    @Test
+    public void testInvalidationIsPrecise() throws Exception {
+        FlightSearchCache cache = new FlightSearchCache(true, 10, 60);
+        Flight f1 = flight(1, 1, 2, DAY.atTime(9, 0));
+        Flight f2 = flight(2, 3, 4, DAY.atTime(9, 0));
+        search(cache, route(1, 2), f1);
+        search(cache, route(3, 4), f2);
+        
+        // Seat change on f1 only touches the route that returned it
+        cache.invalidate(1L);
+        assertEquals(1, cache.size());
+        
+        // A new flight on 3 -> 4 that day drops that route; one on another day does not
+        search(cache, route(1, 2), f1);
+        cache.invalidate(flight(3, 3, 4, DAY.plusDays(1).atTime(9, 0)));
+        assertEquals(2, cache.size());
+        cache.invalidate(flight(4, 3, 4, DAY.atTime(23, 59)));
+        assertEquals(1, cache.size());
+    }
+    
+    @Test
+    public void testLoadAcrossInvalidationIsNotStored() throws Exception {
+        FlightSearchCache cache = new FlightSearchCache(true, 10, 60);
+        Flight f1 = flight(1, 1, 2, DAY.atTime(9, 0));
+        
+        cache.get(route(1, 2), () -> {
+            cache.invalidate(f1);
+            List<Flight> flights = new ArrayList<>();
+            flights.add(f1);
+            return flights;
+        });
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    public void testSizeBound() throws Exception {
+        FlightSearchCache cache = new FlightSearchCache(true, 2, 60);
+        for (long route = 1; route <= 3; route++) {
+            search(cache, route(route, route + 10));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+}
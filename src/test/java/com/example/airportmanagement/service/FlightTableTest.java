@@ -0,0 +1,134 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.dao.RowHandler;
+import com.example.airportmanagement.model.Flight;
+import com.example.airportmanagement.model.RouteStats;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for FlightTable and FlightTimetable
+ */
+public class FlightTableTest {
+    
+    private static final long JFK = 1L;
+    private static final long ORD = 2L;
+    private static final long LAX = 3L;
+    
+    private final LocalDate day = LocalDate.of(2030, 6, 1);
+    private final List<Flight> flights = new ArrayList<>();
+    private int reads;
+    
+    private final FlightDAO flightDAO = new FlightDAO() {
+        @Override
+        public void streamAll(RowHandler<Flight> handler) throws SQLException, IOException {
+            reads++;
+            for (Flight flight : flights) {
+                handler.handle(flight);
+            }
+        }
+    };
+    
+    private Flight flight(long id, long from, long to, String departs, double price) {
+        LocalDateTime departure = LocalDateTime.of(day, LocalTime.parse(departs));
+        Flight flight = new Flight(id, "AA" + (100 + id), from, to,
+            departure, departure.plusHours(3), 100, price);
+        flight.setStatus(Flight.FlightStatus.SCHEDULED);
+        flights.add(flight);
+        return flight;
+    }
+    
+    private FlightTable build() {
+        FlightTable.Builder builder = new FlightTable.Builder();
+        flights.forEach(builder::add);
+        return builder.build();
+    }
+    
+    private long at(String time) {
+        return FlightTable.epochSecond(LocalDateTime.of(day, LocalTime.parse(time)));
+    }
+    
+    @Test
+    public void testRowsOfRouteAreSortedByDeparture() {
+        flight(1, JFK, LAX, "18:00", 300.0);
+        flight(2, JFK, ORD, "07:00", 150.0);
+        flight(3, JFK, LAX, "06:00", 250.0);
+        flight(4, JFK, LAX, "12:00", 280.0);
+        FlightTable table = build();
+        
+        assertEquals(4, table.size());
+        assertEquals(2, table.getRouteCount());
+        
+        int route = table.route(JFK, LAX);
+        List<Long> ids = new ArrayList<>();
+        for (int row = table.firstRow(route, Long.MIN_VALUE); row < table.endRow(route); row++) {
+            ids.add(table.getId(row));
+        }
+        assertEquals(List.of(3L, 4L, 1L), ids);
+        
+        assertEquals(4L, table.getId(table.firstRow(route, at("07:00"))));
+        assertEquals(table.endRow(route), table.firstRow(route, at("19:00")));
+        assertEquals(-1, table.route(LAX, JFK));
+    }
+    
+    @Test
+    public void testRouteStatsSkipsCancelledAndOutOfWindow() {
+        flight(1, JFK, LAX, "06:00", 200.0);
+        flight(2, JFK, LAX, "12:00", 300.0);
+        flight(3, JFK, LAX, "15:00", 900.0).setStatus(Flight.FlightStatus.CANCELLED);
+        flight(4, JFK, LAX, "23:00", 400.0);
+        FlightTable table = build();
+        
+        RouteStats stats = table.routeStats(JFK, LAX, at("00:00"), at("20:00"));
+        assertEquals(2, stats.getFlights());
+        assertEquals(200, stats.getSeatsAvailable());
+        assertEquals(200.0, stats.getMinPrice());
+        assertEquals(250.0, stats.getAveragePrice());
+        assertEquals(300.0, stats.getMaxPrice());
+        
+        RouteStats none = table.routeStats(LAX, JFK, at("00:00"), at("20:00"));
+        assertEquals(0, none.getFlights());
+        assertNull(none.getMinPrice());
+    }
+    
+    @Test
+    public void testCountByStatusAndToFlight() {
+        flight(1, JFK, ORD, "08:00", 120.5);
+        flight(2, JFK, ORD, "09:00", 130.0).setStatus(Flight.FlightStatus.DELAYED);
+        FlightTable table = build();
+        
+        int[] counts = table.countByStatus();
+        assertEquals(1, counts[Flight.FlightStatus.SCHEDULED.ordinal()]);
+        assertEquals(1, counts[Flight.FlightStatus.DELAYED.ordinal()]);
+        
+        Flight copy = table.toFlight(table.firstRow(table.route(JFK, ORD), Long.MIN_VALUE));
+        assertEquals(1L, copy.getId());
+        assertEquals("AA101", copy.getFlightNumber());
+        assertEquals(LocalDateTime.of(day, LocalTime.of(8, 0)), copy.getDepartureTime());
+        assertEquals(120.5, copy.getPrice());
+    }
+    
+    @Test
+    public void testTimetableRebuildsOnlyWhenStale() throws SQLException {
+        flight(1, JFK, LAX, "06:00", 200.0);
+        FlightTimetable timetable = new FlightTimetable(flightDAO, 3600);
+        
+        assertEquals(1, timetable.getTable().size());
+        assertEquals(1, timetable.getTable().size());
+        assertEquals(1, reads);
+        
+        flight(2, JFK, LAX, "09:00", 250.0);
+        timetable.markStale();
+        assertEquals(2, timetable.getTable().size());
+        assertEquals(2, reads);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.airportmanagement.service;
+
+import com.example.airportmanagement.dao.BookingDAO;
+import com.example.airportmanagement.dao.FlightDAO;
+import com.example.airportmanagement.model.Flight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+
+/**
+ * Unit tests for SeatInventory
+ */
+public class SeatInventoryTest {
+    
+    private Flight storedFlight;
+    private SeatInventory inventory;
+    // Run by the fake DAO after reading the row, as if it happened while the query was out
+    private Runnable duringRead = () -> { };
+    
+    @BeforeEach
+    public void setUp() {
+        storedFlight = new Flight();
+        storedFlight.setId(1L);
+        storedFlight.setSeatsAvailable(5);
+        storedFlight.setPrice(100.0);
+        storedFlight.setStatus(Flight.FlightStatus.SCHEDULED);
+        
+        FlightDAO flightDAO = new FlightDAO() {
+            @Override
+            public Optional<Flight> findSeatAvailability(Long id) {
+                Optional<Flight> flight = id.equals(storedFlight.getId())
+                    ? Optional.of(copy(storedFlight)) : Optional.empty();
+                duringRead.run();
+                return flight;
+            }
+        };
+        inventory = new SeatInventory(flightDAO, new BookingDAO(), 100);
+    }
+    
+    @Test
+    public void testHoldsNeverOversell() throws Exception {
+        assertEquals(SeatInventory.HoldResult.GRANTED, inventory.tryHold(1L, 3));
+        assertEquals(SeatInventory.HoldResult.INSUFFICIENT_SEATS, inventory.tryHold(1L, 3));
+        assertEquals(SeatInventory.HoldResult.GRANTED, inventory.tryHold(1L, 2));
+        assertEquals(0, inventory.getAvailableSeats(1L));
+        assertEquals(100.0, inventory.getPrice(1L), 0.001);
+    }
+    
+    @Test
+    public void testAbortAndReleaseReturnSeats() throws Exception {
+        inventory.tryHold(1L, 4);
+        inventory.abort(1L, 4);
+        assertEquals(5, inventory.getAvailableSeats(1L));
+        
+        inventory.tryHold(1L, 2);
+        inventory.confirm(1L, 2);
+        inventory.release(1L, 2);
+        assertEquals(5, inventory.getAvailableSeats(1L));
+    }
+    
+    @Test
+    public void testUnknownAndCancelledFlights() throws Exception {
+        assertEquals(SeatInventory.HoldResult.NOT_FOUND, inventory.tryHold(2L, 1));
+        
+        inventory.tryHold(1L, 1);
+        storedFlight.setStatus(Flight.FlightStatus.CANCELLED);
+        inventory.refresh(1L);
+        assertEquals(SeatInventory.HoldResult.NOT_BOOKABLE, inventory.tryHold(1L, 1));
+    }
+    
+    @Test
+    public void testReconcileKeepsInFlightHolds() throws Exception {
+        inventory.tryHold(1L, 2);
+        
+        // Database drifted (e.g. a staff edit elsewhere) while the hold is still uncommitted
+        storedFlight.setSeatsAvailable(10);
+        inventory.reconcile();
+        
+        assertEquals(8, inventory.getAvailableSeats(1L));
+        assertEquals(1, inventory.getDriftCorrections());
+    }
+    
+    @Test
+    public void testReloadDoesNotHoldTheStripeOrUndoAConcurrentHold() throws Exception {
+        inventory.tryHold(1L, 2);
+        storedFlight.setPrice(120.0);
+        
+        // Another thread confirms the hold and books again while the row is being read
+        duringRead = () -> {
+            Thread booker = new Thread(() -> {
+                inventory.confirm(1L, 2);
+                storedFlight.setSeatsAvailable(3);
+                try {
+                    inventory.tryHold(1L, 1);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            booker.start();
+            try {
+                booker.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(booker.isAlive(), "hold blocked behind the reload");
+        };
+        inventory.refresh(1L);
+        
+        // The stale row (5 seats) must not overwrite the counter the holds moved to
+        assertEquals(2, inventory.getAvailableSeats(1L));
+        assertEquals(0, inventory.getDriftCorrections());
+        // Price and status do not depend on holds and are applied regardless
+        assertEquals(120.0, inventory.getPrice(1L), 0.001);
+        
+        duringRead = () -> { };
+        inventory.refresh(1L);
+        assertEquals(2, inventory.getAvailableSeats(1L));
+    }
+    
+    private static Flight copy(Flight source) {
+        Flight flight = new Flight();
+        flight.setId(source.getId());
+        flight.setSeatsAvailable(source.getSeatsAvailable());
+        flight.setPrice(source.getPrice());
+        flight.setStatus(source.getStatus());
+        return flight;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.airportmanagement.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CursorUtil
+ */
+public class CursorUtilTest {
+    
+    @Test
+    public void testRoundTrip() {
+        LocalDateTime departure = LocalDateTime.of(2025, 3, 14, 9, 30, 15, 123000000);
+        String token = CursorUtil.encode(departure, 42L);
+        
+        CursorUtil.Cursor cursor = CursorUtil.decode(token);
+        assertNotNull(cursor);
+        assertEquals(departure, cursor.getTimestamp());
+        assertEquals(42L, cursor.getId());
+        assertFalse(token.contains("="));
+    }
+    
+    @Test
+    public void testMalformedCursor() {
+        assertNull(CursorUtil.decode(null));
+        assertNull(CursorUtil.decode(""));
+        assertNull(CursorUtil.decode("not a cursor"));
+        assertNull(CursorUtil.decode(CursorUtil.encode(LocalDateTime.now(), 1L).substring(3)));
+    }
+    
+    @Test
+    public void testResolveLimit() {
+        assertEquals(CursorUtil.DEFAULT_LIMIT, CursorUtil.resolveLimit(null));
+        assertEquals(10, CursorUtil.resolveLimit(10));
+        assertEquals(CursorUtil.MAX_LIMIT, CursorUtil.resolveLimit(100000));
+        assertEquals(-1, CursorUtil.resolveLimit(0));
+    }
+}